@@ -0,0 +1,39 @@
+package org.example.bench;
+
+import org.example.Metrics;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DagPathBenchmark {
+
+    @Benchmark
+    public DAGPathFinder.PathResult shortest(DagState state) {
+        return new DAGPathFinder(state.condensation, state.order, new Metrics()).run(0, false);
+    }
+
+
+    @Benchmark
+    public DAGPathFinder.PathResult longest(DagState state) {
+        return new DAGPathFinder(state.condensation, state.order, new Metrics()).run(0, true);
+    }
+
+
+    @Benchmark
+    public DAGPathFinder.PathPair both(DagState state) {
+        return new DAGPathFinder(state.condensation, state.order, new Metrics()).runBoth(0);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.bench;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.KosarajuSCC;
+import org.example.graph.topo.TopologicalSort;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+
+// Input for the stages after SCC. Only shapes whose condensation is a real DAG
+// are used here: sparse and dense collapse into a single component, which
+// would leave topological sort and the path finder nothing to do.
+@State(Scope.Benchmark)
+public class DagState {
+    @Param({"sparse-dag", "dense-dag", "multi-scc"})
+    public String shape;
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    public CsrGraph condensation;
+    public int[] order;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = GraphState.generate(shape, edges);
+
+        KosarajuSCC scc = new KosarajuSCC(graph, new Metrics());
+        scc.run();
+        condensation = scc.getCondensationCsr();
+
+        List<Integer> sorted = new TopologicalSort(condensation, new Metrics()).run();
+        order = new int[sorted.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = sorted.get(i);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.bench;
+
+import org.example.DatasetGenerator;
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.KosarajuSCC;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+// One generated graph per (shape, edges) trial, plus its SCC ids so the
+// condensation benchmark times a single stage. The later stages use DagState.
+@State(Scope.Benchmark)
+public class GraphState {
+    private static final double DENSITY = 0.1;
+
+    @Param({"sparse", "dense", "multi-scc", "single-cycle"})
+    public String shape;
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    public CsrGraph graph;
+    public int[] sccMap;
+    public int sccCount;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = generate(shape, edges);
+
+        KosarajuSCC scc = new KosarajuSCC(graph, new Metrics());
+        scc.run();
+        sccCount = scc.getSccCount();
+        sccMap = new int[graph.V];
+        for (int u = 0; u < graph.V; u++) {
+            sccMap[u] = scc.getSccId(u);
+        }
+    }
+
+
+    // Node counts are chosen so each shape lands close to the requested edge count.
+    static CsrGraph generate(String shape, int edges) {
+        int n;
+        List<DatasetGenerator.EdgeData> list;
+        switch (shape) {
+            case "sparse":
+                n = Math.max(2, edges * 2 / 3);
+                list = DatasetGenerator.generateSparse(n);
+                break;
+            case "dense":
+                n = Math.max(2, (int) Math.sqrt(edges / DENSITY));
+                list = DatasetGenerator.generateDense(n, DENSITY);
+                break;
+            case "sparse-dag":
+                // generateSparse's edges, each pointed from the lower to the higher id.
+                n = Math.max(2, edges * 2 / 3);
+                list = new ArrayList<>();
+                for (DatasetGenerator.EdgeData e : DatasetGenerator.generateSparse(n)) {
+                    list.add(new DatasetGenerator.EdgeData(Math.min(e.u, e.v), Math.max(e.u, e.v), e.w));
+                }
+                break;
+            case "dense-dag":
+                n = Math.max(2, (int) Math.sqrt(2.0 * edges / DENSITY));
+                list = DatasetGenerator.generateDAG(n, DENSITY);
+                break;
+            case "multi-scc":
+                n = Math.max(2, edges * 100 / 101);
+                list = DatasetGenerator.generateMultipleSCCs(n, Math.max(1, n / 100));
+                break;
+            case "single-cycle":
+                n = Math.max(2, edges);
+                list = DatasetGenerator.generateSingleCycle(n, n / 2);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown graph shape: " + shape);
+        }
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, list.size());
+        for (DatasetGenerator.EdgeData e : list) {
+            builder.addEdge(e.u, e.v, e.w);
+        }
+        return builder.build();
+    }
+}
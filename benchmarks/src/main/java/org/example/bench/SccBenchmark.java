@@ -0,0 +1,37 @@
+package org.example.bench;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.CondensationBuilder;
+import org.example.graph.scc.KosarajuSCC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SccBenchmark {
+
+    @Benchmark
+    public KosarajuSCC kosaraju(GraphState state) {
+        KosarajuSCC scc = new KosarajuSCC(state.graph, new Metrics());
+        scc.run();
+        return scc;
+    }
+
+
+    @Benchmark
+    public CsrGraph condensation(GraphState state) {
+        return CondensationBuilder.build(state.graph, state.sccMap, state.sccCount);
+    }
+}
@@ -0,0 +1,293 @@
+package org.example;
+
+import org.example.graph.io.BinaryGraphFormat;
+import org.example.report.ReportBuffer;
+import org.example.report.ReportWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+// Runs Main.analyze over many dataset files in one JVM on a fixed-size pool, so
+// startup and JIT warmup are paid once. Every file gets its own Metrics; the
+// summary reports p50/p99 per timer across files.
+public class BatchRunner {
+    private static final String GLOB_CHARS = "*?[{";
+
+    private final Main.Options options;
+    private final PrintStream out;
+    private ReportWriter sharedReport;
+
+
+    // Only what the progress line and the summary need, so the graph and path
+    // arrays of a file can be collected as soon as its report is written.
+    public static class FileResult {
+        public final Path file;
+        public final int nodes;
+        public final int edges;
+        public final int sccCount;
+        public final Metrics metrics;
+        public final Exception error;
+        public final String report;
+
+
+        FileResult(Path file, Main.Result result, Metrics metrics, Exception error, String report) {
+            this.file = file;
+            this.nodes = result == null ? 0 : result.nodes;
+            this.edges = result == null ? 0 : result.edges;
+            this.sccCount = result == null ? 0 : result.sccCount;
+            this.metrics = metrics;
+            this.error = error;
+            this.report = report;
+        }
+    }
+
+
+    public static class Summary {
+        public final int files;
+        public final int failed;
+        public final long wallNanos;
+        public final long loadedBytes;
+        // Per-file nanos for each timer, sorted ascending.
+        public final Map<String, long[]> phases;
+
+
+        Summary(int files, int failed, long wallNanos, long loadedBytes, Map<String, long[]> phases) {
+            this.files = files;
+            this.failed = failed;
+            this.wallNanos = wallNanos;
+            this.loadedBytes = loadedBytes;
+            this.phases = phases;
+        }
+
+
+        public long percentile(String phase, double p) {
+            return BatchRunner.percentile(phases.get(phase), p);
+        }
+    }
+
+
+    public BatchRunner(Main.Options options, PrintStream out) {
+        this.options = options;
+        this.out = out;
+    }
+
+
+    public static boolean isBatchInput(String input) {
+        return Files.isDirectory(Paths.get(input)) || hasGlob(input);
+    }
+
+
+    private static boolean hasGlob(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (GLOB_CHARS.indexOf(input.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    // Directories contribute their *.json / *.csrg files, globs their matches
+    // (both sorted); plain files are taken as given. Duplicates are dropped.
+    public static List<Path> resolve(List<String> inputs) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String input : inputs) {
+            Path path = Paths.get(input);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> stream = Files.list(path)) {
+                    files.addAll(stream.filter(BatchRunner::isDataset).sorted().collect(Collectors.toList()));
+                }
+            } else if (hasGlob(input)) {
+                files.addAll(expandGlob(input));
+            } else {
+                files.add(path);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+
+    private static boolean isDataset(Path p) {
+        String name = p.getFileName().toString();
+        return Files.isRegularFile(p) && (name.endsWith(".json") || name.endsWith(BinaryGraphFormat.EXTENSION));
+    }
+
+
+    private static List<Path> expandGlob(String glob) throws IOException {
+        int firstGlob = 0;
+        while (GLOB_CHARS.indexOf(glob.charAt(firstGlob)) < 0) {
+            firstGlob++;
+        }
+        int split = glob.lastIndexOf('/', firstGlob);
+        Path base = split < 0 ? Paths.get(".") : Paths.get(split == 0 ? "/" : glob.substring(0, split));
+        String pattern = glob.substring(split + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        int depth = pattern.contains("**") ? Integer.MAX_VALUE : (int) pattern.chars().filter(c -> c == '/').count() + 1;
+        if (!Files.isDirectory(base)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.walk(base, depth)) {
+            return stream.filter(Files::isRegularFile)
+                    .filter(p -> matcher.matches(base.relativize(p)))
+                    .map(p -> split < 0 ? base.relativize(p) : p)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+
+    // With --report-out every file's report goes to that one file, one dataset at a
+    // time; otherwise --verbose prints each report with its progress line.
+    public Summary run(List<Path> files) throws InterruptedException, IOException {
+        if (options.reportOut == null) {
+            return runAll(files);
+        }
+        try (ReportWriter report = Main.openReport(options)) {
+            sharedReport = report;
+            return runAll(files);
+        } finally {
+            sharedReport = null;
+        }
+    }
+
+
+    private Summary runAll(List<Path> files) throws InterruptedException {
+        int threads = Math.max(1, Math.min(options.threads, files.size()));
+        out.println("=== Batch Analysis ===");
+        out.println("Files: " + files.size() + ", threads: " + threads + ", SCC engine: " + options.sccEngineName);
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<FileResult> results = new ArrayList<>(files.size());
+        try {
+            CompletionService<FileResult> completion = new ExecutorCompletionService<>(pool);
+            for (Path file : files) {
+                completion.submit(() -> analyze(file));
+            }
+            for (int done = 1; done <= files.size(); done++) {
+                FileResult r = completion.take().get();
+                results.add(r);
+                printLine(done, files.size(), r);
+            }
+        } catch (ExecutionException e) {
+            // analyze() catches per-file failures itself; anything here is a bug.
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        Summary summary = summarize(results, wallNanos);
+        printSummary(summary, threads);
+        return summary;
+    }
+
+
+    private FileResult analyze(Path file) {
+        Metrics metrics = new Metrics();
+        try {
+            Main.Result result = Main.analyze(file.toString(), options, metrics);
+            String text = null;
+            if (sharedReport != null) {
+                synchronized (sharedReport) {
+                    Main.writeReport(result, sharedReport, metrics);
+                }
+            } else if (options.verbose) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                try (ReportWriter report = ReportWriter.create("text", ReportBuffer.of(buffer), options.reportLimit)) {
+                    Main.writeReport(result, report, metrics);
+                }
+                text = buffer.toString(StandardCharsets.UTF_8);
+            }
+            return new FileResult(file, result, metrics, null, text);
+        } catch (Exception e) {
+            return new FileResult(file, null, metrics, e, null);
+        }
+    }
+
+
+    private void printLine(int done, int total, FileResult r) {
+        if (r.report != null) {
+            out.print(r.report);
+        }
+        if (r.error != null) {
+            out.printf("[%d/%d] %s: FAILED (%s)%n", done, total, r.file, r.error);
+            return;
+        }
+        Long nanos = r.metrics.timings().get("TotalTime");
+        out.printf("[%d/%d] %s: %d nodes, %d edges, %d SCCs, %.2f ms%n", done, total, r.file,
+                r.nodes, r.edges, r.sccCount, nanos == null ? 0 : nanos / 1e6);
+    }
+
+
+    static Summary summarize(List<FileResult> results, long wallNanos) {
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+        int failed = 0;
+        long loadedBytes = 0;
+        for (FileResult r : results) {
+            if (r.error != null) {
+                failed++;
+                continue;
+            }
+            loadedBytes += r.metrics.getBytes("LoadData");
+            for (Map.Entry<String, Long> entry : r.metrics.timings().entrySet()) {
+                samples.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(entry.getValue());
+            }
+        }
+        Map<String, long[]> phases = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Long>> entry : samples.entrySet()) {
+            long[] values = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(values);
+            phases.put(entry.getKey(), values);
+        }
+        return new Summary(results.size(), failed, wallNanos, loadedBytes, phases);
+    }
+
+
+    // Nearest-rank percentile of an ascending array.
+    static long percentile(long[] sorted, double p) {
+        if (sorted == null || sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+
+    private void printSummary(Summary summary, int threads) {
+        double wallSeconds = summary.wallNanos / 1e9;
+        out.println("\n=== Batch Summary ===");
+        out.printf("Files: %d ok, %d failed, %d threads, wall %.1f ms%n", summary.files - summary.failed,
+                summary.failed, threads, summary.wallNanos / 1e6);
+        out.printf("Throughput: %.1f files/s, %.2f MB/s loaded%n", summary.files / wallSeconds,
+                summary.loadedBytes / (1024.0 * 1024.0) / wallSeconds);
+        out.printf("  %-20s %12s %12s %12s%n", "Phase", "p50 (ms)", "p99 (ms)", "max (ms)");
+        for (Map.Entry<String, long[]> entry : summary.phases.entrySet()) {
+            long[] values = entry.getValue();
+            out.printf("  %-20s %12.4f %12.4f %12.4f%n", entry.getKey(), percentile(values, 50) / 1e6,
+                    percentile(values, 99) / 1e6, values[values.length - 1] / 1e6);
+        }
+    }
+}
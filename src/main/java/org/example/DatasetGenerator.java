@@ -6,10 +6,8 @@ import com.google.gson.GsonBuilder;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
 
 
 public class DatasetGenerator {
@@ -74,16 +72,12 @@ public class DatasetGenerator {
     }
     public static List<EdgeData> generateDense(int n, double density) {
         List<EdgeData> edges = new ArrayList<>();
-        Set<String> edgeSet = new HashSet<>();
-        
+
+        // Every ordered pair is drawn exactly once, so no duplicate check is needed.
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 if (i != j && random.nextDouble() < density) {
-                    String edgeKey = i + "," + j;
-                    if (!edgeSet.contains(edgeKey)) {
-                        edges.add(new EdgeData(i, j, random.nextInt(10) + 1));
-                        edgeSet.add(edgeKey);
-                    }
+                    edges.add(new EdgeData(i, j, random.nextInt(10) + 1));
                 }
             }
         }
@@ -124,9 +118,9 @@ public class DatasetGenerator {
     }
 
 
-    static class EdgeData {
-        int u, v, w;
-        EdgeData(int u, int v, int w) {
+    public static class EdgeData {
+        public int u, v, w;
+        public EdgeData(int u, int v, int w) {
             this.u = u;
             this.v = v;
             this.w = w;
@@ -0,0 +1,255 @@
+package org.example;
+
+import org.example.graph.io.BinaryGraphFormat;
+import org.example.graph.io.CsrStreamWriter;
+import org.example.graph.io.JsonGraphWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+// Deterministic, parallel, streaming generator for large synthetic graphs.
+// Nodes are cut into fixed blocks and each block draws its edges from its own
+// SplittableRandom seeded by (seed, block), so the output depends only on the
+// seed, never on the thread count. Blocks are generated on a pool and handed to
+// the sink strictly in order, with at most two blocks per thread in flight.
+public class GraphGenerator {
+    private static final int BLOCK_NODES = 1 << 15;
+    private static final int MAX_WEIGHT = 10;
+
+    // grid: one-way streets right/down, some two-way, plus rare long shortcuts
+    private static final double TWO_WAY = 0.3;
+    private static final double SHORTCUT = 0.02;
+    // powerlaw: Pareto out-degree (mean 3) towards low-id hubs
+    private static final double FANOUT_ALPHA = 2.5;
+    private static final int MAX_FANOUT = 10_000;
+    // clusters: rings of CLUSTER_SIZE with chords, DAG edges to the next WINDOW clusters
+    private static final int CLUSTER_SIZE = 100;
+    private static final int WINDOW = 50;
+    private static final double CROSS_CLUSTER = 0.5;
+
+    public enum Topology { GRID, POWER_LAW, CLUSTERS }
+
+    private final Topology topology;
+    private final int n;
+    private final long seed;
+    private final int threads;
+    private final int columns;
+
+
+    @FunctionalInterface
+    public interface EdgeSink {
+        void accept(int[] sources, int[] targets, int[] weights, int count) throws IOException;
+    }
+
+
+    private static class Block {
+        int[] sources = new int[1024];
+        int[] targets = new int[1024];
+        int[] weights = new int[1024];
+        int size;
+
+
+        void add(int u, int v, int w) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            sources[size] = u;
+            targets[size] = v;
+            weights[size] = w;
+            size++;
+        }
+    }
+
+
+    public GraphGenerator(Topology topology, int n, long seed, int threads) {
+        this.topology = topology;
+        this.n = n;
+        this.seed = seed;
+        this.threads = Math.max(1, threads);
+        this.columns = (int) Math.ceil(Math.sqrt(n));
+    }
+
+
+    public long generate(EdgeSink sink) throws IOException {
+        int blocks = (n + BLOCK_NODES - 1) / BLOCK_NODES;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayDeque<Future<Block>> inFlight = new ArrayDeque<>();
+            int next = 0;
+            long edges = 0;
+            while (next < blocks || !inFlight.isEmpty()) {
+                while (next < blocks && inFlight.size() < 2 * threads) {
+                    int b = next++;
+                    inFlight.add(pool.submit(() -> generateBlock(b)));
+                }
+                Block block = inFlight.poll().get();
+                sink.accept(block.sources, block.targets, block.weights, block.size);
+                edges += block.size;
+            }
+            return edges;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Graph generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Graph generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+
+    private Block generateBlock(int b) {
+        SplittableRandom random = new SplittableRandom(mix(seed + 0x9e3779b97f4a7c15L * (b + 1)));
+        Block block = new Block();
+        int end = (int) Math.min(n, (long) (b + 1) * BLOCK_NODES);
+        for (int u = b * BLOCK_NODES; u < end; u++) {
+            switch (topology) {
+                case GRID:
+                    gridEdges(u, random, block);
+                    break;
+                case POWER_LAW:
+                    powerLawEdges(u, random, block);
+                    break;
+                case CLUSTERS:
+                    clusterEdges(u, random, block);
+                    break;
+            }
+        }
+        return block;
+    }
+
+
+    // Whether the street between a and its right (dir 0) or lower (dir 1) neighbour
+    // is two-way is a pure function of the seed, so both ends agree on it.
+    private void gridEdges(int u, SplittableRandom random, Block block) {
+        int column = u % columns;
+        if (column + 1 < columns && u + 1 < n) {
+            block.add(u, u + 1, weight(random));
+        }
+        if (u + columns < n) {
+            block.add(u, u + columns, weight(random));
+        }
+        if (column > 0 && twoWay(u - 1, 0)) {
+            block.add(u, u - 1, weight(random));
+        }
+        if (u >= columns && twoWay(u - columns, 1)) {
+            block.add(u, u - columns, weight(random));
+        }
+        if (random.nextDouble() < SHORTCUT) {
+            int v = random.nextInt(n);
+            if (v != u) {
+                block.add(u, v, weight(random));
+            }
+        }
+    }
+
+
+    private boolean twoWay(int node, int direction) {
+        long h = mix(seed ^ (2L * node + direction) * 0xbf58476d1ce4e5b9L);
+        return (h >>> 11) * 0x1.0p-53 < TWO_WAY;
+    }
+
+
+    private void powerLawEdges(int u, SplittableRandom random, Block block) {
+        double x = 1.0 / Math.pow(1.0 - random.nextDouble(), 1.0 / (FANOUT_ALPHA - 1));
+        int degree = (int) Math.min(MAX_FANOUT, Math.floor(x));
+        for (int i = 0; i < degree; i++) {
+            double r = random.nextDouble();
+            int v = (int) (n * r * r * r);
+            if (v != u) {
+                block.add(u, v, weight(random));
+            }
+        }
+    }
+
+
+    private void clusterEdges(int u, SplittableRandom random, Block block) {
+        int cluster = u / CLUSTER_SIZE;
+        int start = cluster * CLUSTER_SIZE;
+        int size = Math.min(CLUSTER_SIZE, n - start);
+        if (size > 1) {
+            block.add(u, start + (u - start + 1) % size, weight(random));
+            int chord = start + random.nextInt(size);
+            if (chord != u) {
+                block.add(u, chord, weight(random));
+            }
+        }
+        int clusters = (n + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        if (cluster + 1 < clusters && random.nextDouble() < CROSS_CLUSTER) {
+            int target = cluster + 1 + random.nextInt(Math.min(WINDOW, clusters - cluster - 1));
+            int targetStart = target * CLUSTER_SIZE;
+            block.add(u, targetStart + random.nextInt(Math.min(CLUSTER_SIZE, n - targetStart)), weight(random));
+        }
+    }
+
+
+    private static int weight(SplittableRandom random) {
+        return 1 + random.nextInt(MAX_WEIGHT);
+    }
+
+
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return x ^ (x >>> 33);
+    }
+
+
+    public static Topology parseTopology(String name) {
+        switch (name) {
+            case "grid":
+                return Topology.GRID;
+            case "powerlaw":
+                return Topology.POWER_LAW;
+            case "clusters":
+                return Topology.CLUSTERS;
+            default:
+                throw new IllegalArgumentException("Unknown topology: " + name);
+        }
+    }
+
+
+    // GraphGenerator <grid|powerlaw|clusters> <nodes> <output.json|output.csrg> [seed] [threads]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: GraphGenerator <grid|powerlaw|clusters> <nodes> <output.json|output.csrg>"
+                    + " [seed] [threads]");
+            System.exit(1);
+        }
+        Topology topology = parseTopology(args[0]);
+        int n = Integer.parseInt(args[1]);
+        Path output = Paths.get(args[2]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        GraphGenerator generator = new GraphGenerator(topology, n, seed, threads);
+
+        long start = System.nanoTime();
+        long edges;
+        if (output.toString().endsWith(BinaryGraphFormat.EXTENSION)) {
+            try (CsrStreamWriter writer = new CsrStreamWriter(output, n, true, 0, "edge")) {
+                edges = generator.generate(writer::writeEdges);
+                writer.finish();
+            }
+        } else {
+            try (JsonGraphWriter writer = new JsonGraphWriter(output, n, true, 0, "edge")) {
+                edges = generator.generate(writer::writeEdges);
+                writer.finish();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long bytes = output.toFile().length();
+        System.out.printf("Generated: %s (%s, %d nodes, %d edges, %.1f MB, %.2f s, %.1f MB/s)%n", output, args[0],
+                n, edges, bytes / (1024.0 * 1024.0), seconds, bytes / (1024.0 * 1024.0) / seconds);
+    }
+}
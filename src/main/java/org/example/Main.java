@@ -1,135 +1,284 @@
 package org.example;
 
-import com.google.gson.Gson;
-import org.example.graph.Graph;
-import org.example.graph.scc.KosarajuSCC;
+import org.example.graph.CsrGraph;
+import org.example.graph.io.GraphDataset;
+import org.example.graph.io.GraphFiles;
+import org.example.graph.io.ResultCache;
+import org.example.graph.scc.PrecomputedScc;
+import org.example.graph.scc.SccEngine;
+import org.example.graph.topo.ParallelKahnSort;
 import org.example.graph.topo.TopologicalSort;
+import org.example.graph.dagsp.CriticalPathMethod;
 import org.example.graph.dagsp.DAGPathFinder;
+import org.example.report.ReportBuffer;
+import org.example.report.ReportWriter;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 
 public class Main {
-    public static void main(String[] args) {
-        String filename = args.length > 0 ? args[0] : "data/small_1.json";
+    public static class Options {
+        public String sccEngineName = "kosaraju";
+        public String topoMode = "dfs";
+        public String cacheDir = null;
+        public long cacheMaxBytes = 1L << 30;
+        public int threads = Runtime.getRuntime().availableProcessors();
+        public boolean verbose = false;
+        public String reportFormat = "text";
+        public String reportOut = null;
+        public int reportLimit = ReportWriter.UNLIMITED;
+        public boolean cpm = false;
+        public boolean offHeap = false;
+        public int servePort = -1;
 
-        Metrics metrics = new Metrics();
+        static final int SUMMARY_LIMIT = 10;
+    }
 
-        try {
-            metrics.start("TotalTime");
-            metrics.start("LoadData");
-            GraphData data = GraphData.loadFromFile(filename);
-            Graph g = new Graph(data.n);
-            for (GraphData.EdgeData e : data.edges) {
-                g.addEdge(e.u, e.v, e.w);
-            }
-            metrics.stop("LoadData");
-
-            System.out.println("=== Smart City Scheduling Analysis ===");
-            System.out.println("Dataset: " + filename);
-            System.out.println("Loaded graph with " + data.n + " nodes and " + data.edges.size() + " edges.");
-            System.out.println("Original Source Node: " + data.source);
-            System.out.println("Weight Model: " + data.weight_model);
-            System.out.println("---");
-
-            System.out.println("### 1.1 Strongly Connected Components ###");
-            metrics.start("SCC");
-            KosarajuSCC sccFinder = new KosarajuSCC(g, metrics);
-            sccFinder.run();
-            metrics.stop("SCC");
 
-            List<List<Integer>> sccs = sccFinder.getSccs();
-            System.out.println("Found " + sccs.size() + " SCCs:");
-            for (int i = 0; i < sccs.size(); i++) {
-                System.out.println("  SCC " + i + " (Size " + sccs.get(i).size() + "): " + sccs.get(i));
-            }
+    public static class Result {
+        public String dataset;
+        public int nodes;
+        public int edges;
+        public int sccCount;
+        public int source;
+        public String weightModel;
+        public String sccEngine;
+        public String cacheStatus;
+        public CsrGraph graph;
+        public SccEngine scc;
+        public CsrGraph condensation;
+        public List<Integer> topoOrder;
+        public ParallelKahnSort.Schedule schedule;
+        public int sourceScc;
+        public DAGPathFinder.PathResult shortestPaths;
+        public DAGPathFinder.PathResult longestPaths;
+        public DAGPathFinder.Path criticalPath;
+        public int exampleTarget = -1;
+        public List<Integer> examplePath;
+        public CriticalPathMethod.CpmResult cpm;
+    }
+
 
-            System.out.println("\nBuilding condensation graph... ");
-            Graph condensationGraph = sccFinder.getCondensationGraph();
-            System.out.println("Condensation graph has " + condensationGraph.V + " nodes (one per SCC). Edges:");
-            condensationGraph.print();
-            System.out.println("---");
-
-            System.out.println("### 1.2 Topological Sort of Condensation DAG ###");
-            metrics.start("TopoSort");
-            TopologicalSort topoSort = new TopologicalSort(condensationGraph, metrics);
-            List<Integer> topoOrder = topoSort.run();
-            metrics.stop("TopoSort");
-
-            if (topoOrder == null) {
-                System.out.println("Error: Cycle detected in condensation graph. This should not happen.");
-                return;
+    public static void main(String[] args) {
+        Options options = new Options();
+        List<String> inputs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--scc=")) {
+                options.sccEngineName = arg.substring("--scc=".length());
+            } else if (arg.startsWith("--topo=")) {
+                options.topoMode = arg.substring("--topo=".length());
+            } else if (arg.equals("--cache")) {
+                options.cacheDir = ".graph-cache";
+            } else if (arg.startsWith("--cache=")) {
+                options.cacheDir = arg.substring("--cache=".length());
+            } else if (arg.startsWith("--cache-max-mb=")) {
+                options.cacheMaxBytes = Long.parseLong(arg.substring("--cache-max-mb=".length())) << 20;
+            } else if (arg.startsWith("--threads=")) {
+                options.threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--verbose")) {
+                options.verbose = true;
+            } else if (arg.startsWith("--report=")) {
+                options.reportFormat = arg.substring("--report=".length());
+            } else if (arg.startsWith("--report-out=")) {
+                options.reportOut = arg.substring("--report-out=".length());
+            } else if (arg.equals("--serve")) {
+                options.servePort = 8080;
+            } else if (arg.startsWith("--serve=")) {
+                options.servePort = Integer.parseInt(arg.substring("--serve=".length()));
+            } else if (arg.equals("--offheap")) {
+                options.offHeap = true;
+            } else if (arg.equals("--cpm")) {
+                options.cpm = true;
+            } else if (arg.equals("--summary")) {
+                options.reportLimit = Options.SUMMARY_LIMIT;
+            } else if (arg.startsWith("--summary=")) {
+                options.reportLimit = Math.max(1, Integer.parseInt(arg.substring("--summary=".length())));
             } else {
-                System.out.println("Topological Order of SCCs: " + topoOrder);
+                inputs.add(arg);
             }
-            System.out.println("---");
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("data/small_1.json");
+        }
 
-            System.out.println("### 1.3 Shortest & Longest Paths on DAG ###");
+        // Several files, a directory or a glob: analyze them all in this JVM.
+        if (inputs.size() > 1 || BatchRunner.isBatchInput(inputs.get(0))) {
+            try {
+                new BatchRunner(options, System.out).run(BatchRunner.resolve(inputs));
+            } catch (Exception e) {
+                System.err.println("Error running batch: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return;
+        }
 
-            int sourceSccId = sccFinder.getSccId(data.source);
-            System.out.println("Original source node " + data.source + " is in SCC " + sourceSccId + ".");
+        String filename = inputs.get(0);
+        Metrics metrics = new Metrics();
+        if (options.servePort >= 0) {
+            try {
+                long started = System.nanoTime();
+                Result result = analyze(filename, options, metrics);
+                QueryServer server = new QueryServer(result, metrics, options.threads).start(options.servePort);
+                System.out.printf("Serving %s (%d nodes, %d SCCs) on http://localhost:%d/ with %d threads, "
+                                + "ready after %.1f ms%n", filename, result.nodes, result.sccCount, server.port(),
+                        options.threads, (System.nanoTime() - started) / 1e6);
+            } catch (Exception e) {
+                System.err.println("Error starting server: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return;
+        }
+        if (options.offHeap) {
+            try {
+                OffHeapAnalysis.run(filename, metrics, System.out);
+            } catch (Exception e) {
+                System.err.println("Error processing dataset: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return;
+        }
+        try (ReportWriter report = openReport(options)) {
+            Result result = analyze(filename, options, metrics);
+            writeReport(result, report, metrics);
+        } catch (Exception e) {
+            System.err.println("Error processing dataset: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-            metrics.start("DAG-SSSP");
-            DAGPathFinder spFinder = new DAGPathFinder(condensationGraph, topoOrder, metrics);
-            DAGPathFinder.PathResult shortestPaths = spFinder.run(sourceSccId, false);
-            metrics.stop("DAG-SSSP");
 
-            System.out.println("\n**Single-Source Shortest Paths (from SCC " + sourceSccId + ")**");
-            shortestPaths.printDistances("SCC");
+    // --report-out, or stdout when it is not set.
+    public static ReportWriter openReport(Options options) throws IOException {
+        ReportBuffer buffer = options.reportOut == null
+                ? ReportBuffer.of(System.out)
+                : ReportBuffer.open(Paths.get(options.reportOut));
+        return ReportWriter.create(options.reportFormat, buffer, options.reportLimit);
+    }
 
-            metrics.start("DAG-LongestPath");
-            DAGPathFinder.PathResult longestPaths = spFinder.run(sourceSccId, true);
-            metrics.stop("DAG-LongestPath");
 
-            System.out.println("\n**Single-Source Longest Paths (from SCC " + sourceSccId + ")**");
-            longestPaths.printDistances("SCC");
+    // Runs the whole pipeline on one dataset; all timings go to metrics, nothing is printed.
+    public static Result analyze(String filename, Options options, Metrics metrics) throws IOException {
+        Result result = new Result();
+        result.dataset = filename;
+        result.sccEngine = options.sccEngineName;
 
-            DAGPathFinder.Path criticalPath = longestPaths.getLongestPath();
-            System.out.println("\n**Critical (Longest) Path from source**");
-            System.out.println("  Path (of SCCs): " + criticalPath.path);
-            System.out.println("  Length: " + (criticalPath.distance == Long.MIN_VALUE ? "N/A" : criticalPath.distance));
+        metrics.start("TotalTime");
+        metrics.start("LoadData");
+        GraphDataset data = GraphFiles.load(filename);
+        CsrGraph g = data.graph;
+        metrics.stop("LoadData");
+        metrics.recordBytes("LoadData", data.sizeBytes);
+        result.graph = g;
+        result.nodes = g.V;
+        result.edges = g.E;
+        result.source = data.source;
+        result.weightModel = data.weightModel;
 
-            int targetScc = -1;
-            for (int i = topoOrder.size() - 1; i >= 0; i--) {
-                if (shortestPaths.distances[topoOrder.get(i)] != Long.MAX_VALUE) {
-                    targetScc = topoOrder.get(i);
-                    break;
-                }
-            }
-            if (targetScc != -1) {
-                System.out.println("\n**Example Shortest Path (to SCC " + targetScc + ")**");
-                System.out.println("  Path (of SCCs): " + shortestPaths.reconstructPath(targetScc));
-            }
-            System.out.println("---");
+        ResultCache cache = null;
+        String cacheKey = null;
+        ResultCache.Entry cached = null;
+        if (options.cacheDir != null) {
+            metrics.start("CacheLookup");
+            cache = new ResultCache(Paths.get(options.cacheDir), options.cacheMaxBytes);
+            cacheKey = ResultCache.key(g);
+            cached = cache.get(cacheKey, g.V);
+            metrics.stop("CacheLookup");
+            result.cacheStatus = (cached != null ? "hit" : "miss") + " (" + cacheKey.substring(0, 16) + ")";
+        }
 
-            metrics.stop("TotalTime");
-            System.out.println("### Instrumentation Report ###");
-            metrics.printReport();
+        metrics.start("SCC");
+        SccEngine sccFinder;
+        if (cached != null) {
+            sccFinder = new PrecomputedScc(cached.sccMap, cached.sccCount, cached.condensation);
+        } else {
+            sccFinder = SccEngine.create(options.sccEngineName, g, metrics);
+            sccFinder.run();
+        }
+        metrics.stop("SCC");
+        CsrGraph condensationGraph = sccFinder.getCondensationCsr();
+        result.scc = sccFinder;
+        result.sccCount = sccFinder.getSccCount();
+        result.condensation = condensationGraph;
 
-        } catch (Exception e) {
-            System.err.println("Error processing dataset: " + e.getMessage());
-            e.printStackTrace();
+        metrics.start("TopoSort");
+        int[] order;
+        ParallelKahnSort.Schedule schedule = null;
+        boolean kahn = options.topoMode.equals("kahn");
+        // Only a DFS order stands in for the DFS sort; Kahn always runs for its waves.
+        boolean cachedOrder = cached != null && !kahn && cached.topoMode.equals("dfs");
+        if (cachedOrder) {
+            order = cached.order;
+        } else if (kahn) {
+            schedule = new ParallelKahnSort(condensationGraph, metrics).run();
+            order = schedule == null ? null : schedule.order;
+        } else {
+            List<Integer> sorted = new TopologicalSort(condensationGraph, metrics).run();
+            order = sorted == null ? null : sorted.stream().mapToInt(Integer::intValue).toArray();
         }
-    }
+        metrics.stop("TopoSort");
+        if (order == null) {
+            throw new IllegalStateException("Cycle detected in condensation graph. This should not happen.");
+        }
+        List<Integer> topoOrder = new ArrayList<>(order.length);
+        for (int c : order) {
+            topoOrder.add(c);
+        }
+        result.topoOrder = topoOrder;
+        result.schedule = schedule;
+        // A DFS run replaces an entry holding a Kahn order, so later DFS runs reuse it.
+        if (cache != null && (cached == null || !kahn && !cachedOrder)) {
+            cache.put(cacheKey, new ResultCache.Entry(PrecomputedScc.sccMapOf(sccFinder, g.V),
+                    sccFinder.getSccCount(), condensationGraph, order, kahn ? "kahn" : "dfs"));
+        }
+
+        int sourceSccId = sccFinder.getSccId(data.source);
+        result.sourceScc = sourceSccId;
+
+        metrics.start("DAG-Paths");
+        DAGPathFinder.PathPair paths = new DAGPathFinder(condensationGraph, order, metrics).runBoth(sourceSccId);
+        metrics.stop("DAG-Paths");
+        result.shortestPaths = paths.shortest;
+        result.longestPaths = paths.longest;
+        result.criticalPath = result.longestPaths.getLongestPath();
 
-    static class GraphData {
-        boolean directed;
-        int n;
-        List<EdgeData> edges;
-        int source;
-        String weight_model;
+        for (int i = order.length - 1; i >= 0; i--) {
+            if (result.shortestPaths.distances[order[i]] != Long.MAX_VALUE) {
+                result.exampleTarget = order[i];
+                break;
+            }
+        }
+        if (result.exampleTarget != -1) {
+            result.examplePath = result.shortestPaths.reconstructPath(result.exampleTarget);
+        }
 
-        static class EdgeData {
-            int u, v, w;
+        if (options.cpm) {
+            metrics.start("CPM");
+            result.cpm = new CriticalPathMethod(condensationGraph, order, metrics).run();
+            metrics.stop("CPM");
         }
+        metrics.stop("TotalTime");
+        return result;
+    }
 
 
-        public static GraphData loadFromFile(String filename) throws IOException {
-            try (FileReader reader = new FileReader(filename)) {
-                return new Gson().fromJson(reader, GraphData.class);
-            }
+    // Output is timed on its own ("Report"), outside TotalTime.
+    public static void writeReport(Result result, ReportWriter report, Metrics metrics) throws IOException {
+        metrics.start("Report");
+        report.header(result.dataset, result.graph, result.source, result.weightModel,
+                result.sccEngine, result.cacheStatus);
+        report.sccs(result.scc.getSccs());
+        report.condensation(result.condensation);
+        report.order(result.topoOrder, result.schedule);
+        report.paths(result.source, result.sourceScc, result.shortestPaths, result.longestPaths,
+                result.criticalPath, result.exampleTarget, result.examplePath);
+        if (result.cpm != null) {
+            report.cpm(result.cpm);
         }
+        metrics.stop("Report");
+        report.metrics(metrics);
+        report.flush();
     }
 }
@@ -1,15 +1,48 @@
 package org.example;
 
-import java.util.HashMap;
+import java.io.PrintStream;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 
 public class Metrics {
-    private final Map<String, Long> counters = new HashMap<>();
-    private final Map<String, Long> timers = new HashMap<>();
-    private final Map<String, Long> results = new LinkedHashMap<>();
+    // -Dmetrics.disabled=true turns every counter update into dead code the JIT removes.
+    public static final boolean ENABLED = !Boolean.getBoolean("metrics.disabled");
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Long> timers = new ConcurrentHashMap<>();
+    private final Map<String, Long> results = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Long> bytes = Collections.synchronizedMap(new LinkedHashMap<>());
+
+
+    // Look a counter up once and keep the handle; updates are safe from any thread.
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+
+        public void increment() {
+            if (ENABLED) {
+                value.increment();
+            }
+        }
+
+
+        public void add(long amount) {
+            if (ENABLED) {
+                value.add(amount);
+            }
+        }
+
+
+        public long get() {
+            return value.sum();
+        }
+    }
 
 
 
@@ -20,8 +53,9 @@ public class Metrics {
 
     public void stop(String name) {
         long endTime = System.nanoTime();
-        if (timers.containsKey(name)) {
-            results.put(name, endTime - timers.get(name));
+        Long startTime = timers.get(name);
+        if (startTime != null) {
+            results.put(name, endTime - startTime);
         }
     }
 
@@ -32,19 +66,92 @@ public class Metrics {
 
 
     public void increment(String counter, long amount) {
-        counters.put(counter, counters.getOrDefault(counter, 0L) + amount);
+        if (ENABLED) {
+            counter(counter).add(amount);
+        }
+    }
+
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+
+    public long getCounter(String name) {
+        Counter counter = counters.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+
+    public void recordBytes(String timer, long amount) {
+        bytes.merge(timer, amount, Long::sum);
+    }
+
+
+    // Sorted by name, like the printed report.
+    public Map<String, Long> counters() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        return values;
+    }
+
+
+    public Map<String, Long> timings() {
+        synchronized (results) {
+            return new LinkedHashMap<>(results);
+        }
+    }
+
+
+    public Map<String, Long> bytes() {
+        synchronized (bytes) {
+            return new LinkedHashMap<>(bytes);
+        }
+    }
+
+
+    public long getBytes(String timer) {
+        return bytes.getOrDefault(timer, 0L);
+    }
+
+
+    public double throughputMBps(String timer) {
+        Long nanos = results.get(timer);
+        Long amount = bytes.get(timer);
+        if (nanos == null || nanos == 0 || amount == null) {
+            return 0;
+        }
+        return amount / (1024.0 * 1024.0) / (nanos / 1e9);
     }
 
 
     public void printReport() {
-        System.out.println("Counters:");
-        for (Map.Entry<String, Long> entry : counters.entrySet()) {
-            System.out.printf("  %-25s: %d\n", entry.getKey(), entry.getValue());
+        printReport(System.out);
+    }
+
+
+    // Timings and bytes are read through copies taken under their locks, so the
+    // report is safe while other threads are still recording.
+    public void printReport(PrintStream out) {
+        Map<String, Long> timings = timings();
+        Map<String, Long> bytes = bytes();
+        out.println(ENABLED ? "Counters:" : "Counters: (disabled)");
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            out.printf("  %-25s: %d\n", entry.getKey(), entry.getValue().get());
         }
-        System.out.println("\nTimings:");
-        for (Map.Entry<String, Long> entry : results.entrySet()) {
-            System.out.printf("  %-25s: %.4f ms\n", entry.getKey(),
+        out.println("\nTimings:");
+        for (Map.Entry<String, Long> entry : timings.entrySet()) {
+            out.printf("  %-25s: %.4f ms\n", entry.getKey(),
                     TimeUnit.NANOSECONDS.toMicros(entry.getValue()) / 1000.0);
         }
+        if (!bytes.isEmpty()) {
+            out.println("\nThroughput:");
+            for (Map.Entry<String, Long> entry : bytes.entrySet()) {
+                out.printf("  %-25s: %.2f MB/s (%d bytes)\n", entry.getKey(),
+                        throughputMBps(entry.getKey()), entry.getValue());
+            }
+        }
     }
 }
@@ -0,0 +1,57 @@
+package org.example;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.scc.KosarajuSCC;
+import org.example.graph.scc.PearceSCC;
+import org.example.graph.topo.TopologicalSort;
+
+import java.util.List;
+import java.util.Random;
+
+
+// Times the instrumented hot loops. Run it twice, with and without
+// -Dmetrics.disabled=true, to see what the counters cost.
+public class MetricsOverheadReport {
+    private static final int REPEATS = 5;
+
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 4 * n;
+
+        Random random = new Random(42);
+        CsrGraph.Builder cyclic = new CsrGraph.Builder(n, m);
+        CsrGraph.Builder acyclic = new CsrGraph.Builder(n, m);
+        for (int i = 0; i < m; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            int w = 1 + random.nextInt(10);
+            cyclic.addEdge(u, v, w);
+            if (u != v) {
+                acyclic.addEdge(Math.min(u, v), Math.max(u, v), w);
+            }
+        }
+        CsrGraph g = cyclic.build();
+        CsrGraph dag = acyclic.build();
+        List<Integer> order = new TopologicalSort(dag, new Metrics()).run();
+
+        System.out.println("=== Metrics Overhead Report ===");
+        System.out.println("Nodes: " + n + ", edges: " + m + ", metrics enabled: " + Metrics.ENABLED);
+        report("kosaraju", () -> new KosarajuSCC(g, new Metrics()).run());
+        report("pearce", () -> new PearceSCC(g, new Metrics()).run());
+        report("topo dfs", () -> new TopologicalSort(dag, new Metrics()).run());
+        report("dagsp", () -> new DAGPathFinder(dag, order, new Metrics()).run(0, false));
+    }
+
+
+    private static void report(String name, Runnable task) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < REPEATS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        System.out.printf("  %-10s %10.1f ms%n", name, best);
+    }
+}
@@ -0,0 +1,176 @@
+package org.example;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+// Load generator for QueryServer: --threads clients send random queries of one
+// kind over keep-alive connections and the per-request latencies are reported
+// as p50/p99 (nearest rank, like the batch summary).
+//
+//   java org.example.QueryLoadTest [http://localhost:8080] [--kind=shortest|longest|critical|reach]
+//        [--requests=20000] [--warmup=2000] [--threads=4] [--seed=1]
+public class QueryLoadTest {
+    private static final Pattern NODES = Pattern.compile("\"nodes\":(\\d+)");
+
+    public String baseUrl = "http://localhost:8080";
+    public String kind = "shortest";
+    public int requests = 20_000;
+    public int warmup = 2_000;
+    public int threads = 4;
+    public long seed = 1;
+
+
+    public static class Report {
+        public final int requests;
+        public final int failed;
+        public final long wallNanos;
+        // Per-request nanos, sorted ascending.
+        public final long[] latencies;
+
+
+        Report(int requests, int failed, long wallNanos, long[] latencies) {
+            this.requests = requests;
+            this.failed = failed;
+            this.wallNanos = wallNanos;
+            this.latencies = latencies;
+        }
+
+
+        public long percentile(double p) {
+            return BatchRunner.percentile(latencies, p);
+        }
+    }
+
+
+    public static void main(String[] args) throws Exception {
+        QueryLoadTest test = new QueryLoadTest();
+        for (String arg : args) {
+            if (arg.startsWith("--kind=")) {
+                test.kind = arg.substring("--kind=".length());
+            } else if (arg.startsWith("--requests=")) {
+                test.requests = Integer.parseInt(arg.substring("--requests=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                test.warmup = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                test.threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                test.seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else {
+                test.baseUrl = arg;
+            }
+        }
+
+        Report report = test.run();
+        System.out.printf("%s: %d requests (%d failed), %d threads, %.1f req/s%n", test.kind, report.requests,
+                report.failed, test.threads, report.requests / (report.wallNanos / 1e9));
+        System.out.printf("latency p50 %.1f us, p99 %.1f us, max %.1f us%n", report.percentile(50) / 1e3,
+                report.percentile(99) / 1e3, report.latencies[report.latencies.length - 1] / 1e3);
+    }
+
+
+    public Report run() throws IOException, InterruptedException {
+        int nodes = nodeCount();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            runRound(pool, nodes, warmup, seed ^ 0x5DEECE66DL);
+            long start = System.nanoTime();
+            List<long[]> perThread = runRound(pool, nodes, requests, seed);
+            long wallNanos = System.nanoTime() - start;
+
+            long[] all = new long[requests];
+            int size = 0;
+            int failed = 0;
+            for (long[] latencies : perThread) {
+                for (long nanos : latencies) {
+                    if (nanos < 0) {
+                        failed++;
+                    } else {
+                        all[size++] = nanos;
+                    }
+                }
+            }
+            long[] latencies = Arrays.copyOf(all, size);
+            Arrays.sort(latencies);
+            return new Report(requests, failed, wallNanos, latencies);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+
+    // Requests are split evenly; a failed request is recorded as -1.
+    private List<long[]> runRound(ExecutorService pool, int nodes, int count, long roundSeed)
+            throws InterruptedException {
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int share = count / threads + (t < count % threads ? 1 : 0);
+            Random random = new Random(roundSeed + t);
+            tasks.add(() -> {
+                long[] latencies = new long[share];
+                for (int i = 0; i < share; i++) {
+                    URL url = new URL(baseUrl + "/" + kind + "?from=" + random.nextInt(nodes)
+                            + "&to=" + random.nextInt(nodes));
+                    long start = System.nanoTime();
+                    try {
+                        get(url);
+                        latencies[i] = System.nanoTime() - start;
+                    } catch (IOException e) {
+                        latencies[i] = -1;
+                    }
+                }
+                return latencies;
+            });
+        }
+        List<long[]> results = new ArrayList<>();
+        try {
+            for (Future<long[]> f : pool.invokeAll(tasks)) {
+                results.add(f.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+
+    private int nodeCount() throws IOException {
+        String stats = get(new URL(baseUrl + "/stats"));
+        Matcher matcher = NODES.matcher(stats);
+        if (!matcher.find()) {
+            throw new IOException("No node count in /stats: " + stats);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+
+    // Reading the body to the end lets HttpURLConnection reuse the connection.
+    static String get(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (in) {
+            in.transferTo(body);
+        }
+        if (status != 200) {
+            throw new IOException("HTTP " + status + " for " + url + ": " + body.toString(StandardCharsets.UTF_8));
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,257 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.reach.ReachabilityIndex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+// Main --serve: analyzes one dataset once and answers queries over HTTP on the
+// loopback interface. Nodes in requests are original node ids; answers are on the
+// condensation, as in the report.
+//
+//   GET /shortest?from=u&to=v   point-to-point shortest path (DAGPathFinder.query)
+//   GET /longest?from=u&to=v    point-to-point longest path
+//   GET /critical?from=u        longest path from u to anything (memoized per SCC)
+//   GET /reach?from=u&to=v      can u reach v (ReachabilityIndex)
+//   GET /stats                  graph size and counters
+//
+// Requests run on a fixed pool of --threads platform threads: the finder and the
+// index keep per-thread scratch arrays, which a small pool reuses across requests.
+public class QueryServer {
+    private static final int CRITICAL_CACHE_SIZE = 256;
+
+    private final Main.Result result;
+    private final Metrics metrics;
+    private final DAGPathFinder finder;
+    private final ReachabilityIndex reach;
+    private final Map<Integer, DAGPathFinder.Path> criticalPaths;
+    private final Metrics.Counter requests;
+    private final Metrics.Counter errors;
+    private HttpServer server;
+    private final ExecutorService executor;
+
+
+    public QueryServer(Main.Result result, Metrics metrics, int threads) {
+        this.result = result;
+        this.metrics = metrics;
+        int[] order = new int[result.topoOrder.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = result.topoOrder.get(i);
+        }
+        this.finder = new DAGPathFinder(result.condensation, order, metrics);
+        metrics.start("ReachIndex");
+        this.reach = new ReachabilityIndex(result.scc, result.nodes, metrics,
+                ReachabilityIndex.DEFAULT_TRAVERSALS, ReachabilityIndex.DEFAULT_MAX_BYTES, threads).build();
+        metrics.stop("ReachIndex");
+        this.criticalPaths = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, DAGPathFinder.Path> eldest) {
+                return size() > CRITICAL_CACHE_SIZE;
+            }
+        };
+        criticalPaths.put(result.sourceScc, result.criticalPath);
+        this.requests = metrics.counter("server.requests");
+        this.errors = metrics.counter("server.errors");
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads));
+    }
+
+
+    // Port 0 picks a free port; see port().
+    public QueryServer start(int port) throws IOException {
+        // Without TCP_NODELAY the separate header and body writes of the JDK server
+        // meet delayed ACKs and every keep-alive response waits ~40 ms. The server
+        // reads this once, when the first one is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 128);
+        server.createContext("/shortest", exchange -> handle(exchange, this::pathQuery));
+        server.createContext("/longest", exchange -> handle(exchange, this::pathQuery));
+        server.createContext("/critical", exchange -> handle(exchange, this::critical));
+        server.createContext("/reach", exchange -> handle(exchange, this::reachability));
+        server.createContext("/stats", exchange -> handle(exchange, this::stats));
+        server.setExecutor(executor);
+        server.start();
+        return this;
+    }
+
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+
+    private interface Handler {
+        String answer(String path, Map<String, String> params);
+    }
+
+
+    // Bad parameters answer 400 and anything else a handler throws answers 500; the
+    // exchange is closed either way so a failed request never holds its connection.
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        requests.increment();
+        try {
+            int status = 200;
+            String body;
+            try {
+                URI uri = exchange.getRequestURI();
+                body = handler.answer(uri.getPath(), parseQuery(uri.getRawQuery()));
+            } catch (IllegalArgumentException e) {
+                errors.increment();
+                status = 400;
+                body = "{\"error\":" + quote(String.valueOf(e.getMessage())) + "}";
+            } catch (RuntimeException e) {
+                errors.increment();
+                status = 500;
+                body = "{\"error\":" + quote(e.toString()) + "}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+
+    private String pathQuery(String path, Map<String, String> params) {
+        int from = node(params, "from");
+        int to = node(params, "to");
+        int fromScc = result.scc.getSccId(from);
+        int toScc = result.scc.getSccId(to);
+        DAGPathFinder.Path answer = finder.query(fromScc, toScc, path.equals("/longest"));
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"from\":").append(from).append(",\"to\":").append(to)
+                .append(",\"fromScc\":").append(fromScc).append(",\"toScc\":").append(toScc);
+        return appendPath(json, answer).append('}').toString();
+    }
+
+
+    private String critical(String path, Map<String, String> params) {
+        int from = node(params, "from");
+        int fromScc = result.scc.getSccId(from);
+        DAGPathFinder.Path answer;
+        synchronized (criticalPaths) {
+            answer = criticalPaths.get(fromScc);
+        }
+        if (answer == null) {
+            answer = finder.run(fromScc, true).getLongestPath();
+            synchronized (criticalPaths) {
+                criticalPaths.put(fromScc, answer);
+            }
+        }
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"from\":").append(from).append(",\"fromScc\":").append(fromScc);
+        return appendPath(json, answer).append('}').toString();
+    }
+
+
+    private String reachability(String path, Map<String, String> params) {
+        int from = node(params, "from");
+        int to = node(params, "to");
+        return "{\"from\":" + from + ",\"to\":" + to + ",\"reachable\":" + reach.canReach(from, to) + "}";
+    }
+
+
+    private String stats(String path, Map<String, String> params) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"dataset\":").append(quote(result.dataset))
+                .append(",\"nodes\":").append(result.nodes)
+                .append(",\"edges\":").append(result.edges)
+                .append(",\"sccs\":").append(result.sccCount)
+                .append(",\"closure\":").append(reach.hasClosure())
+                .append(",\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : metrics.counters().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append(quote(entry.getKey())).append(':').append(entry.getValue());
+        }
+        return json.append("}}").toString();
+    }
+
+
+    // Unreachable targets have a null distance and an empty path.
+    private static StringBuilder appendPath(StringBuilder json, DAGPathFinder.Path answer) {
+        boolean reachable = !answer.path.isEmpty();
+        json.append(",\"reachable\":").append(reachable).append(",\"distance\":");
+        if (reachable) {
+            json.append(answer.distance);
+        } else {
+            json.append("null");
+        }
+        json.append(",\"path\":[");
+        List<Integer> nodes = answer.path;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(nodes.get(i));
+        }
+        return json.append(']');
+    }
+
+
+    private int node(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        int node;
+        try {
+            node = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a node id: " + name + "=" + value);
+        }
+        if (node < 0 || node >= result.nodes) {
+            throw new IllegalArgumentException("Node out of range: " + name + "=" + node);
+        }
+        return node;
+    }
+
+
+    // Parameters are plain integers, so no URL decoding is needed.
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,63 @@
+package org.example;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.KosarajuSCC;
+import org.example.graph.scc.ParallelSCC;
+import org.example.graph.scc.SccEngine;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+
+public class SccScalingReport {
+    private static final int REPEATS = 3;
+
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=== Parallel SCC Scaling Report ===");
+        System.out.println("Nodes: " + n + ", threads: 1.." + maxThreads
+                + ", available processors: " + Runtime.getRuntime().availableProcessors());
+
+        report("multi-SCC (n/100 cycles)", n, DatasetGenerator.generateMultipleSCCs(n, Math.max(1, n / 100)), maxThreads);
+        report("sparse (path + n/2 random)", n, DatasetGenerator.generateSparse(n), maxThreads);
+    }
+
+
+    private static void report(String name, int n, List<DatasetGenerator.EdgeData> edges, int maxThreads) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, edges.size());
+        for (DatasetGenerator.EdgeData e : edges) {
+            builder.addEdge(e.u, e.v, e.w);
+        }
+        CsrGraph g = builder.build();
+
+        System.out.println("\n" + name + ": " + g.V + " nodes, " + g.E + " edges");
+        double kosaraju = bestOf(() -> new KosarajuSCC(g, new Metrics()));
+        System.out.printf("  %-10s %8s %10.1f ms%n", "kosaraju", "-", kosaraju);
+
+        double single = 0;
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            int t = threads;
+            double ms = bestOf(() -> new ParallelSCC(g, new Metrics(), t));
+            if (threads == 1) {
+                single = ms;
+            }
+            System.out.printf("  %-10s %8d %10.1f ms   speedup x%.2f (vs kosaraju x%.2f)%n",
+                    "parallel", threads, ms, single / ms, kosaraju / ms);
+        }
+    }
+
+
+    private static double bestOf(Supplier<SccEngine> engine) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < REPEATS; i++) {
+            SccEngine scc = engine.get();
+            long start = System.nanoTime();
+            scc.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
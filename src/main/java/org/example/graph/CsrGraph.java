@@ -0,0 +1,195 @@
+package org.example.graph;
+
+import java.util.Arrays;
+
+
+public final class CsrGraph {
+    public final int V;
+    public final int E;
+
+    public final int[] offsets;
+    public final int[] targets;
+    public final int[] weights;
+    public final int[] minWeights;
+    public final int[] maxWeights;
+
+
+    public CsrGraph(int V, int[] offsets, int[] targets, int[] weights) {
+        this(V, offsets, targets, weights, weights, weights);
+    }
+
+
+    public CsrGraph(int V, int[] offsets, int[] targets, int[] weights, int[] minWeights, int[] maxWeights) {
+        this.V = V;
+        this.E = offsets[V];
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.minWeights = minWeights;
+        this.maxWeights = maxWeights;
+    }
+
+
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+
+    public boolean isCondensation() {
+        return minWeights != weights || maxWeights != weights;
+    }
+
+
+    public CsrGraph transpose() {
+        int[] tOffsets = new int[V + 1];
+        for (int i = 0; i < E; i++) {
+            tOffsets[targets[i] + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            tOffsets[v + 1] += tOffsets[v];
+        }
+
+        int[] cursor = Arrays.copyOf(tOffsets, V);
+        int[] tTargets = new int[E];
+        int[] tWeights = new int[E];
+        int[] tMin = isCondensation() ? new int[E] : tWeights;
+        int[] tMax = isCondensation() ? new int[E] : tWeights;
+        for (int u = 0; u < V; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int slot = cursor[targets[i]]++;
+                tTargets[slot] = u;
+                tWeights[slot] = weights[i];
+                if (tMin != tWeights) {
+                    tMin[slot] = minWeights[i];
+                    tMax[slot] = maxWeights[i];
+                }
+            }
+        }
+        return new CsrGraph(V, tOffsets, tTargets, tWeights, tMin, tMax);
+    }
+
+
+    public Graph toGraph() {
+        Graph g = new Graph(V);
+        boolean condensation = isCondensation();
+        for (int u = 0; u < V; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (condensation) {
+                    g.adj.get(u).add(new Edge(targets[i], minWeights[i], maxWeights[i]));
+                } else {
+                    g.addEdge(u, targets[i], weights[i]);
+                }
+            }
+        }
+        return g;
+    }
+
+
+    public long estimatedBytes() {
+        long bytes = 4L * (offsets.length + targets.length + weights.length);
+        if (isCondensation()) {
+            bytes += 4L * (minWeights.length + maxWeights.length);
+        }
+        return bytes;
+    }
+
+
+    public static class Builder {
+        private int V;
+        private int[] src;
+        private int[] dst;
+        private int[] w;
+        private int size;
+        private int maxNode = -1;
+
+
+        public Builder() {
+            this(-1, 16);
+        }
+
+
+        public Builder(int V) {
+            this(V, 16);
+        }
+
+
+        public Builder(int V, int expectedEdges) {
+            this.V = V;
+            int capacity = Math.max(expectedEdges, 16);
+            src = new int[capacity];
+            dst = new int[capacity];
+            w = new int[capacity];
+        }
+
+
+        public Builder setVertexCount(int V) {
+            if (V < 0 || maxNode >= V) {
+                throw new IndexOutOfBoundsException("Vertex count " + V + " does not cover node " + maxNode);
+            }
+            this.V = V;
+            return this;
+        }
+
+
+        public Builder addEdge(int u, int v, int weight) {
+            if (src == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            if (u < 0 || v < 0 || (V >= 0 && (u >= V || v >= V))) {
+                throw new IndexOutOfBoundsException("Edge " + u + " -> " + v + " outside [0, " + V + ")");
+            }
+            if (size == src.length) {
+                int capacity = src.length + (src.length >> 1);
+                src = Arrays.copyOf(src, capacity);
+                dst = Arrays.copyOf(dst, capacity);
+                w = Arrays.copyOf(w, capacity);
+            }
+            src[size] = u;
+            dst[size] = v;
+            w[size] = weight;
+            size++;
+            maxNode = Math.max(maxNode, Math.max(u, v));
+            return this;
+        }
+
+
+        public int edgeCount() {
+            return size;
+        }
+
+
+        // Scatters targets and weights one array at a time, releasing each staging
+        // array as soon as it is consumed to keep the peak near 16 bytes per edge.
+        public CsrGraph build() {
+            if (V < 0) {
+                throw new IllegalStateException("Vertex count not set");
+            }
+            if (src == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            int[] offsets = new int[V + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[src[i] + 1]++;
+            }
+            for (int u = 0; u < V; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+
+            int[] cursor = Arrays.copyOf(offsets, V);
+            int[] targets = new int[size];
+            for (int i = 0; i < size; i++) {
+                targets[cursor[src[i]]++] = dst[i];
+            }
+            dst = null;
+
+            System.arraycopy(offsets, 0, cursor, 0, V);
+            int[] weights = new int[size];
+            for (int i = 0; i < size; i++) {
+                weights[cursor[src[i]]++] = w[i];
+            }
+            src = null;
+            w = null;
+            return new CsrGraph(V, offsets, targets, weights);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.graph;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -34,6 +36,38 @@ public class Graph {
     }
 
 
+    public CsrGraph toCsr() {
+        int[] offsets = new int[V + 1];
+        for (int u = 0; u < V; u++) {
+            offsets[u + 1] = offsets[u] + adj.get(u).size();
+        }
+
+        int E = offsets[V];
+        int[] targets = new int[E];
+        int[] weights = new int[E];
+        int[] minWeights = weights;
+        int[] maxWeights = weights;
+        for (int u = 0; u < V; u++) {
+            int i = offsets[u];
+            for (Edge e : adj.get(u)) {
+                targets[i] = e.to;
+                weights[i] = e.weight;
+                boolean condensationEdge = e.minWeight != Integer.MAX_VALUE || e.maxWeight != Integer.MIN_VALUE;
+                if (condensationEdge && minWeights == weights) {
+                    minWeights = Arrays.copyOf(weights, E);
+                    maxWeights = Arrays.copyOf(weights, E);
+                }
+                if (minWeights != weights) {
+                    minWeights[i] = e.minWeight == Integer.MAX_VALUE ? e.weight : e.minWeight;
+                    maxWeights[i] = e.maxWeight == Integer.MIN_VALUE ? e.weight : e.maxWeight;
+                }
+                i++;
+            }
+        }
+        return new CsrGraph(V, offsets, targets, weights, minWeights, maxWeights);
+    }
+
+
     public Graph getTranspose() {
         Graph gT = new Graph(V);
         for (int u = 0; u < V; u++) {
@@ -46,9 +80,14 @@ public class Graph {
 
 
     public void print() {
+        print(System.out);
+    }
+
+
+    public void print(PrintStream out) {
         for (int u = 0; u < V; u++) {
             if (adj.get(u).isEmpty()) continue;
-            System.out.print("  Node " + u + " -> ");
+            out.print("  Node " + u + " -> ");
             List<String> neighbors = new ArrayList<>();
             for (Edge e : adj.get(u)) {if (e.minWeight != Integer.MAX_VALUE) {
                     neighbors.add(String.format("%d (minW: %d, maxW: %d)", e.to, e.minWeight, e.maxWeight));
@@ -56,7 +95,7 @@ public class Graph {
                     neighbors.add(String.format("%d (w: %d)", e.to, e.weight));
                 }
             }
-            System.out.println(String.join(", ", neighbors));
+            out.println(String.join(", ", neighbors));
         }
     }
 }
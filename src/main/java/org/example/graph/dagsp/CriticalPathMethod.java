@@ -0,0 +1,97 @@
+package org.example.graph.dagsp;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+
+
+// Critical path method over a DAG whose edges carry durations (maxWeight on a
+// condensation). Every node is a task; tasks without predecessors may start at 0.
+//   forward pass:  ES[v] = max over u -> v of ES[u] + w
+//   backward pass: LS[u] = min over u -> v of LS[v] - w, sinks at projectLength
+// Both passes walk the order once over the out-edges, so the whole analysis is
+// O(V + E) instead of a longest-path run per sink.
+public class CriticalPathMethod {
+    private final CsrGraph g;
+    private final int[] order;
+    private final Metrics.Counter relaxationCounter;
+
+
+    public static class CpmResult {
+        public final long[] earliestStart;
+        public final long[] latestStart;
+        public final long[] slack;
+        public final long projectLength;
+        // Zero-slack tasks in topological order.
+        public final int[] criticalTasks;
+
+
+        public CpmResult(long[] earliestStart, long[] latestStart, long[] slack, long projectLength,
+                         int[] criticalTasks) {
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.slack = slack;
+            this.projectLength = projectLength;
+            this.criticalTasks = criticalTasks;
+        }
+
+
+        public boolean isCritical(int task) {
+            return slack[task] == 0;
+        }
+    }
+
+
+    public CriticalPathMethod(CsrGraph g, int[] order, Metrics metrics) {
+        this.g = g;
+        this.order = order;
+        this.relaxationCounter = metrics.counter("dagsp.cpm.relaxations");
+    }
+
+
+    public CpmResult run() {
+        int V = g.V;
+        int[] offsets = g.offsets;
+        int[] targets = g.targets;
+        int[] weights = g.maxWeights;
+
+        long[] earliest = new long[V];
+        long projectLength = 0;
+        for (int u : order) {
+            long finish = earliest[u];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                long start = finish + weights[i];
+                if (start > earliest[v]) {
+                    earliest[v] = start;
+                }
+            }
+            projectLength = Math.max(projectLength, finish);
+        }
+
+        long[] latest = new long[V];
+        long[] slack = new long[V];
+        int criticalCount = 0;
+        for (int k = order.length - 1; k >= 0; k--) {
+            int u = order[k];
+            long start = projectLength;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                start = Math.min(start, latest[targets[i]] - weights[i]);
+            }
+            latest[u] = start;
+            slack[u] = start - earliest[u];
+            if (slack[u] == 0) {
+                criticalCount++;
+            }
+        }
+        relaxationCounter.add(2L * g.E);
+
+        int[] critical = new int[criticalCount];
+        int size = 0;
+        for (int u : order) {
+            if (slack[u] == 0) {
+                critical[size++] = u;
+            }
+        }
+        return new CpmResult(earliest, latest, slack, projectLength, critical);
+    }
+}
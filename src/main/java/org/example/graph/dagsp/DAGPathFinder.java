@@ -1,18 +1,28 @@
 package org.example.graph.dagsp;
 
+import org.example.graph.CsrGraph;
 import org.example.graph.Graph;
-import org.example.graph.Edge;
 import org.example.Metrics;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 
 public class DAGPathFinder {
-    private Graph g;
+    private CsrGraph g;
     private List<Integer> topoOrder;
-    private Metrics metrics;
+    private volatile int[] order;
+    private volatile int[] position;
+    private final Metrics metrics;
+    private final Metrics.Counter relaxationCounter;
+    // Registered with the position index, so reports of finders that never
+    // answer point-to-point queries do not list it.
+    private volatile Metrics.Counter prunedCounter;
+    private static final ThreadLocal<QueryScratch> QUERY_SCRATCH = new ThreadLocal<>();
 
 
     public static class PathResult {
@@ -33,11 +43,16 @@ public class DAGPathFinder {
 
 
         public void printDistances(String nodePrefix) {
+            printDistances(nodePrefix, System.out);
+        }
+
+
+        public void printDistances(String nodePrefix, PrintStream out) {
             for (int i = 0; i < V; i++) {
                 if (distances[i] == Long.MAX_VALUE || distances[i] == Long.MIN_VALUE) {
-                    System.out.printf("  %s %d: UNREACHABLE\n", nodePrefix, i);
+                    out.printf("  %s %d: UNREACHABLE\n", nodePrefix, i);
                 } else {
-                    System.out.printf("  %s %d: %d\n", nodePrefix, i, distances[i]);
+                    out.printf("  %s %d: %d\n", nodePrefix, i, distances[i]);
                 }
             }
         }
@@ -73,6 +88,52 @@ public class DAGPathFinder {
     }
 
 
+    public static class PathPair {
+        public final PathResult shortest;
+        public final PathResult longest;
+
+
+        public PathPair(PathResult shortest, PathResult longest) {
+            this.shortest = shortest;
+            this.longest = longest;
+        }
+    }
+
+
+    // Per-thread query state. Entries are valid only where stamp == epoch, so a
+    // query never has to clear more than it touched. That also makes it safe to
+    // share between finders: a thread querying short-lived finders (one per graph
+    // version, say) reuses its arrays and only grows them for a larger graph.
+    private static class QueryScratch {
+        final long[] dist;
+        final int[] parent;
+        final int[] stamp;
+        int epoch;
+
+
+        QueryScratch(int V) {
+            dist = new long[V];
+            parent = new int[V];
+            stamp = new int[V];
+        }
+
+
+        int nextEpoch() {
+            if (++epoch == 0) {
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+            return epoch;
+        }
+    }
+
+
+    public interface RowConsumer {
+        // distances is per-worker scratch, only valid until the callback returns.
+        void accept(int row, int source, long[] distances);
+    }
+
+
     public static class Path {
         public List<Integer> path;
         public long distance;
@@ -86,31 +147,41 @@ public class DAGPathFinder {
 
 
     public DAGPathFinder(Graph g, List<Integer> topoOrder, Metrics metrics) {
+        this(g.toCsr(), topoOrder, metrics);
+    }
+
+
+    public DAGPathFinder(CsrGraph g, List<Integer> topoOrder, Metrics metrics) {
         this.g = g;
         this.topoOrder = topoOrder;
         this.metrics = metrics;
+        this.relaxationCounter = metrics.counter("dagsp.relaxations");
+    }
+
+
+    public DAGPathFinder(CsrGraph g, int[] order, Metrics metrics) {
+        this.g = g;
+        this.order = order;
+        this.metrics = metrics;
+        this.relaxationCounter = metrics.counter("dagsp.relaxations");
     }
 
 
     public PathResult run(int source, boolean findLongest) {
         PathResult result = new PathResult(g.V, findLongest);
         result.distances[source] = 0;
+        int[] weights = findLongest ? g.maxWeights : g.minWeights;
+        long relaxations = 0;
 
-        for (int u : topoOrder) {
+        for (int u : order()) {
             if (result.distances[u] == (findLongest ? Long.MIN_VALUE : Long.MAX_VALUE)) {
                 continue;
             }
 
-            for (Edge e : g.adj.get(u)) {
-                metrics.increment("dagsp.relaxations");
-                int v = e.to;
-
-                long weight = findLongest ? e.maxWeight : e.minWeight;
-                if (findLongest && e.maxWeight == Integer.MIN_VALUE) {
-                    weight = e.weight;
-                } else if (!findLongest && e.minWeight == Integer.MAX_VALUE) {
-                    weight = e.weight;
-                }
+            relaxations += g.outDegree(u);
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                long weight = weights[i];
 
                 long newDist = result.distances[u] + weight;
 
@@ -127,7 +198,230 @@ public class DAGPathFinder {
                 }
             }
         }
+        relaxationCounter.add(relaxations);
         return result;
     }
-}
 
+
+    // Shortest and longest paths from one source in a single sweep. Both searches
+    // reach exactly the same nodes, so one reachability check covers both and every
+    // edge is read (and counted as a relaxation) once. The two distances of a node
+    // sit next to each other in dist, so relaxing an edge costs one random cache
+    // miss instead of one per pass; they are split into PathResults at the end.
+    public PathPair runBoth(int source) {
+        int V = g.V;
+        long[] dist = new long[2 * V];
+        int[] parent = new int[2 * V];
+        for (int v = 0; v < V; v++) {
+            dist[2 * v] = Long.MAX_VALUE;
+            dist[2 * v + 1] = Long.MIN_VALUE;
+        }
+        Arrays.fill(parent, -1);
+        int[] offsets = g.offsets;
+        int[] targets = g.targets;
+        int[] minWeights = g.minWeights;
+        int[] maxWeights = g.maxWeights;
+        dist[2 * source] = 0;
+        dist[2 * source + 1] = 0;
+        long relaxations = 0;
+
+        for (int u : order()) {
+            long du = dist[2 * u];
+            if (du == Long.MAX_VALUE) {
+                continue;
+            }
+            long lu = dist[2 * u + 1];
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int i = offsets[u]; i < end; i++) {
+                int slot = 2 * targets[i];
+                long shorter = du + minWeights[i];
+                if (shorter < dist[slot]) {
+                    dist[slot] = shorter;
+                    parent[slot] = u;
+                }
+                long longer = lu + maxWeights[i];
+                if (longer > dist[slot + 1]) {
+                    dist[slot + 1] = longer;
+                    parent[slot + 1] = u;
+                }
+            }
+        }
+        relaxationCounter.add(relaxations);
+
+        PathResult shortest = new PathResult(V, false);
+        PathResult longest = new PathResult(V, true);
+        for (int v = 0; v < V; v++) {
+            shortest.distances[v] = dist[2 * v];
+            shortest.parent[v] = parent[2 * v];
+            longest.distances[v] = dist[2 * v + 1];
+            longest.parent[v] = parent[2 * v + 1];
+        }
+        return new PathPair(shortest, longest);
+    }
+
+
+    // Point-to-point query. Only the slice of the order between source and target is
+    // scanned, and the scan stops at the target, which is settled once reached in
+    // order. Edges to nodes ordered after the target cannot lead back to it and are
+    // pruned without relaxing. Returns an empty path with the unreached sentinel
+    // (Long.MAX_VALUE / MIN_VALUE) if target is not reachable. Thread-safe.
+    public Path query(int source, int target, boolean findLongest) {
+        int[] topo = order();
+        int[] pos = positions();
+        long unreached = findLongest ? Long.MIN_VALUE : Long.MAX_VALUE;
+        int first = pos[source];
+        int last = pos[target];
+        if (first > last) {
+            return new Path(Collections.emptyList(), unreached);
+        }
+
+        QueryScratch scratch = QUERY_SCRATCH.get();
+        if (scratch == null || scratch.stamp.length < g.V) {
+            scratch = new QueryScratch(g.V);
+            QUERY_SCRATCH.set(scratch);
+        }
+        long[] dist = scratch.dist;
+        int[] parent = scratch.parent;
+        int[] stamp = scratch.stamp;
+        int epoch = scratch.nextEpoch();
+        int[] weights = findLongest ? g.maxWeights : g.minWeights;
+        stamp[source] = epoch;
+        dist[source] = 0;
+        parent[source] = -1;
+
+        long relaxations = 0;
+        long pruned = 0;
+        for (int k = first; k < last; k++) {
+            int u = topo[k];
+            if (stamp[u] != epoch) {
+                continue;
+            }
+            long du = dist[u];
+            int end = g.offsets[u + 1];
+            for (int i = g.offsets[u]; i < end; i++) {
+                int v = g.targets[i];
+                if (pos[v] > last) {
+                    pruned++;
+                    continue;
+                }
+                relaxations++;
+                long newDist = du + weights[i];
+                if (stamp[v] != epoch) {
+                    stamp[v] = epoch;
+                    dist[v] = newDist;
+                    parent[v] = u;
+                } else if (findLongest ? newDist > dist[v] : newDist < dist[v]) {
+                    dist[v] = newDist;
+                    parent[v] = u;
+                }
+            }
+        }
+        relaxationCounter.add(relaxations);
+        prunedCounter.add(pruned);
+
+        if (stamp[target] != epoch) {
+            return new Path(Collections.emptyList(), unreached);
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int at = target; at != -1; at = parent[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return new Path(path, dist[target]);
+    }
+
+
+    public long[] runBatch(int[] sources, boolean findLongest) {
+        int V = g.V;
+        if ((long) sources.length * V > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(sources.length + " x " + V
+                    + " distance matrix is too large; use the RowConsumer overload");
+        }
+        long[] matrix = new long[sources.length * V];
+        int[] topo = order();
+        long relaxations = IntStream.range(0, sources.length).parallel()
+                .mapToLong(row -> relaxRow(topo, sources[row], findLongest, matrix, row * V))
+                .sum();
+        relaxationCounter.add(relaxations);
+        return matrix;
+    }
+
+
+    public void runBatch(int[] sources, boolean findLongest, RowConsumer consumer) {
+        int[] topo = order();
+        ThreadLocal<long[]> scratch = ThreadLocal.withInitial(() -> new long[g.V]);
+        long relaxations = IntStream.range(0, sources.length).parallel()
+                .mapToLong(row -> {
+                    long[] distances = scratch.get();
+                    long relaxed = relaxRow(topo, sources[row], findLongest, distances, 0);
+                    consumer.accept(row, sources[row], distances);
+                    return relaxed;
+                })
+                .sum();
+        relaxationCounter.add(relaxations);
+    }
+
+
+    private long relaxRow(int[] topo, int source, boolean findLongest, long[] dist, int base) {
+        long unreached = findLongest ? Long.MIN_VALUE : Long.MAX_VALUE;
+        int[] weights = findLongest ? g.maxWeights : g.minWeights;
+        Arrays.fill(dist, base, base + g.V, unreached);
+        dist[base + source] = 0;
+
+        long relaxations = 0;
+        for (int u : topo) {
+            long du = dist[base + u];
+            if (du == unreached) {
+                continue;
+            }
+            int end = g.offsets[u + 1];
+            relaxations += end - g.offsets[u];
+            for (int i = g.offsets[u]; i < end; i++) {
+                int slot = base + g.targets[i];
+                long newDist = du + weights[i];
+                if (findLongest ? newDist > dist[slot] : newDist < dist[slot]) {
+                    dist[slot] = newDist;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+
+    private int[] order() {
+        int[] result = order;
+        if (result == null) {
+            result = new int[topoOrder.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = topoOrder.get(i);
+            }
+            order = result;
+        }
+        return result;
+    }
+
+
+    // Builds the position index for query() now rather than on the first query.
+    public DAGPathFinder prepareQueries() {
+        positions();
+        return this;
+    }
+
+
+    // position[u] = index of u in the order; built on the first query.
+    private int[] positions() {
+        int[] result = position;
+        if (result == null) {
+            int[] topo = order();
+            result = new int[g.V];
+            for (int i = 0; i < topo.length; i++) {
+                result[topo[i]] = i;
+            }
+            // Written before position, so whoever sees the index sees the counter.
+            prunedCounter = metrics.counter("dagsp.query.pruned");
+            position = result;
+        }
+        return result;
+    }
+}
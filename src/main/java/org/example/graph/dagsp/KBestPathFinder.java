@@ -0,0 +1,310 @@
+package org.example.graph.dagsp;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.topo.ParallelKahnSort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+
+// K best (shortest or longest) paths from one source to every node of a DAG. Every
+// node keeps up to K candidates as (distance, predecessor, predecessor's rank) in
+// flat arrays, slots [v * K, v * K + K). A node pulls from its in-edges once all
+// predecessors are final and sorted best first, so:
+//   - a predecessor's list can be abandoned at the first candidate that does not
+//     beat the current K-th best, keeping the work at O((V + E) * K log K);
+//   - nodes of one Kahn wave only read earlier waves and write their own slots,
+//     so each wave is split across the pool.
+// Distinct (predecessor, rank) pairs give distinct paths, so nothing is enumerated.
+public class KBestPathFinder {
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private final CsrGraph reverse;
+    // Nodes without out-edges, where every maximal path ends.
+    private final int[] sinks;
+    private final ParallelKahnSort.Schedule schedule;
+    private final int k;
+    private final int parallelism;
+    private final Metrics.Counter relaxationCounter;
+
+
+    public static class KBestResult {
+        public final int V;
+        public final int k;
+        public final boolean isLongestPath;
+        // Candidates best first. Keys are distances, negated for longest paths so
+        // that smaller is always better.
+        final long[] keys;
+        final int[] parentNode;
+        final int[] parentRank;
+        final int[] count;
+        final int[] sinks;
+
+
+        KBestResult(int V, int k, boolean isLongestPath, int[] sinks) {
+            this.V = V;
+            this.k = k;
+            this.isLongestPath = isLongestPath;
+            this.sinks = sinks;
+            this.keys = new long[V * k];
+            this.parentNode = new int[V * k];
+            this.parentRank = new int[V * k];
+            this.count = new int[V];
+        }
+
+
+        // Number of paths found to target, at most k.
+        public int count(int target) {
+            return count[target];
+        }
+
+
+        public long distance(int target, int rank) {
+            long key = keys[target * k + rank];
+            return isLongestPath ? -key : key;
+        }
+
+
+        public List<Integer> reconstructPath(int target, int rank) {
+            List<Integer> path = new ArrayList<>();
+            if (rank >= count[target]) {
+                return path;
+            }
+            for (int at = target, r = rank; at != -1; ) {
+                path.add(at);
+                int slot = at * k + r;
+                at = parentNode[slot];
+                r = parentRank[slot];
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+
+        public List<DAGPathFinder.Path> paths(int target) {
+            List<DAGPathFinder.Path> paths = new ArrayList<>(count[target]);
+            for (int r = 0; r < count[target]; r++) {
+                paths.add(new DAGPathFinder.Path(reconstructPath(target, r), distance(target, r)));
+            }
+            return paths;
+        }
+
+
+        // The k best complete paths, best first: from the source to a node with no
+        // out-edges. Every reachable node's paths extend to some sink, so prefixes
+        // of one chain are never reported; for longest paths these are the k most
+        // critical chains.
+        public List<DAGPathFinder.Path> bestPaths() {
+            long[] heapKeys = new long[k];
+            int[] heapNode = new int[k];
+            int[] heapRank = new int[k];
+            int size = 0;
+            for (int v : sinks) {
+                for (int r = 0; r < count[v]; r++) {
+                    long key = keys[v * k + r];
+                    if (size == k && key >= heapKeys[0]) {
+                        break;
+                    }
+                    size = offer(heapKeys, heapNode, heapRank, 0, size, k, key, v, r);
+                }
+            }
+            sortHeap(heapKeys, heapNode, heapRank, 0, size);
+            List<DAGPathFinder.Path> paths = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                long key = heapKeys[i];
+                paths.add(new DAGPathFinder.Path(reconstructPath(heapNode[i], heapRank[i]), isLongestPath ? -key : key));
+            }
+            return paths;
+        }
+    }
+
+
+    public KBestPathFinder(CsrGraph g, int k, Metrics metrics) {
+        this(g, new ParallelKahnSort(g, metrics).run(), k, metrics, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    // schedule must be a ParallelKahnSort schedule of g.
+    public KBestPathFinder(CsrGraph g, ParallelKahnSort.Schedule schedule, int k, Metrics metrics, int parallelism) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        if (schedule == null) {
+            throw new IllegalArgumentException("Graph has a cycle");
+        }
+        if ((long) g.V * k > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(g.V + " x " + k + " candidates do not fit in an array");
+        }
+        this.reverse = g.transpose();
+        int sinkCount = 0;
+        for (int v = 0; v < g.V; v++) {
+            if (g.offsets[v] == g.offsets[v + 1]) {
+                sinkCount++;
+            }
+        }
+        this.sinks = new int[sinkCount];
+        for (int v = 0, i = 0; v < g.V; v++) {
+            if (g.offsets[v] == g.offsets[v + 1]) {
+                sinks[i++] = v;
+            }
+        }
+        this.schedule = schedule;
+        this.k = k;
+        this.parallelism = parallelism;
+        this.relaxationCounter = metrics.counter("dagsp.kbest.relaxations");
+    }
+
+
+    public KBestResult run(int source, boolean findLongest) {
+        KBestResult result = new KBestResult(reverse.V, k, findLongest, sinks);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Waves before the source's cannot be reached from it.
+            for (int w = schedule.level[source]; w < schedule.levelCount; w++) {
+                fillWave(pool, result, source, schedule.levelStart[w], schedule.levelStart[w + 1]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("K-best path search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("K-best path search failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+
+    private void fillWave(ForkJoinPool pool, KBestResult result, int source, int from, int to)
+            throws InterruptedException, ExecutionException {
+        if ((long) (to - from) * k < SEQUENTIAL_THRESHOLD) {
+            relaxationCounter.add(fill(result, source, from, to));
+            return;
+        }
+        int chunks = parallelism * 4;
+        int chunkSize = (to - from + chunks - 1) / chunks;
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int lo = from; lo < to; lo += chunkSize) {
+            int chunkFrom = lo;
+            int chunkTo = Math.min(to, lo + chunkSize);
+            tasks.add(() -> fill(result, source, chunkFrom, chunkTo));
+        }
+        long relaxations = 0;
+        for (Future<Long> f : pool.invokeAll(tasks)) {
+            relaxations += f.get();
+        }
+        relaxationCounter.add(relaxations);
+    }
+
+
+    private long fill(KBestResult result, int source, int from, int to) {
+        long[] keys = result.keys;
+        int[] parentNode = result.parentNode;
+        int[] parentRank = result.parentRank;
+        int[] count = result.count;
+        int[] weights = result.isLongestPath ? reverse.maxWeights : reverse.minWeights;
+        int sign = result.isLongestPath ? -1 : 1;
+        long relaxations = 0;
+
+        for (int i = from; i < to; i++) {
+            int v = schedule.order[i];
+            int base = v * k;
+            if (v == source) {
+                keys[base] = 0;
+                parentNode[base] = -1;
+                parentRank[base] = -1;
+                count[v] = 1;
+                continue;
+            }
+            int size = 0;
+            for (int e = reverse.offsets[v]; e < reverse.offsets[v + 1]; e++) {
+                int u = reverse.targets[e];
+                long weight = sign * (long) weights[e];
+                int ub = u * k;
+                for (int r = 0; r < count[u]; r++) {
+                    long key = keys[ub + r] + weight;
+                    relaxations++;
+                    // u's candidates are sorted, so the rest cannot do better either.
+                    if (size == k && key >= keys[base]) {
+                        break;
+                    }
+                    size = offer(keys, parentNode, parentRank, base, size, k, key, u, r);
+                }
+            }
+            sortHeap(keys, parentNode, parentRank, base, size);
+            count[v] = size;
+        }
+        return relaxations;
+    }
+
+
+    // Bounded max-heap on keys[base, base + size): the worst kept candidate sits
+    // at the root and is replaced when a better one arrives. Returns the new size.
+    static int offer(long[] keys, int[] node, int[] rank, int base, int size, int k, long key, int u, int r) {
+        int i;
+        if (size < k) {
+            i = size++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (keys[base + up] >= key) {
+                    break;
+                }
+                move(keys, node, rank, base + up, base + i);
+                i = up;
+            }
+        } else {
+            i = siftDown(keys, node, rank, base, 0, size, key);
+        }
+        keys[base + i] = key;
+        node[base + i] = u;
+        rank[base + i] = r;
+        return size;
+    }
+
+
+    // Moves children up from hole until key fits; returns the slot for key.
+    private static int siftDown(long[] keys, int[] node, int[] rank, int base, int hole, int size, long key) {
+        while (true) {
+            int child = 2 * hole + 1;
+            if (child >= size) {
+                return hole;
+            }
+            if (child + 1 < size && keys[base + child + 1] > keys[base + child]) {
+                child++;
+            }
+            if (keys[base + child] <= key) {
+                return hole;
+            }
+            move(keys, node, rank, base + child, base + hole);
+            hole = child;
+        }
+    }
+
+
+    // In-place heapsort of a max-heap into ascending (best first) order.
+    static void sortHeap(long[] keys, int[] node, int[] rank, int base, int size) {
+        for (int end = size - 1; end > 0; end--) {
+            long key = keys[base + end];
+            int u = node[base + end];
+            int r = rank[base + end];
+            move(keys, node, rank, base, base + end);
+            int i = siftDown(keys, node, rank, base, 0, end, key);
+            keys[base + i] = key;
+            node[base + i] = u;
+            rank[base + i] = r;
+        }
+    }
+
+
+    private static void move(long[] keys, int[] node, int[] rank, int from, int to) {
+        keys[to] = keys[from];
+        node[to] = node[from];
+        rank[to] = rank[from];
+    }
+}
@@ -0,0 +1,283 @@
+package org.example.graph.io;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.offheap.IntArray;
+import org.example.graph.offheap.OffHeapGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+
+// Little-endian CSR file:
+//   [0..128)  header: magic, version, flags, V, E, source, weight model,
+//             and the absolute position of every section
+//   offsets   int[V + 1]
+//   targets   int[E]
+//   weights   int[E]
+//   min, max  int[E] each, only when FLAG_CONDENSATION is set
+public class BinaryGraphFormat {
+    public static final int MAGIC = 0x47525343; // "CSRG" read little-endian
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 128;
+    public static final String EXTENSION = ".csrg";
+
+    static final int FLAG_DIRECTED = 1;
+    static final int FLAG_CONDENSATION = 2;
+    private static final int MAX_WEIGHT_MODEL_BYTES = 32;
+    private static final int WRITE_CHUNK_INTS = 1 << 18;
+    private static final int MAP_WINDOW_INTS = 1 << 28;
+
+
+    public static void write(String filename, GraphDataset data) throws IOException {
+        write(Paths.get(filename), data.graph, data.directed, data.source, data.weightModel);
+    }
+
+
+    public static void write(Path path, CsrGraph g, boolean directed, int source, String weightModel) throws IOException {
+        boolean condensation = g.isCondensation();
+        long offsetsPos = HEADER_SIZE;
+        long targetsPos = offsetsPos + 4L * (g.V + 1);
+        long weightsPos = targetsPos + 4L * g.E;
+        long minPos = condensation ? weightsPos + 4L * g.E : 0;
+        long maxPos = condensation ? minPos + 4L * g.E : 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = header((directed ? FLAG_DIRECTED : 0) | (condensation ? FLAG_CONDENSATION : 0),
+                    g.V, g.E, source, weightModel, offsetsPos, targetsPos, weightsPos, minPos, maxPos);
+            writeFully(channel, header);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(4 * WRITE_CHUNK_INTS).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(channel, buffer, g.offsets, g.V + 1);
+            writeInts(channel, buffer, g.targets, g.E);
+            writeInts(channel, buffer, g.weights, g.E);
+            if (condensation) {
+                writeInts(channel, buffer, g.minWeights, g.E);
+                writeInts(channel, buffer, g.maxWeights, g.E);
+            }
+        }
+    }
+
+
+    static ByteBuffer header(int flags, int V, long E, int source, String weightModel, long offsetsPos,
+                             long targetsPos, long weightsPos, long minPos, long maxPos) {
+        byte[] model = weightModel == null ? new byte[0] : weightModel.getBytes(StandardCharsets.UTF_8);
+        if (model.length > MAX_WEIGHT_MODEL_BYTES) {
+            throw new IllegalArgumentException("Weight model name longer than " + MAX_WEIGHT_MODEL_BYTES + " bytes");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(V).putLong(E).putInt(source).putInt(model.length);
+        header.put(model);
+        header.position(64);
+        header.putLong(offsetsPos).putLong(targetsPos).putLong(weightsPos).putLong(minPos).putLong(maxPos);
+        header.position(0);
+        return header;
+    }
+
+
+    public static GraphDataset load(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            Header header = readHeader(channel, filename);
+            if (header.E > Integer.MAX_VALUE - 8) {
+                throw new IOException("Edge count " + header.E + " exceeds the in-heap CSR limit");
+            }
+
+            int V = header.V;
+            int edges = (int) header.E;
+            int[] offsets = readInts(channel, header.offsetsPos, V + 1);
+            int[] targets = readInts(channel, header.targetsPos, edges);
+            int[] weights = readInts(channel, header.weightsPos, edges);
+            validate(offsets, targets, V, edges);
+            CsrGraph g;
+            if (header.condensation()) {
+                int[] min = readInts(channel, header.minPos, edges);
+                int[] max = readInts(channel, header.maxPos, edges);
+                g = new CsrGraph(V, offsets, targets, weights, min, max);
+            } else {
+                g = new CsrGraph(V, offsets, targets, weights);
+            }
+            return new GraphDataset(g, header.directed(), header.source, header.weightModel, channel.size());
+        }
+    }
+
+
+    // Maps the file instead of copying it: the graph's arrays are read-only views
+    // of the page cache and take no heap. The mappings outlive the channel.
+    public static OffHeapDataset map(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            Header header = readHeader(channel, filename);
+            if (header.E > Integer.MAX_VALUE) {
+                throw new IOException("Edge count " + header.E + " exceeds the int offsets of the CSR format");
+            }
+            int V = header.V;
+            long E = header.E;
+            IntArray offsets = IntArray.map(channel, header.offsetsPos, V + 1L);
+            IntArray targets = IntArray.map(channel, header.targetsPos, E);
+            IntArray weights = IntArray.map(channel, header.weightsPos, E);
+            validate(offsets, targets, V, E);
+            OffHeapGraph g;
+            if (header.condensation()) {
+                g = new OffHeapGraph(V, E, offsets, targets, weights, IntArray.map(channel, header.minPos, E),
+                        IntArray.map(channel, header.maxPos, E));
+            } else {
+                g = new OffHeapGraph(V, E, offsets, targets, weights);
+            }
+            return new OffHeapDataset(g, header.directed(), header.source, header.weightModel, channel.size());
+        }
+    }
+
+
+    private static class Header {
+        int flags;
+        int V;
+        long E;
+        int source;
+        String weightModel;
+        long offsetsPos;
+        long targetsPos;
+        long weightsPos;
+        long minPos;
+        long maxPos;
+
+
+        boolean directed() {
+            return (flags & FLAG_DIRECTED) != 0;
+        }
+
+
+        boolean condensation() {
+            return (flags & FLAG_CONDENSATION) != 0;
+        }
+    }
+
+
+    private static Header readHeader(FileChannel channel, String filename) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Not a CSR graph file: " + filename);
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a CSR graph file: " + filename);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported CSR graph version " + version + " in " + filename);
+        }
+        Header header = new Header();
+        header.flags = buffer.getInt(8);
+        header.V = buffer.getInt(12);
+        header.E = buffer.getLong(16);
+        header.source = buffer.getInt(24);
+        if (header.V < 0 || header.V == Integer.MAX_VALUE || header.E < 0) {
+            throw new IOException("Corrupt CSR graph file: V = " + header.V + ", E = " + header.E + " in " + filename);
+        }
+        int modelLength = buffer.getInt(28);
+        if (modelLength < 0 || modelLength > MAX_WEIGHT_MODEL_BYTES) {
+            throw new IOException("Corrupt CSR graph file: weight model length " + modelLength + " in " + filename);
+        }
+        byte[] model = new byte[modelLength];
+        buffer.position(32);
+        buffer.get(model);
+        header.weightModel = new String(model, StandardCharsets.UTF_8);
+        header.offsetsPos = buffer.getLong(64);
+        header.targetsPos = buffer.getLong(72);
+        header.weightsPos = buffer.getLong(80);
+        header.minPos = buffer.getLong(88);
+        header.maxPos = buffer.getLong(96);
+        return header;
+    }
+
+
+    // Everything the algorithms index by without checking: offsets start at 0, never
+    // decrease and end at E, and every target is a node.
+    static void validate(int[] offsets, int[] targets, int V, int E) throws IOException {
+        if (offsets[0] != 0) {
+            throw new IOException("Corrupt CSR graph file: offsets start at " + offsets[0]);
+        }
+        for (int u = 0; u < V; u++) {
+            if (offsets[u + 1] < offsets[u]) {
+                throw new IOException("Corrupt CSR graph file: offsets decrease at node " + u);
+            }
+        }
+        if (offsets[V] != E) {
+            throw new IOException("Corrupt CSR graph file: offsets end at " + offsets[V] + ", expected " + E);
+        }
+        for (int i = 0; i < E; i++) {
+            if (targets[i] < 0 || targets[i] >= V) {
+                throw new IOException("Corrupt CSR graph file: edge " + i + " points to " + targets[i]);
+            }
+        }
+    }
+
+
+    // validate() over mapped sections. It reads every offset and target once, so
+    // mapping costs one sequential pass over the file rather than O(1), but a
+    // corrupt file fails here instead of deep inside the off-heap algorithms.
+    static void validate(IntArray offsets, IntArray targets, int V, long E) throws IOException {
+        if (offsets.get(0) != 0) {
+            throw new IOException("Corrupt CSR graph file: offsets start at " + offsets.get(0));
+        }
+        for (int u = 0; u < V; u++) {
+            if (offsets.get(u + 1) < offsets.get(u)) {
+                throw new IOException("Corrupt CSR graph file: offsets decrease at node " + u);
+            }
+        }
+        if (offsets.get(V) != E) {
+            throw new IOException("Corrupt CSR graph file: offsets end at " + offsets.get(V) + ", expected " + E);
+        }
+        for (long i = 0; i < E; i++) {
+            int t = targets.get(i);
+            if (t < 0 || t >= V) {
+                throw new IOException("Corrupt CSR graph file: edge " + i + " points to " + t);
+            }
+        }
+    }
+
+
+    // Sections are mapped in windows (a single mapping is limited to 2 GB) and
+    // bulk-copied; the file pages stay in the OS page cache between runs.
+    static int[] readInts(FileChannel channel, long position, int count) throws IOException {
+        if (position < 0 || position + 4L * count > channel.size()) {
+            throw new IOException("Truncated CSR graph file");
+        }
+        int[] result = new int[count];
+        for (int done = 0; done < count; ) {
+            int window = Math.min(MAP_WINDOW_INTS, count - done);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * done, 4L * window);
+            IntBuffer ints = mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(result, done, window);
+            done += window;
+        }
+        return result;
+    }
+
+
+    static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values, int count) throws IOException {
+        buffer.clear();
+        IntBuffer ints = buffer.asIntBuffer();
+        for (int done = 0; done < count; ) {
+            int chunk = Math.min(WRITE_CHUNK_INTS, count - done);
+            ints.clear();
+            ints.put(values, done, chunk);
+            buffer.clear();
+            buffer.limit(4 * chunk);
+            writeFully(channel, buffer);
+            done += chunk;
+        }
+    }
+
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.graph.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+// Writes a BinaryGraphFormat file from edges that arrive grouped by source, without
+// holding them in memory. Targets stream into the file right after the header and
+// weights into a side file that is appended on close; only the per-node degree
+// counts (4 bytes per node) stay on the heap and become the offsets section at the end.
+// As with JsonGraphWriter, close() completes the file only after finish() and
+// deletes it otherwise.
+public class CsrStreamWriter implements Closeable {
+    private static final int BUFFER_INTS = 1 << 18;
+
+    private final Path path;
+    private final Path weightsPath;
+    private final int V;
+    private final boolean directed;
+    private final int source;
+    private final String weightModel;
+    private final FileChannel channel;
+    private final FileChannel weightsChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(4 * BUFFER_INTS).order(ByteOrder.LITTLE_ENDIAN);
+    private final int[] offsets;
+    private long edges;
+    private int lastSource;
+    private boolean finished;
+
+
+    public CsrStreamWriter(Path path, int V, boolean directed, int source, String weightModel) throws IOException {
+        this.path = path;
+        this.V = V;
+        this.directed = directed;
+        this.source = source;
+        this.weightModel = weightModel;
+        this.offsets = new int[V + 1];
+        Path dir = path.toAbsolutePath().getParent();
+        Path weights = Files.createTempFile(dir, path.getFileName().toString(), ".weights");
+        FileChannel out = null;
+        FileChannel weightsOut = null;
+        try {
+            out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            weightsOut = FileChannel.open(weights, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            out.position(BinaryGraphFormat.HEADER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            // Nobody can close a writer whose constructor threw, so the side file goes here.
+            try {
+                if (out != null) {
+                    out.close();
+                }
+                if (weightsOut != null) {
+                    weightsOut.close();
+                }
+                Files.deleteIfExists(weights);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        this.weightsPath = weights;
+        this.channel = out;
+        this.weightsChannel = weightsOut;
+    }
+
+
+    // Sources must be non-decreasing across all calls.
+    public void writeEdges(int[] sources, int[] targets, int[] weights, int count) throws IOException {
+        if (edges + count > Integer.MAX_VALUE - 8) {
+            throw new IOException("Edge count exceeds the in-heap CSR limit");
+        }
+        for (int i = 0; i < count; i++) {
+            int u = sources[i];
+            if (u < lastSource || u >= V || targets[i] < 0 || targets[i] >= V) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + targets[i]
+                        + " out of order or outside [0, " + V + ")");
+            }
+            lastSource = u;
+            offsets[u + 1]++;
+        }
+        BinaryGraphFormat.writeInts(channel, buffer, targets, count);
+        BinaryGraphFormat.writeInts(weightsChannel, buffer, weights, count);
+        edges += count;
+    }
+
+
+    public long edgeCount() {
+        return edges;
+    }
+
+
+    // Marks every edge as written; close() then completes the file.
+    public void finish() {
+        finished = true;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            try {
+                channel.close();
+                weightsChannel.close();
+            } finally {
+                Files.deleteIfExists(weightsPath);
+                Files.deleteIfExists(path);
+            }
+            return;
+        }
+        try {
+            long targetsPos = BinaryGraphFormat.HEADER_SIZE;
+            long weightsPos = targetsPos + 4 * edges;
+            long offsetsPos = weightsPos + 4 * edges;
+            for (long done = 0; done < 4 * edges; ) {
+                done += weightsChannel.transferTo(done, 4 * edges - done, channel);
+            }
+            for (int u = 0; u < V; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            channel.position(offsetsPos);
+            BinaryGraphFormat.writeInts(channel, buffer, offsets, V + 1);
+            ByteBuffer header = BinaryGraphFormat.header(directed ? BinaryGraphFormat.FLAG_DIRECTED : 0,
+                    V, edges, source, weightModel, offsetsPos, targetsPos, weightsPos, 0, 0);
+            channel.position(0);
+            BinaryGraphFormat.writeFully(channel, header);
+        } finally {
+            channel.close();
+            weightsChannel.close();
+            Files.deleteIfExists(weightsPath);
+        }
+    }
+}
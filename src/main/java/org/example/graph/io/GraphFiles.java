@@ -0,0 +1,46 @@
+package org.example.graph.io;
+
+import java.io.File;
+import java.io.IOException;
+
+
+public class GraphFiles {
+
+    public static GraphDataset load(String filename) throws IOException {
+        if (filename.endsWith(BinaryGraphFormat.EXTENSION)) {
+            return BinaryGraphFormat.load(filename);
+        }
+        return JsonGraphLoader.load(filename);
+    }
+
+
+    public static String binaryName(String jsonFilename) {
+        String base = jsonFilename.endsWith(".json")
+                ? jsonFilename.substring(0, jsonFilename.length() - ".json".length())
+                : jsonFilename;
+        return base + BinaryGraphFormat.EXTENSION;
+    }
+
+
+    // Converts each JSON dataset (or every *.json in a directory) to the binary format.
+    public static void main(String[] args) throws IOException {
+        String[] inputs = args.length > 0 ? args : new String[]{"data"};
+        for (String input : inputs) {
+            File file = new File(input);
+            File[] jsonFiles = file.isDirectory()
+                    ? file.listFiles((dir, name) -> name.endsWith(".json"))
+                    : new File[]{file};
+            if (jsonFiles == null) {
+                throw new IOException("Cannot list " + input);
+            }
+            for (File json : jsonFiles) {
+                long start = System.nanoTime();
+                GraphDataset data = JsonGraphLoader.load(json.getPath());
+                String target = binaryName(json.getPath());
+                BinaryGraphFormat.write(target, data);
+                System.out.printf("Converted: %s -> %s (%d nodes, %d edges, %.1f ms)%n", json.getPath(), target,
+                        data.graph.V, data.graph.E, (System.nanoTime() - start) / 1e6);
+            }
+        }
+    }
+}
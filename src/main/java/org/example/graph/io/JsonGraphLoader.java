@@ -0,0 +1,99 @@
+package org.example.graph.io;
+
+import com.google.gson.stream.JsonReader;
+import org.example.graph.CsrGraph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+
+// Streams the dataset schema {directed, n, edges: [{u, v, w}], source, weight_model}
+// token by token into a CsrGraph.Builder, so no per-edge objects are created.
+public class JsonGraphLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+
+    public static GraphDataset load(String filename) throws IOException {
+        Path path = Paths.get(filename);
+        try (Reader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return load(reader, Files.size(path));
+        }
+    }
+
+
+    public static GraphDataset load(Reader input, long sizeBytes) throws IOException {
+        JsonReader reader = new JsonReader(input);
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        boolean directed = true;
+        int n = -1;
+        int source = 0;
+        String weightModel = "edge";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "directed":
+                    directed = reader.nextBoolean();
+                    break;
+                case "n":
+                    n = reader.nextInt();
+                    builder.setVertexCount(n);
+                    break;
+                case "edges":
+                    readEdges(reader, builder);
+                    break;
+                case "source":
+                    source = reader.nextInt();
+                    break;
+                case "weight_model":
+                    weightModel = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (n < 0) {
+            throw new IOException("Missing vertex count 'n'");
+        }
+        return new GraphDataset(builder.build(), directed, source, weightModel, sizeBytes);
+    }
+
+
+    private static void readEdges(JsonReader reader, CsrGraph.Builder builder) throws IOException {
+        reader.beginArray();
+        for (int index = 0; reader.hasNext(); index++) {
+            int u = -1, v = -1, w = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "u":
+                        u = reader.nextInt();
+                        break;
+                    case "v":
+                        v = reader.nextInt();
+                        break;
+                    case "w":
+                        w = reader.nextInt();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (u < 0 || v < 0) {
+                throw new IOException("Missing or negative endpoint 'u' or 'v' in edge " + index);
+            }
+            builder.addEdge(u, v, w);
+        }
+        reader.endArray();
+    }
+}
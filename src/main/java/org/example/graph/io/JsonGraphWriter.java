@@ -0,0 +1,75 @@
+package org.example.graph.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+// Streams the JSON dataset schema edge by edge, one edge object per line. The
+// closing brackets are written only after finish(); a writer closed without it
+// (say, because generation failed) deletes its file instead of leaving valid
+// JSON with edges missing.
+public class JsonGraphWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path path;
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(64);
+    private long edges;
+    private boolean finished;
+
+
+    public JsonGraphWriter(Path path, int n, boolean directed, int source, String weightModel) throws IOException {
+        this.path = path;
+        out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        out.write("{\n  \"directed\": " + directed + ",\n  \"n\": " + n + ",\n  \"source\": " + source
+                + ",\n  \"weight_model\": \"" + weightModel + "\",\n  \"edges\": [");
+    }
+
+
+    public void writeEdges(int[] sources, int[] targets, int[] weights, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            line.setLength(0);
+            line.append(edges++ == 0 ? "\n    " : ",\n    ")
+                    .append("{\"u\": ").append(sources[i])
+                    .append(", \"v\": ").append(targets[i])
+                    .append(", \"w\": ").append(weights[i]).append('}');
+            out.append(line);
+        }
+    }
+
+
+    public long edgeCount() {
+        return edges;
+    }
+
+
+    // Marks every edge as written; close() then completes the file.
+    public void finish() {
+        finished = true;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (finished) {
+                out.write("\n  ]\n}\n");
+            }
+        } finally {
+            try {
+                out.close();
+            } finally {
+                if (!finished) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.graph.io;
+
+import org.example.graph.offheap.OffHeapGraph;
+
+
+public class OffHeapDataset {
+    public final OffHeapGraph graph;
+    public final boolean directed;
+    public final int source;
+    public final String weightModel;
+    public final long sizeBytes;
+
+
+    public OffHeapDataset(OffHeapGraph graph, boolean directed, int source, String weightModel, long sizeBytes) {
+        this.graph = graph;
+        this.directed = directed;
+        this.source = source;
+        this.weightModel = weightModel;
+        this.sizeBytes = sizeBytes;
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.graph.io;
+
+import org.example.graph.CsrGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+
+// Source-independent results (sccMap, condensation, topological order) stored
+// under the SHA-256 of the graph's CSR arrays. Entries are written to a temp file
+// and renamed into place; a hit refreshes the file's mtime, and after every put
+// the least recently used entries are deleted until the directory fits maxBytes.
+//
+// Entry file, little-endian:
+//   [0..64)  magic, version, V, sccCount, condensation E, topo mode of the order
+//   sccMap int[V], offsets int[sccCount + 1], targets, min, max int[E], order int[sccCount]
+public class ResultCache {
+    public static final String EXTENSION = ".sccr";
+    private static final int MAGIC = 0x52434353; // "SCCR" read little-endian
+    private static final int VERSION = 2;
+    // Header codes for Entry.topoMode; the orders differ, so they are not interchangeable.
+    private static final List<String> TOPO_MODES = List.of("dfs", "kahn");
+    private static final int HEADER_SIZE = 64;
+    private static final int HASH_CHUNK_INTS = 1 << 16;
+
+    private final Path dir;
+    private final long maxBytes;
+
+
+    public static class Entry {
+        public final int[] sccMap;
+        public final int sccCount;
+        public final CsrGraph condensation;
+        public final int[] order;
+        // "dfs" or "kahn": the --topo mode that produced order.
+        public final String topoMode;
+
+
+        public Entry(int[] sccMap, int sccCount, CsrGraph condensation, int[] order, String topoMode) {
+            if (!TOPO_MODES.contains(topoMode)) {
+                throw new IllegalArgumentException("Unknown topo mode: " + topoMode);
+            }
+            this.sccMap = sccMap;
+            this.sccCount = sccCount;
+            this.condensation = condensation;
+            this.order = order;
+            this.topoMode = topoMode;
+        }
+    }
+
+
+    public ResultCache(Path dir, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+    }
+
+
+    public static String key(CsrGraph g) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4 * HASH_CHUNK_INTS).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(g.V).putInt(g.E).flip();
+        digest.update(buffer);
+        hash(digest, buffer, g.offsets, g.V + 1);
+        hash(digest, buffer, g.targets, g.E);
+        hash(digest, buffer, g.weights, g.E);
+        if (g.isCondensation()) {
+            hash(digest, buffer, g.minWeights, g.E);
+            hash(digest, buffer, g.maxWeights, g.E);
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+
+    private static void hash(MessageDigest digest, ByteBuffer buffer, int[] values, int count) {
+        for (int done = 0; done < count; ) {
+            int chunk = Math.min(HASH_CHUNK_INTS, count - done);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, done, chunk);
+            buffer.limit(4 * chunk);
+            digest.update(buffer);
+            done += chunk;
+        }
+    }
+
+
+    private Path path(String key) {
+        return dir.resolve(key + EXTENSION);
+    }
+
+
+    // Returns null on a miss. An entry that is unreadable, in a stale format, for
+    // a graph with a different node count than V, or inconsistent with itself is
+    // a miss too, and is deleted so the next put replaces it.
+    public Entry get(String key, int V) throws IOException {
+        Path path = path(key);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        Entry entry;
+        try {
+            entry = read(path, V);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Another process may hold or replace it; it stays a miss either way.
+            }
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Evicted by another process after we read it; what we read is still valid.
+        }
+        return entry;
+    }
+
+
+    // Checks everything Main indexes by without checking: the condensation CSR,
+    // sccMap values in [0, sccCount), and order being a permutation.
+    private static Entry read(Path path, int V) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Truncated cache entry " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a current cache entry: " + path);
+            }
+            int sccCount = header.getInt(12);
+            int E = header.getInt(16);
+            int topoMode = header.getInt(20);
+            if (topoMode < 0 || topoMode >= TOPO_MODES.size()) {
+                throw new IOException("Corrupt cache entry: topo mode " + topoMode);
+            }
+            if (header.getInt(8) != V || sccCount < 0 || sccCount > V || E < 0) {
+                throw new IOException("Cache entry " + path + " does not match a graph of " + V + " nodes");
+            }
+            long position = HEADER_SIZE;
+            int[] sccMap = BinaryGraphFormat.readInts(channel, position, V);
+            position += 4L * V;
+            int[] offsets = BinaryGraphFormat.readInts(channel, position, sccCount + 1);
+            position += 4L * (sccCount + 1);
+            int[] targets = BinaryGraphFormat.readInts(channel, position, E);
+            position += 4L * E;
+            int[] min = BinaryGraphFormat.readInts(channel, position, E);
+            position += 4L * E;
+            int[] max = BinaryGraphFormat.readInts(channel, position, E);
+            position += 4L * E;
+            int[] order = BinaryGraphFormat.readInts(channel, position, sccCount);
+
+            BinaryGraphFormat.validate(offsets, targets, sccCount, E);
+            for (int u = 0; u < V; u++) {
+                if (sccMap[u] < 0 || sccMap[u] >= sccCount) {
+                    throw new IOException("Corrupt cache entry: node " + u + " in SCC " + sccMap[u]);
+                }
+            }
+            boolean[] seen = new boolean[sccCount];
+            for (int c : order) {
+                if (c < 0 || c >= sccCount || seen[c]) {
+                    throw new IOException("Corrupt cache entry: order is not a permutation");
+                }
+                seen[c] = true;
+            }
+            return new Entry(sccMap, sccCount, new CsrGraph(sccCount, offsets, targets, min, min, max), order,
+                    TOPO_MODES.get(topoMode));
+        }
+    }
+
+
+    public void put(String key, Entry entry) throws IOException {
+        CsrGraph c = entry.condensation;
+        Path tmp = Files.createTempFile(dir, key, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(entry.sccMap.length).putInt(entry.sccCount).putInt(c.E)
+                        .putInt(TOPO_MODES.indexOf(entry.topoMode));
+                header.position(0);
+                BinaryGraphFormat.writeFully(channel, header);
+
+                ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+                BinaryGraphFormat.writeInts(channel, buffer, entry.sccMap, entry.sccMap.length);
+                BinaryGraphFormat.writeInts(channel, buffer, c.offsets, c.V + 1);
+                BinaryGraphFormat.writeInts(channel, buffer, c.targets, c.E);
+                BinaryGraphFormat.writeInts(channel, buffer, c.minWeights, c.E);
+                BinaryGraphFormat.writeInts(channel, buffer, c.maxWeights, c.E);
+                BinaryGraphFormat.writeInts(channel, buffer, entry.order, entry.sccCount);
+            }
+            Files.move(tmp, path(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        evict(key);
+    }
+
+
+    // Deletes least recently used entries until the cache fits; the entry just
+    // written is kept even if it alone exceeds the limit.
+    private void evict(String keep) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path p : stream) {
+                long size = sizeOf(p);
+                if (size >= 0) {
+                    entries.add(p);
+                    total += size;
+                }
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparing(p -> p.toFile().lastModified()));
+        Path kept = path(keep);
+        for (Path p : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (!p.equals(kept)) {
+                total -= Math.max(0, sizeOf(p));
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+
+    // Another process (or batch worker) may evict an entry while we list the directory.
+    private static long sizeOf(Path p) throws IOException {
+        try {
+            return Files.size(p);
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+
+    public long sizeBytes() throws IOException {
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path p : stream) {
+                total += Math.max(0, sizeOf(p));
+            }
+        }
+        return total;
+    }
+}
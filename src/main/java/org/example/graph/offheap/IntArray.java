@@ -0,0 +1,87 @@
+package org.example.graph.offheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+
+// int array outside the Java heap, indexed by long. Storage is a list of direct
+// (or file-mapped) buffers of 2^28 ints each, so one array is not bound by the
+// 2 GB limit of a single buffer. Direct memory is released when the array is
+// collected; it is not counted against -Xmx (see -XX:MaxDirectMemorySize).
+public final class IntArray {
+    static final int SHIFT = 28;
+    static final long MASK = (1L << SHIFT) - 1;
+
+    private final IntBuffer[] segments;
+    private final long length;
+
+
+    private IntArray(IntBuffer[] segments, long length) {
+        this.segments = segments;
+        this.length = length;
+    }
+
+
+    public static IntArray allocate(long length) {
+        IntBuffer[] segments = new IntBuffer[segmentCount(length)];
+        for (int s = 0; s < segments.length; s++) {
+            int size = (int) Math.min(1L << SHIFT, length - ((long) s << SHIFT));
+            segments[s] = ByteBuffer.allocateDirect(4 * size).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return new IntArray(segments, length);
+    }
+
+
+    // Read-only view of length little-endian ints at position of the file.
+    public static IntArray map(FileChannel channel, long position, long length) throws IOException {
+        if (position < 0 || position + 4 * length > channel.size()) {
+            throw new IOException("Truncated file: " + length + " ints at " + position);
+        }
+        IntBuffer[] segments = new IntBuffer[segmentCount(length)];
+        for (int s = 0; s < segments.length; s++) {
+            long first = (long) s << SHIFT;
+            int size = (int) Math.min(1L << SHIFT, length - first);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, position + 4 * first, 4L * size)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return new IntArray(segments, length);
+    }
+
+
+    private static int segmentCount(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length " + length);
+        }
+        return (int) ((length + MASK) >>> SHIFT);
+    }
+
+
+    public long length() {
+        return length;
+    }
+
+
+    public int get(long i) {
+        return segments[(int) (i >>> SHIFT)].get((int) (i & MASK));
+    }
+
+
+    public void set(long i, int value) {
+        segments[(int) (i >>> SHIFT)].put((int) (i & MASK), value);
+    }
+
+
+    public void fill(int value) {
+        for (long i = 0; i < length; i++) {
+            set(i, value);
+        }
+    }
+
+
+    public long sizeBytes() {
+        return 4 * length;
+    }
+}
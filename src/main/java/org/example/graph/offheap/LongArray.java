@@ -0,0 +1,66 @@
+package org.example.graph.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+
+// long counterpart of IntArray: direct buffers of 2^27 longs each.
+public final class LongArray {
+    static final int SHIFT = 27;
+    static final long MASK = (1L << SHIFT) - 1;
+
+    private final LongBuffer[] segments;
+    private final long length;
+
+
+    private LongArray(LongBuffer[] segments, long length) {
+        this.segments = segments;
+        this.length = length;
+    }
+
+
+    public static LongArray allocate(long length) {
+        LongBuffer[] segments = new LongBuffer[segmentCount(length)];
+        for (int s = 0; s < segments.length; s++) {
+            int size = (int) Math.min(1L << SHIFT, length - ((long) s << SHIFT));
+            segments[s] = ByteBuffer.allocateDirect(8 * size).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return new LongArray(segments, length);
+    }
+
+
+    private static int segmentCount(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length " + length);
+        }
+        return (int) ((length + MASK) >>> SHIFT);
+    }
+
+
+    public long length() {
+        return length;
+    }
+
+
+    public long get(long i) {
+        return segments[(int) (i >>> SHIFT)].get((int) (i & MASK));
+    }
+
+
+    public void set(long i, long value) {
+        segments[(int) (i >>> SHIFT)].put((int) (i & MASK), value);
+    }
+
+
+    public void fill(long value) {
+        for (long i = 0; i < length; i++) {
+            set(i, value);
+        }
+    }
+
+
+    public long sizeBytes() {
+        return 8 * length;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.graph.offheap;
+
+import org.example.graph.CsrGraph;
+
+
+// CSR graph whose arrays live outside the Java heap, in the same layout as
+// CsrGraph. Mapped from a .csrg file the arrays are views of the page cache and
+// loading copies nothing. Offsets are ints as in the file format, so E is capped
+// at Integer.MAX_VALUE edges; V and E only bound indices, not the heap.
+public final class OffHeapGraph {
+    public final int V;
+    public final long E;
+    public final IntArray offsets;
+    public final IntArray targets;
+    public final IntArray weights;
+    // Same arrays as weights unless this is a condensation.
+    public final IntArray minWeights;
+    public final IntArray maxWeights;
+
+
+    public OffHeapGraph(int V, long E, IntArray offsets, IntArray targets, IntArray weights) {
+        this(V, E, offsets, targets, weights, weights, weights);
+    }
+
+
+    public OffHeapGraph(int V, long E, IntArray offsets, IntArray targets, IntArray weights,
+                        IntArray minWeights, IntArray maxWeights) {
+        this.V = V;
+        this.E = E;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.minWeights = minWeights;
+        this.maxWeights = maxWeights;
+    }
+
+
+    public static OffHeapGraph copyOf(CsrGraph g) {
+        IntArray offsets = copy(g.offsets, g.V + 1);
+        IntArray targets = copy(g.targets, g.E);
+        IntArray weights = copy(g.weights, g.E);
+        if (!g.isCondensation()) {
+            return new OffHeapGraph(g.V, g.E, offsets, targets, weights);
+        }
+        return new OffHeapGraph(g.V, g.E, offsets, targets, weights, copy(g.minWeights, g.E), copy(g.maxWeights, g.E));
+    }
+
+
+    private static IntArray copy(int[] values, int length) {
+        IntArray result = IntArray.allocate(length);
+        for (int i = 0; i < length; i++) {
+            result.set(i, values[i]);
+        }
+        return result;
+    }
+
+
+    public boolean isCondensation() {
+        return minWeights != weights || maxWeights != weights;
+    }
+
+
+    public int outDegree(int u) {
+        return offsets.get(u + 1) - offsets.get(u);
+    }
+
+
+    public long sizeBytes() {
+        long bytes = offsets.sizeBytes() + targets.sizeBytes() + weights.sizeBytes();
+        if (isCondensation()) {
+            bytes += minWeights.sizeBytes() + maxWeights.sizeBytes();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.graph.offheap;
+
+import org.example.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+// DAGPathFinder.runBoth over an OffHeapGraph: shortest (minWeights) and longest
+// (maxWeights) distances from one source in a single sweep of the order, with
+// the interleaved distance and parent arrays off the heap.
+public class OffHeapPathFinder {
+    private final OffHeapGraph g;
+    private final IntArray order;
+    private final Metrics.Counter relaxationCounter;
+
+
+    public static class Paths {
+        public final int V;
+        public final int source;
+        // [2v] shortest, [2v + 1] longest; Long.MAX_VALUE / MIN_VALUE if unreachable.
+        final LongArray dist;
+        final IntArray parent;
+
+
+        Paths(int V, int source, LongArray dist, IntArray parent) {
+            this.V = V;
+            this.source = source;
+            this.dist = dist;
+            this.parent = parent;
+        }
+
+
+        public boolean reachable(int v) {
+            return dist.get(2L * v) != Long.MAX_VALUE;
+        }
+
+
+        public long shortest(int v) {
+            return dist.get(2L * v);
+        }
+
+
+        public long longest(int v) {
+            return dist.get(2L * v + 1);
+        }
+
+
+        public List<Integer> path(int target, boolean longest) {
+            List<Integer> path = new ArrayList<>();
+            if (!reachable(target)) {
+                return path;
+            }
+            int side = longest ? 1 : 0;
+            for (int at = target; at != -1; at = parent.get(2L * at + side)) {
+                path.add(at);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+
+        // Node with the largest longest-path distance (the end of the critical path).
+        public int criticalTarget() {
+            int best = source;
+            for (int v = 0; v < V; v++) {
+                if (longest(v) > longest(best)) {
+                    best = v;
+                }
+            }
+            return best;
+        }
+    }
+
+
+    public OffHeapPathFinder(OffHeapGraph g, IntArray order, Metrics metrics) {
+        this.g = g;
+        this.order = order;
+        this.relaxationCounter = metrics.counter("dagsp.relaxations");
+    }
+
+
+    public Paths runBoth(int source) {
+        int V = g.V;
+        LongArray dist = LongArray.allocate(2L * V);
+        IntArray parent = IntArray.allocate(2L * V);
+        for (int v = 0; v < V; v++) {
+            dist.set(2L * v, Long.MAX_VALUE);
+            dist.set(2L * v + 1, Long.MIN_VALUE);
+        }
+        parent.fill(-1);
+        dist.set(2L * source, 0);
+        dist.set(2L * source + 1, 0);
+        long relaxations = 0;
+
+        for (int k = 0; k < V; k++) {
+            int u = order.get(k);
+            long du = dist.get(2L * u);
+            if (du == Long.MAX_VALUE) {
+                continue;
+            }
+            long lu = dist.get(2L * u + 1);
+            int end = g.offsets.get(u + 1);
+            relaxations += end - g.offsets.get(u);
+            for (int i = g.offsets.get(u); i < end; i++) {
+                long slot = 2L * g.targets.get(i);
+                long shorter = du + g.minWeights.get(i);
+                if (shorter < dist.get(slot)) {
+                    dist.set(slot, shorter);
+                    parent.set(slot, u);
+                }
+                long longer = lu + g.maxWeights.get(i);
+                if (longer > dist.get(slot + 1)) {
+                    dist.set(slot + 1, longer);
+                    parent.set(slot + 1, u);
+                }
+            }
+        }
+        relaxationCounter.add(relaxations);
+        return new Paths(V, source, dist, parent);
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.graph.offheap;
+
+import org.example.Metrics;
+
+
+// PearceSCC over an OffHeapGraph, with every per-node array off the heap too. Ids
+// are Pearce's completion labels shifted to 0-based, which already form a
+// topological order of the condensation (a component completes before any
+// component that reaches it and gets a higher label). They are not relabelled
+// into the canonical ids the heap engines share.
+public class OffHeapScc {
+    private final OffHeapGraph g;
+    private final IntArray rindex;
+    private final IntArray root;
+    private final IntArray stack;
+    private final IntArray cursor;
+    private final IntArray component;
+    private final Metrics.Counter visits;
+    private final Metrics.Counter edges;
+    private int index;
+    private int c;
+    private int sccCount;
+    private OffHeapGraph condensation;
+
+
+    public OffHeapScc(OffHeapGraph g, Metrics metrics) {
+        this.g = g;
+        this.rindex = IntArray.allocate(g.V);
+        this.root = IntArray.allocate(g.V);
+        this.stack = IntArray.allocate(g.V);
+        this.cursor = IntArray.allocate(g.V);
+        this.component = IntArray.allocate(g.V);
+        this.visits = metrics.counter("scc.offheap.visits");
+        this.edges = metrics.counter("scc.offheap.edges");
+    }
+
+
+    public void run() {
+        index = 1;
+        c = g.V - 1;
+        int componentTop = 0;
+        for (int i = 0; i < g.V; i++) {
+            if (rindex.get(i) == 0) {
+                componentTop = visit(i, componentTop);
+            }
+        }
+
+        int lowest = c + 1;
+        sccCount = g.V - lowest;
+        for (int u = 0; u < g.V; u++) {
+            rindex.set(u, rindex.get(u) - lowest);
+        }
+        condensation = buildCondensation();
+    }
+
+
+    private int visit(int start, int componentTop) {
+        int top = 0;
+        long visitCount = 1;
+        long edgeCount = 0;
+        begin(start);
+        stack.set(top++, start);
+
+        while (top > 0) {
+            int u = stack.get(top - 1);
+            int next = cursor.get(u);
+            if (next < g.offsets.get(u + 1)) {
+                int v = g.targets.get(next);
+                cursor.set(u, next + 1);
+                edgeCount++;
+                if (rindex.get(v) == 0) {
+                    visitCount++;
+                    begin(v);
+                    stack.set(top++, v);
+                } else if (rindex.get(v) < rindex.get(u)) {
+                    rindex.set(u, rindex.get(v));
+                    root.set(u, 0);
+                }
+            } else {
+                top--;
+                componentTop = complete(u, componentTop);
+                if (top > 0) {
+                    int parent = stack.get(top - 1);
+                    if (rindex.get(u) < rindex.get(parent)) {
+                        rindex.set(parent, rindex.get(u));
+                        root.set(parent, 0);
+                    }
+                }
+            }
+        }
+        visits.add(visitCount);
+        edges.add(edgeCount);
+        return componentTop;
+    }
+
+
+    private void begin(int u) {
+        rindex.set(u, index++);
+        root.set(u, 1);
+        cursor.set(u, g.offsets.get(u));
+    }
+
+
+    private int complete(int u, int componentTop) {
+        if (root.get(u) == 0) {
+            component.set(componentTop++, u);
+            return componentTop;
+        }
+        index--;
+        int label = rindex.get(u);
+        while (componentTop > 0 && label <= rindex.get(component.get(componentTop - 1))) {
+            rindex.set(component.get(--componentTop), c);
+            index--;
+        }
+        rindex.set(u, c);
+        c--;
+        return componentTop;
+    }
+
+
+    // Same counting-sort-and-dedupe scheme as CondensationBuilder. The node arrays
+    // of the search are reused as scratch: cursor for bucket positions, stack for
+    // the per-target slot table.
+    private OffHeapGraph buildCondensation() {
+        IntArray bucketStart = IntArray.allocate(sccCount + 1L);
+        for (int u = 0; u < g.V; u++) {
+            int sccU = rindex.get(u);
+            for (int i = g.offsets.get(u); i < g.offsets.get(u + 1); i++) {
+                if (rindex.get(g.targets.get(i)) != sccU) {
+                    bucketStart.set(sccU + 1, bucketStart.get(sccU + 1) + 1);
+                }
+            }
+        }
+        for (int s = 0; s < sccCount; s++) {
+            bucketStart.set(s + 1, bucketStart.get(s + 1) + bucketStart.get(s));
+        }
+
+        int crossEdges = bucketStart.get(sccCount);
+        for (int s = 0; s < sccCount; s++) {
+            cursor.set(s, bucketStart.get(s));
+        }
+        IntArray bucketTargets = IntArray.allocate(crossEdges);
+        IntArray bucketWeights = IntArray.allocate(crossEdges);
+        for (int u = 0; u < g.V; u++) {
+            int sccU = rindex.get(u);
+            for (int i = g.offsets.get(u); i < g.offsets.get(u + 1); i++) {
+                int sccV = rindex.get(g.targets.get(i));
+                if (sccV != sccU) {
+                    int slot = cursor.get(sccU);
+                    cursor.set(sccU, slot + 1);
+                    bucketTargets.set(slot, sccV);
+                    bucketWeights.set(slot, g.weights.get(i));
+                }
+            }
+        }
+
+        // Deduplicated edges are written over the buckets in place: a row never
+        // outgrows the bucket it was read from.
+        IntArray offsets = IntArray.allocate(sccCount + 1L);
+        IntArray minWeights = IntArray.allocate(crossEdges);
+        IntArray maxWeights = bucketWeights;
+        IntArray slotOf = stack;
+        slotOf.fill(-1);
+        int size = 0;
+        for (int s = 0; s < sccCount; s++) {
+            int rowStart = size;
+            offsets.set(s, rowStart);
+            for (int i = bucketStart.get(s); i < bucketStart.get(s + 1); i++) {
+                int sccV = bucketTargets.get(i);
+                int w = bucketWeights.get(i);
+                int slot = slotOf.get(sccV);
+                if (slot >= rowStart) {
+                    minWeights.set(slot, Math.min(minWeights.get(slot), w));
+                    maxWeights.set(slot, Math.max(maxWeights.get(slot), w));
+                } else {
+                    slotOf.set(sccV, size);
+                    bucketTargets.set(size, sccV);
+                    minWeights.set(size, w);
+                    maxWeights.set(size, w);
+                    size++;
+                }
+            }
+        }
+        offsets.set(sccCount, size);
+        return new OffHeapGraph(sccCount, size, offsets, bucketTargets, minWeights, minWeights, maxWeights);
+    }
+
+
+    public int getSccId(int nodeId) {
+        return rindex.get(nodeId);
+    }
+
+
+    public int getSccCount() {
+        return sccCount;
+    }
+
+
+    // sccMap[u] = SCC id of u.
+    public IntArray getSccMap() {
+        return rindex;
+    }
+
+
+    // Edge arrays may be longer than E after deduplication; only [0, E) is valid.
+    public OffHeapGraph getCondensation() {
+        return condensation;
+    }
+}
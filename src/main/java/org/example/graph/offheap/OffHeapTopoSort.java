@@ -0,0 +1,48 @@
+package org.example.graph.offheap;
+
+import org.example.Metrics;
+
+
+// Kahn's algorithm over an OffHeapGraph: the in-degrees and the output order
+// (which doubles as the queue) are off-heap arrays.
+public class OffHeapTopoSort {
+    private final OffHeapGraph g;
+    private final Metrics metrics;
+
+
+    public OffHeapTopoSort(OffHeapGraph g, Metrics metrics) {
+        this.g = g;
+        this.metrics = metrics;
+    }
+
+
+    // Returns null if the graph has a cycle.
+    public IntArray run() {
+        IntArray inDegree = IntArray.allocate(g.V);
+        for (long i = 0; i < g.E; i++) {
+            int v = g.targets.get(i);
+            inDegree.set(v, inDegree.get(v) + 1);
+        }
+        IntArray order = IntArray.allocate(g.V);
+        int size = 0;
+        for (int u = 0; u < g.V; u++) {
+            if (inDegree.get(u) == 0) {
+                order.set(size++, u);
+            }
+        }
+        for (int head = 0; head < size; head++) {
+            int u = order.get(head);
+            for (int i = g.offsets.get(u); i < g.offsets.get(u + 1); i++) {
+                int v = g.targets.get(i);
+                int remaining = inDegree.get(v) - 1;
+                inDegree.set(v, remaining);
+                if (remaining == 0) {
+                    order.set(size++, v);
+                }
+            }
+        }
+        metrics.increment("topo.offheap.visits", size);
+        metrics.increment("topo.offheap.edges", g.E);
+        return size < g.V ? null : order;
+    }
+}
@@ -0,0 +1,479 @@
+package org.example.graph.reach;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.PrecomputedScc;
+import org.example.graph.scc.SccEngine;
+import org.example.graph.topo.ParallelKahnSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+
+// "Can u reach v" over the condensation DAG, mapped back to original nodes through
+// the SCC map. Every query first maps both nodes to SCCs; equal SCCs reach each other.
+//
+// If the full transitive closure fits in maxBytes (C * C bits), it is built as one
+// bitset row per SCC, wave by wave from the sinks up, and a query is a single bit
+// test. Otherwise queries go through cheap filters before falling back to a search:
+//   - topological rank and Kahn level: a can only reach b if both are smaller
+//   - GRAIL labels: k randomized DFS traversals each give every SCC an interval
+//     [lowest post-order rank below it, its own post-order rank]; if b's interval
+//     is not inside a's for some traversal, a cannot reach b
+//   - hub bitsets, sized to what is left of maxBytes: for up to 64 hubs per word,
+//     which hubs reach each SCC and which hubs it reaches. a reaches b if a reaches
+//     a hub that reaches b, and cannot if a hub reaches a but not b (or b reaches a
+//     hub that a does not)
+//   - the first traversal's DFS tree: pre/post containment proves reachability
+//   - otherwise a DFS from a that only enters SCCs passing the same filters and
+//     stops at the first one whose tree or hubs prove it reaches b
+public class ReachabilityIndex {
+    public static final int DEFAULT_TRAVERSALS = 3;
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+    private static final int MAX_HUB_WORDS = 4;
+
+    private final SccEngine scc;
+    private final int V;
+    private final Metrics metrics;
+    private final int traversals;
+    private final long maxBytes;
+    private final int parallelism;
+
+    private int C;
+    private CsrGraph condensation;
+    private int[] sccMap;
+    private int[] rank;
+    private int[] level;
+    // labels[(c * traversals + j) * 2] = low, [.. + 1] = post for traversal j
+    private int[] labels;
+    private int[] pre;
+    private long[] closure;
+    private int words;
+    // hubsAbove[c * hubWords ..] has bit h set if hub h reaches c, hubsBelow if c reaches hub h.
+    private long[] hubsAbove;
+    private long[] hubsBelow;
+    private int hubWords;
+    private Metrics.Counter searchCounter;
+    private ThreadLocal<SearchScratch> searchScratch;
+
+
+    private static class SearchScratch {
+        final int[] stamp;
+        final int[] stack;
+        int epoch;
+
+
+        SearchScratch(int C) {
+            stamp = new int[C];
+            stack = new int[C];
+        }
+    }
+
+
+    public ReachabilityIndex(SccEngine scc, int V, Metrics metrics) {
+        this(scc, V, metrics, DEFAULT_TRAVERSALS, DEFAULT_MAX_BYTES, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    public ReachabilityIndex(SccEngine scc, int V, Metrics metrics, int traversals, long maxBytes, int parallelism) {
+        if (traversals < 1) {
+            throw new IllegalArgumentException("At least one traversal is required");
+        }
+        this.scc = scc;
+        this.V = V;
+        this.metrics = metrics;
+        this.traversals = traversals;
+        this.maxBytes = maxBytes;
+        this.parallelism = parallelism;
+    }
+
+
+    public ReachabilityIndex build() {
+        condensation = scc.getCondensationCsr();
+        C = condensation.V;
+        sccMap = PrecomputedScc.sccMapOf(scc, V);
+        searchCounter = metrics.counter("reach.search.visits");
+        searchScratch = ThreadLocal.withInitial(() -> new SearchScratch(C));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ParallelKahnSort.Schedule depth = new ParallelKahnSort(condensation, metrics, parallelism).run();
+            if (depth == null) {
+                throw new IllegalArgumentException("Condensation graph has a cycle");
+            }
+            rank = new int[C];
+            for (int i = 0; i < C; i++) {
+                rank[depth.order[i]] = i;
+            }
+            level = depth.level;
+
+            labels = new int[2 * traversals * C];
+            pre = new int[C];
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int j = 0; j < traversals; j++) {
+                int traversal = j;
+                tasks.add(() -> {
+                    label(traversal);
+                    return null;
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+
+            words = (C + 63) >>> 6;
+            long closureWords = (long) C * words;
+            if (closureWords <= MAX_ARRAY && closureWords * 8 <= maxBytes) {
+                buildClosure(pool);
+            } else {
+                buildHubs(pool, depth.order);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reachability index build interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Reachability index build failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        metrics.increment("reach.index.bytes", sizeBytes());
+        return this;
+    }
+
+
+    // One randomized iterative DFS: random root order, and each node's children
+    // are visited starting at a random offset.
+    private void label(int traversal) {
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L * (traversal + 1));
+        int[] roots = new int[C];
+        for (int i = 0; i < C; i++) {
+            int j = random.nextInt(i + 1);
+            roots[i] = roots[j];
+            roots[j] = i;
+        }
+        int[] post = new int[C];
+        int[] low = new int[C];
+        int[] start = new int[C];
+        int[] next = new int[C];
+        int[] stack = new int[C];
+        boolean[] visited = new boolean[C];
+        int[] offsets = condensation.offsets;
+        int[] targets = condensation.targets;
+        int preCounter = 0;
+        int postCounter = 0;
+
+        for (int root : roots) {
+            if (visited[root]) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            visited[root] = true;
+            enter(root, random, start, next, low);
+            if (traversal == 0) {
+                pre[root] = preCounter++;
+            }
+            while (top > 0) {
+                int u = stack[top - 1];
+                int degree = offsets[u + 1] - offsets[u];
+                if (next[u] < degree) {
+                    int k = start[u] + next[u]++;
+                    int v = targets[offsets[u] + (k >= degree ? k - degree : k)];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        enter(v, random, start, next, low);
+                        if (traversal == 0) {
+                            pre[v] = preCounter++;
+                        }
+                        stack[top++] = v;
+                    } else if (low[v] < low[u]) {
+                        low[u] = low[v];
+                    }
+                    continue;
+                }
+                top--;
+                post[u] = postCounter++;
+                low[u] = Math.min(low[u], post[u]);
+                if (top > 0) {
+                    int parent = stack[top - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+        for (int c = 0; c < C; c++) {
+            int slot = (c * traversals + traversal) * 2;
+            labels[slot] = low[c];
+            labels[slot + 1] = post[c];
+        }
+    }
+
+
+    private void enter(int u, SplittableRandom random, int[] start, int[] next, int[] low) {
+        int degree = condensation.offsets[u + 1] - condensation.offsets[u];
+        start[u] = degree > 1 ? random.nextInt(degree) : 0;
+        next[u] = 0;
+        low[u] = Integer.MAX_VALUE;
+    }
+
+
+    // Rows are filled in waves of the transposed graph: wave 0 holds the sinks and
+    // every SCC's children sit in earlier waves, so a wave's rows are independent.
+    private void buildClosure(ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        closure = new long[C * words];
+        ParallelKahnSort.Schedule height = new ParallelKahnSort(condensation.transpose(), metrics, parallelism).run();
+        for (int w = 0; w < height.levelCount; w++) {
+            int from = height.levelStart[w];
+            int to = height.levelStart[w + 1];
+            if (to - from < SEQUENTIAL_THRESHOLD) {
+                fillRows(height.order, from, to);
+                continue;
+            }
+            int chunks = parallelism * 4;
+            int chunkSize = (to - from + chunks - 1) / chunks;
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int lo = from; lo < to; lo += chunkSize) {
+                int chunkFrom = lo;
+                int chunkTo = Math.min(to, lo + chunkSize);
+                tasks.add(() -> {
+                    fillRows(height.order, chunkFrom, chunkTo);
+                    return null;
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        }
+    }
+
+
+    private void fillRows(int[] nodes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int u = nodes[i];
+            int row = u * words;
+            for (int e = condensation.offsets[u]; e < condensation.offsets[u + 1]; e++) {
+                int v = condensation.targets[e];
+                int child = v * words;
+                for (int k = 0; k < words; k++) {
+                    closure[row + k] |= closure[child + k];
+                }
+                closure[row + (v >>> 6)] |= 1L << v;
+            }
+        }
+    }
+
+
+    // Hubs are spread over the topological order: the order is cut into one bucket
+    // per hub and each bucket contributes its SCC with the largest in * out degree
+    // product, so hubs cover every part of the DAG and sit on many paths. Both
+    // bitsets are then one pass over the edges in (reverse) topological order.
+    private void buildHubs(ForkJoinPool pool, int[] order) throws InterruptedException, ExecutionException {
+        long left = maxBytes - sizeBytes();
+        hubWords = (int) Math.min(MAX_HUB_WORDS, Math.max(0, left / (16L * C)));
+        if ((long) C * hubWords > MAX_ARRAY) {
+            hubWords = MAX_ARRAY / C;
+        }
+        if (hubWords == 0) {
+            return;
+        }
+        int[] offsets = condensation.offsets;
+        int[] targets = condensation.targets;
+        int[] inDegree = new int[C];
+        for (int e = 0; e < condensation.E; e++) {
+            inDegree[targets[e]]++;
+        }
+        int hubs = Math.min(C, 64 * hubWords);
+        hubsAbove = new long[C * hubWords];
+        hubsBelow = new long[C * hubWords];
+        for (int h = 0; h < hubs; h++) {
+            int best = -1;
+            long bestScore = -1;
+            int to = (int) ((long) C * (h + 1) / hubs);
+            for (int i = (int) ((long) C * h / hubs); i < to; i++) {
+                int c = order[i];
+                long score = (long) (inDegree[c] + 1) * (offsets[c + 1] - offsets[c] + 1);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = c;
+                }
+            }
+            hubsAbove[best * hubWords + (h >>> 6)] |= 1L << h;
+            hubsBelow[best * hubWords + (h >>> 6)] |= 1L << h;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            for (int i = 0; i < C; i++) {
+                int u = order[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    for (int k = 0; k < hubWords; k++) {
+                        hubsAbove[v * hubWords + k] |= hubsAbove[u * hubWords + k];
+                    }
+                }
+            }
+            return null;
+        });
+        tasks.add(() -> {
+            for (int i = C - 1; i >= 0; i--) {
+                int u = order[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    for (int k = 0; k < hubWords; k++) {
+                        hubsBelow[u * hubWords + k] |= hubsBelow[v * hubWords + k];
+                    }
+                }
+            }
+            return null;
+        });
+        for (Future<Void> f : pool.invokeAll(tasks)) {
+            f.get();
+        }
+    }
+
+
+    public boolean canReach(int u, int v) {
+        return reachesScc(sccMap[u], sccMap[v]);
+    }
+
+
+    public boolean reachesScc(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        if (closure != null) {
+            return (closure[a * words + (b >>> 6)] & (1L << b)) != 0;
+        }
+        if (!mayReach(a, b)) {
+            return false;
+        }
+        int hub = hubCut(a, b);
+        if (hub != 0) {
+            return hub > 0;
+        }
+        if (treeContains(a, b)) {
+            return true;
+        }
+        return search(a, b);
+    }
+
+
+    // 1 if the hubs prove a reaches b, -1 if they prove it cannot, 0 if neither.
+    private int hubCut(int a, int b) {
+        int sa = a * hubWords;
+        int sb = b * hubWords;
+        int verdict = 0;
+        for (int k = 0; k < hubWords; k++) {
+            if ((hubsBelow[sa + k] & hubsAbove[sb + k]) != 0) {
+                return 1;
+            }
+            if ((hubsAbove[sa + k] & ~hubsAbove[sb + k]) != 0 || (hubsBelow[sb + k] & ~hubsBelow[sa + k]) != 0) {
+                verdict = -1;
+            }
+        }
+        return verdict;
+    }
+
+
+    // b lies in a's subtree of the first traversal's DFS forest.
+    private boolean treeContains(int a, int b) {
+        return pre[a] <= pre[b] && labels[b * traversals * 2 + 1] <= labels[a * traversals * 2 + 1];
+    }
+
+
+    // False only if a provably cannot reach b.
+    private boolean mayReach(int a, int b) {
+        if (rank[a] > rank[b] || level[a] >= level[b]) {
+            return false;
+        }
+        int sa = a * traversals * 2;
+        int sb = b * traversals * 2;
+        for (int j = 0; j < 2 * traversals; j += 2) {
+            if (labels[sb + j] < labels[sa + j] || labels[sb + j + 1] > labels[sa + j + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private boolean search(int a, int b) {
+        SearchScratch scratch = searchScratch.get();
+        if (++scratch.epoch == 0) {
+            Arrays.fill(scratch.stamp, 0);
+            scratch.epoch = 1;
+        }
+        int epoch = scratch.epoch;
+        int[] stamp = scratch.stamp;
+        int[] stack = scratch.stack;
+        int top = 0;
+        stack[top++] = a;
+        stamp[a] = epoch;
+        long visits = 0;
+        boolean found = false;
+        while (top > 0 && !found) {
+            int u = stack[--top];
+            visits++;
+            for (int e = condensation.offsets[u]; e < condensation.offsets[u + 1]; e++) {
+                int c = condensation.targets[e];
+                if (c == b) {
+                    found = true;
+                    break;
+                }
+                // Stamped before filtering, so a rejected SCC is not tested again
+                // when another edge leads to it.
+                if (stamp[c] == epoch) {
+                    continue;
+                }
+                stamp[c] = epoch;
+                if (!mayReach(c, b)) {
+                    continue;
+                }
+                int hub = hubCut(c, b);
+                if (hub > 0 || (hub == 0 && treeContains(c, b))) {
+                    found = true;
+                    break;
+                }
+                if (hub == 0) {
+                    stack[top++] = c;
+                }
+            }
+        }
+        searchCounter.add(visits);
+        return found;
+    }
+
+
+    public boolean hasClosure() {
+        return closure != null;
+    }
+
+
+    public int getHubCount() {
+        return hubsAbove == null ? 0 : Math.min(C, 64 * hubWords);
+    }
+
+
+    public int getSccCount() {
+        return C;
+    }
+
+
+    public long sizeBytes() {
+        long bytes = 4L * sccMap.length + 4L * (rank.length + level.length + pre.length + labels.length);
+        if (closure != null) {
+            bytes += 8L * closure.length;
+        }
+        if (hubsAbove != null) {
+            bytes += 16L * hubsAbove.length;
+        }
+        return bytes;
+    }
+}
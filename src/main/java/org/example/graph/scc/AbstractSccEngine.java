@@ -0,0 +1,196 @@
+package org.example.graph.scc;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+abstract class AbstractSccEngine implements SccEngine {
+    protected final CsrGraph g;
+    protected final Metrics metrics;
+    protected int[] sccMap;
+    protected int sccCount;
+    private int[] members;
+    private int[] sccStart;
+    private List<List<Integer>> sccs;
+    private CsrGraph condensation;
+    private Graph condensationGraph;
+
+
+    protected AbstractSccEngine(CsrGraph g, Metrics metrics) {
+        this.g = g;
+        this.metrics = metrics;
+        this.sccMap = new int[g.V];
+    }
+
+
+    private void groupMembersById() {
+        members = new int[g.V];
+        sccStart = new int[sccCount + 1];
+        for (int u = 0; u < g.V; u++) {
+            sccStart[sccMap[u] + 1]++;
+        }
+        for (int c = 0; c < sccCount; c++) {
+            sccStart[c + 1] += sccStart[c];
+        }
+        int[] cursor = sccStart.clone();
+        for (int u = 0; u < g.V; u++) {
+            members[cursor[sccMap[u]]++] = u;
+        }
+    }
+
+
+    protected void finish() {
+        canonicalize();
+        groupMembersById();
+        sccs = null;
+        condensationGraph = null;
+        condensation = CondensationBuilder.build(g, sccMap, sccCount);
+    }
+
+
+    // Engines discover the same partition but label it differently. Relabel with
+    // Kahn's algorithm over the component graph, always taking the ready component
+    // whose smallest member is lowest, so every engine yields the same sccMap and
+    // ids remain a topological order of the condensation.
+    private void canonicalize() {
+        int[] minMember = new int[sccCount];
+        Arrays.fill(minMember, -1);
+        for (int u = 0; u < g.V; u++) {
+            if (minMember[sccMap[u]] == -1) {
+                minMember[sccMap[u]] = u;
+            }
+        }
+
+        int[] outStart = new int[sccCount + 1];
+        int[] inDegree = new int[sccCount];
+        for (int u = 0; u < g.V; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int sccV = sccMap[g.targets[i]];
+                if (sccMap[u] != sccV) {
+                    outStart[sccMap[u] + 1]++;
+                    inDegree[sccV]++;
+                }
+            }
+        }
+        for (int c = 0; c < sccCount; c++) {
+            outStart[c + 1] += outStart[c];
+        }
+        int[] cursor = Arrays.copyOf(outStart, sccCount);
+        int[] out = new int[outStart[sccCount]];
+        for (int u = 0; u < g.V; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int sccV = sccMap[g.targets[i]];
+                if (sccMap[u] != sccV) {
+                    out[cursor[sccMap[u]]++] = sccV;
+                }
+            }
+        }
+
+        // Min-heap of ready components keyed by their smallest member vertex.
+        int[] heap = new int[sccCount];
+        int heapSize = 0;
+        for (int c = 0; c < sccCount; c++) {
+            if (inDegree[c] == 0) {
+                heapSize = heapPush(heap, heapSize, minMember[c]);
+            }
+        }
+        int[] newId = new int[sccCount];
+        int next = 0;
+        while (heapSize > 0) {
+            int c = sccMap[heap[0]];
+            heapSize = heapPop(heap, heapSize);
+            newId[c] = next++;
+            for (int i = outStart[c]; i < outStart[c + 1]; i++) {
+                if (--inDegree[out[i]] == 0) {
+                    heapSize = heapPush(heap, heapSize, minMember[out[i]]);
+                }
+            }
+        }
+        for (int u = 0; u < g.V; u++) {
+            sccMap[u] = newId[sccMap[u]];
+        }
+    }
+
+
+    static int heapPush(int[] heap, int size, int value) {
+        int i = size++;
+        while (i > 0 && heap[(i - 1) >> 1] > value) {
+            heap[i] = heap[(i - 1) >> 1];
+            i = (i - 1) >> 1;
+        }
+        heap[i] = value;
+        return size;
+    }
+
+
+    static int heapPop(int[] heap, int size) {
+        int last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (size > 0) {
+            heap[i] = last;
+        }
+        return size;
+    }
+
+
+    @Override
+    public List<List<Integer>> getSccs() {
+        if (sccs == null) {
+            sccs = new ArrayList<>(sccCount);
+            for (int c = 0; c < sccCount; c++) {
+                List<Integer> scc = new ArrayList<>(sccStart[c + 1] - sccStart[c]);
+                for (int i = sccStart[c]; i < sccStart[c + 1]; i++) {
+                    scc.add(members[i]);
+                }
+                sccs.add(scc);
+            }
+        }
+        return sccs;
+    }
+
+
+    @Override
+    public CsrGraph getCondensationCsr() {
+        return condensation;
+    }
+
+
+    @Override
+    public Graph getCondensationGraph() {
+        if (condensationGraph == null && condensation != null) {
+            condensationGraph = condensation.toGraph();
+        }
+        return condensationGraph;
+    }
+
+
+    @Override
+    public int getSccId(int nodeId) {
+        return sccMap[nodeId];
+    }
+
+
+    @Override
+    public int getSccCount() {
+        return sccCount;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.graph.scc;
+
+import org.example.graph.CsrGraph;
+
+import java.util.Arrays;
+
+
+// Builds the condensation DAG in O(V + E) with two counting sorts: cross-SCC edges
+// are bucketed by target component, then stably by source component. Every row
+// therefore comes out sorted by target, with parallel edges next to each other,
+// where they are folded into one edge with their min and max weight.
+public class CondensationBuilder {
+
+    public static CsrGraph build(CsrGraph g, int[] sccMap, int sccCount) {
+        int[] bucketStart = new int[sccCount + 1];
+        int[] targetStart = new int[sccCount + 1];
+        for (int u = 0; u < g.V; u++) {
+            int sccU = sccMap[u];
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int sccV = sccMap[g.targets[i]];
+                if (sccV != sccU) {
+                    bucketStart[sccU + 1]++;
+                    targetStart[sccV + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < sccCount; c++) {
+            bucketStart[c + 1] += bucketStart[c];
+            targetStart[c + 1] += targetStart[c];
+        }
+
+        int crossEdges = bucketStart[sccCount];
+        int[] cursor = Arrays.copyOf(targetStart, sccCount);
+        int[] byTargetSource = new int[crossEdges];
+        int[] byTargetWeight = new int[crossEdges];
+        for (int u = 0; u < g.V; u++) {
+            int sccU = sccMap[u];
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int sccV = sccMap[g.targets[i]];
+                if (sccV != sccU) {
+                    int slot = cursor[sccV]++;
+                    byTargetSource[slot] = sccU;
+                    byTargetWeight[slot] = g.weights[i];
+                }
+            }
+        }
+
+        cursor = Arrays.copyOf(bucketStart, sccCount);
+        int[] bucketTargets = new int[crossEdges];
+        int[] bucketWeights = new int[crossEdges];
+        for (int t = 0; t < sccCount; t++) {
+            for (int i = targetStart[t]; i < targetStart[t + 1]; i++) {
+                int slot = cursor[byTargetSource[i]]++;
+                bucketTargets[slot] = t;
+                bucketWeights[slot] = byTargetWeight[i];
+            }
+        }
+
+        int[] offsets = new int[sccCount + 1];
+        int[] targets = new int[crossEdges];
+        int[] minWeights = new int[crossEdges];
+        int[] maxWeights = new int[crossEdges];
+        int size = 0;
+        for (int c = 0; c < sccCount; c++) {
+            offsets[c] = size;
+            for (int i = bucketStart[c]; i < bucketStart[c + 1]; i++) {
+                int sccV = bucketTargets[i];
+                int w = bucketWeights[i];
+                if (size > offsets[c] && targets[size - 1] == sccV) {
+                    minWeights[size - 1] = Math.min(minWeights[size - 1], w);
+                    maxWeights[size - 1] = Math.max(maxWeights[size - 1], w);
+                } else {
+                    targets[size] = sccV;
+                    minWeights[size] = w;
+                    maxWeights[size] = w;
+                    size++;
+                }
+            }
+        }
+        offsets[sccCount] = size;
+
+        if (size < crossEdges) {
+            targets = Arrays.copyOf(targets, size);
+            minWeights = Arrays.copyOf(minWeights, size);
+            maxWeights = Arrays.copyOf(maxWeights, size);
+        }
+        return new CsrGraph(sccCount, offsets, targets, minWeights, minWeights, maxWeights);
+    }
+}
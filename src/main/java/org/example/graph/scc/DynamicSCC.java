@@ -0,0 +1,1130 @@
+package org.example.graph.scc;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+// Keeps SCCs and the condensation current under edge insertions and deletions.
+// Components keep a Pearce-Kelly topological order, so an insertion cu -> cv with
+// cu already ordered before cv needs no search. Otherwise the search forward from
+// cv only enters components ordered no later than cu, and the one back from cu
+// only those ordered no earlier than cv. If cv reached cu, the components both
+// searches met form the new cycle and are merged; either way the visited
+// components are reassigned the positions they held. A deletion inside a
+// component re-checks reachability within that component only and, if it broke,
+// re-decomposes just its members. Cross edges are kept per component in primitive
+// rows sorted by target, with a multiplicity, so deletions can retire a
+// condensation edge or refresh its min/max weight.
+//
+// Component ids stay dense and stable: a merge keeps the largest component's id,
+// a split gives the smaller pieces new ids, and a freed id is refilled by moving
+// the highest id into it. Until the first merge or split they are the canonical
+// ids of the static engines; after that they are no longer in topological order,
+// which topologicalOrder() provides instead.
+public class DynamicSCC implements SccEngine {
+    private static final int[] EMPTY = new int[0];
+    // condOut rows hold (target, count, min, max) per cross edge.
+    private static final int STRIDE = 4;
+
+    private final CsrGraph initial;
+    private final Metrics metrics;
+    private final int V;
+    private final Metrics.Counter insertCounter;
+    private final Metrics.Counter deleteCounter;
+    private final Metrics.Counter visitCounter;
+    private final Metrics.Counter reorderCounter;
+    private final Metrics.Counter mergeCounter;
+    private final Metrics.Counter splitCounter;
+
+    private int[][] out;
+    private int[][] outWeights;
+    private int[] outDegree;
+    private int[][] in;
+    private int[][] inWeights;
+    private int[] inDegree;
+
+    private int[] comp;
+    private int[][] members;
+    private int[] memberCount;
+    private int liveCount;
+    private long componentChanges;
+
+    private int[][] condOut;
+    private int[] condOutSize;
+    private int[][] condIn;
+    private int[] condInSize;
+
+    // ord[c] is component c's position; nodeAt has V positions, -1 where empty.
+    private int[] ord;
+    private int[] nodeAt;
+
+    private int[] forwardMark;
+    private int[] backwardMark;
+    private int[] nodeMark;
+    private int[] touchMark;
+    private int epoch;
+    private int touchEpoch;
+    private int[] queue;
+    private int[] forward;
+    private int forwardSize;
+    private int[] backward;
+    private int backwardSize;
+    private int[] positions;
+    private int[] touched;
+
+    // Cross edges of a merge or split, before they are sorted into the rows.
+    private int[] pendingFrom = new int[16];
+    private int[] pendingTo = new int[16];
+    private int[] pendingCount = new int[16];
+    private int[] pendingMin = new int[16];
+    private int[] pendingMax = new int[16];
+    private int pendingSize;
+
+    private int[] dfsIndex;
+    private int[] dfsLow;
+    private int[] dfsCursor;
+    private int[] callStack;
+    private int[] sccStack;
+    private boolean[] onStack;
+
+    private List<List<Integer>> sccs;
+    private CsrGraph condensation;
+    private Graph condensationGraph;
+
+
+    public DynamicSCC(Graph g, Metrics metrics) {
+        this(g.toCsr(), metrics);
+    }
+
+
+    public DynamicSCC(CsrGraph g, Metrics metrics) {
+        this.initial = g;
+        this.metrics = metrics;
+        this.V = g.V;
+        this.insertCounter = metrics.counter("scc.dynamic.inserts");
+        this.deleteCounter = metrics.counter("scc.dynamic.deletes");
+        this.visitCounter = metrics.counter("scc.dynamic.visited");
+        this.reorderCounter = metrics.counter("scc.dynamic.reordered");
+        this.mergeCounter = metrics.counter("scc.dynamic.merges");
+        this.splitCounter = metrics.counter("scc.dynamic.splits");
+    }
+
+
+    // Full decomposition of the initial graph; updates are accepted afterwards.
+    @Override
+    public void run() {
+        PearceSCC scc = new PearceSCC(initial, metrics);
+        scc.run();
+
+        out = new int[V][];
+        outWeights = new int[V][];
+        outDegree = new int[V];
+        in = new int[V][];
+        inWeights = new int[V][];
+        inDegree = new int[V];
+        CsrGraph reverse = initial.transpose();
+        for (int u = 0; u < V; u++) {
+            out[u] = row(initial.targets, initial.offsets, u);
+            outWeights[u] = row(initial.weights, initial.offsets, u);
+            outDegree[u] = initial.outDegree(u);
+            in[u] = row(reverse.targets, reverse.offsets, u);
+            inWeights[u] = row(reverse.weights, reverse.offsets, u);
+            inDegree[u] = reverse.outDegree(u);
+        }
+
+        comp = new int[V];
+        members = new int[V][];
+        memberCount = new int[V];
+        for (int u = 0; u < V; u++) {
+            comp[u] = scc.getSccId(u);
+            memberCount[comp[u]]++;
+        }
+        liveCount = scc.getSccCount();
+        for (int c = 0; c < liveCount; c++) {
+            members[c] = new int[memberCount[c]];
+            memberCount[c] = 0;
+        }
+        for (int u = 0; u < V; u++) {
+            members[comp[u]][memberCount[comp[u]]++] = u;
+        }
+
+        // The static condensation already has one sorted row per component; only
+        // the multiplicities are counted here.
+        condensation = scc.getCondensationCsr();
+        condOut = new int[V][];
+        condOutSize = new int[V];
+        condIn = new int[V][];
+        condInSize = new int[V];
+        Arrays.fill(condOut, EMPTY);
+        Arrays.fill(condIn, EMPTY);
+        for (int c = 0; c < liveCount; c++) {
+            int size = condensation.outDegree(c);
+            if (size == 0) {
+                continue;
+            }
+            int[] row = new int[STRIDE * size];
+            for (int i = 0; i < size; i++) {
+                int e = condensation.offsets[c] + i;
+                row[STRIDE * i] = condensation.targets[e];
+                row[STRIDE * i + 2] = condensation.minWeights[e];
+                row[STRIDE * i + 3] = condensation.maxWeights[e];
+                condInSize[condensation.targets[e]]++;
+            }
+            condOut[c] = row;
+            condOutSize[c] = size;
+        }
+        for (int c = 0; c < liveCount; c++) {
+            if (condInSize[c] > 0) {
+                condIn[c] = new int[condInSize[c]];
+                condInSize[c] = 0;
+            }
+        }
+        for (int c = 0; c < liveCount; c++) {
+            for (int e = condensation.offsets[c]; e < condensation.offsets[c + 1]; e++) {
+                int t = condensation.targets[e];
+                condIn[t][condInSize[t]++] = c;
+            }
+        }
+        for (int u = 0; u < V; u++) {
+            int cu = comp[u];
+            for (int i = 0; i < outDegree[u]; i++) {
+                int cv = comp[out[u][i]];
+                if (cu != cv) {
+                    condOut[cu][STRIDE * findOut(cu, cv) + 1]++;
+                }
+            }
+        }
+
+        // Canonical ids are a topological order. Each component is followed by one
+        // empty position per extra member, where its pieces go if it splits.
+        ord = new int[V];
+        nodeAt = new int[V];
+        Arrays.fill(nodeAt, -1);
+        for (int c = 0, p = 0; c < liveCount; p += memberCount[c], c++) {
+            ord[c] = p;
+            nodeAt[p] = c;
+        }
+
+        forwardMark = new int[V];
+        backwardMark = new int[V];
+        nodeMark = new int[V];
+        touchMark = new int[V];
+        epoch = 0;
+        touchEpoch = 0;
+        queue = new int[Math.max(V, 1)];
+        forward = new int[Math.max(V, 1)];
+        backward = new int[Math.max(V, 1)];
+        positions = new int[Math.max(V, 1)];
+        touched = new int[Math.max(V, 1)];
+        sccs = null;
+        condensationGraph = null;
+    }
+
+
+    private static int[] row(int[] values, int[] offsets, int u) {
+        return offsets[u] == offsets[u + 1] ? EMPTY : Arrays.copyOfRange(values, offsets[u], offsets[u + 1]);
+    }
+
+
+    public void addEdge(int u, int v, int weight) {
+        checkEdge(u, v);
+        insertCounter.increment();
+        outDegree[u] = append(out, outWeights, outDegree[u], u, v, weight);
+        inDegree[v] = append(in, inWeights, inDegree[v], v, u, weight);
+
+        int cu = comp[u];
+        int cv = comp[v];
+        if (cu == cv) {
+            return;
+        }
+        changed();
+        int i = findOut(cu, cv);
+        if (i >= 0) {
+            int[] row = condOut[cu];
+            row[STRIDE * i + 1]++;
+            row[STRIDE * i + 2] = Math.min(row[STRIDE * i + 2], weight);
+            row[STRIDE * i + 3] = Math.max(row[STRIDE * i + 3], weight);
+            return;
+        }
+        if (ord[cu] > ord[cv]) {
+            int cycleSize = searchRegion(cu, cv);
+            if (cycleSize > 0) {
+                int keeper = merge(cycleSize);
+                reorder(keeper);
+                releaseMerged(cycleSize, keeper);
+                return;
+            }
+            reorder(-1);
+            i = findOut(cu, cv);
+        }
+        insertOut(cu, -i - 1, cv, 1, weight, weight);
+        insertIn(cv, cu);
+    }
+
+
+    public boolean removeEdge(int u, int v, int weight) {
+        checkEdge(u, v);
+        int i = indexOf(out[u], outWeights[u], outDegree[u], v, weight);
+        if (i < 0) {
+            return false;
+        }
+        deleteCounter.increment();
+        outDegree[u] = removeAt(out[u], outWeights[u], outDegree[u], i);
+        inDegree[v] = removeAt(in[v], inWeights[v], inDegree[v], indexOf(in[v], inWeights[v], inDegree[v], u, weight));
+
+        int cu = comp[u];
+        int cv = comp[v];
+        if (cu != cv) {
+            changed();
+            int slot = findOut(cu, cv);
+            int[] row = condOut[cu];
+            if (--row[STRIDE * slot + 1] == 0) {
+                removeOut(cu, slot);
+                removeIn(cv, cu);
+            } else if (weight == row[STRIDE * slot + 2] || weight == row[STRIDE * slot + 3]) {
+                refreshWeights(cu, cv, slot);
+            }
+        } else if (!reachesWithin(u, v, cu)) {
+            changed();
+            split(cu);
+        }
+        return true;
+    }
+
+
+    // Cheap membership test; does not build any view.
+    public boolean sameScc(int u, int v) {
+        return comp[u] == comp[v];
+    }
+
+
+    // Merges plus splits so far. While it is unchanged every node keeps its
+    // component id.
+    public long getComponentChanges() {
+        return componentChanges;
+    }
+
+
+    // Component ids in a topological order of the condensation.
+    public int[] topologicalOrder() {
+        checkRun();
+        int[] order = new int[liveCount];
+        int n = 0;
+        for (int p = 0; p < V; p++) {
+            if (nodeAt[p] >= 0) {
+                order[n++] = nodeAt[p];
+            }
+        }
+        return order;
+    }
+
+
+    private void checkRun() {
+        if (comp == null) {
+            throw new IllegalStateException("run() must be called first");
+        }
+    }
+
+
+    private void checkEdge(int u, int v) {
+        if (comp == null) {
+            throw new IllegalStateException("run() must be called before updates");
+        }
+        if (u < 0 || v < 0 || u >= V || v >= V) {
+            throw new IndexOutOfBoundsException("Edge " + u + " -> " + v + " outside [0, " + V + ")");
+        }
+    }
+
+
+    private void changed() {
+        condensation = null;
+        condensationGraph = null;
+    }
+
+
+    private static int append(int[][] targets, int[][] weights, int degree, int u, int v, int weight) {
+        if (degree == targets[u].length) {
+            int capacity = degree + (degree >> 1) + 2;
+            targets[u] = Arrays.copyOf(targets[u], capacity);
+            weights[u] = Arrays.copyOf(weights[u], capacity);
+        }
+        targets[u][degree] = v;
+        weights[u][degree] = weight;
+        return degree + 1;
+    }
+
+
+    private static int indexOf(int[] targets, int[] weights, int degree, int v, int weight) {
+        for (int i = 0; i < degree; i++) {
+            if (targets[i] == v && weights[i] == weight) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    private static int removeAt(int[] targets, int[] weights, int degree, int i) {
+        degree--;
+        targets[i] = targets[degree];
+        weights[i] = weights[degree];
+        return degree;
+    }
+
+
+    // Index of t in c's outgoing row, or -(insertion point) - 1.
+    private int findOut(int c, int t) {
+        int[] row = condOut[c];
+        int lo = 0;
+        int hi = condOutSize[c] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int x = row[STRIDE * mid];
+            if (x < t) {
+                lo = mid + 1;
+            } else if (x > t) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -lo - 1;
+    }
+
+
+    private void insertOut(int c, int at, int t, int count, int min, int max) {
+        int size = condOutSize[c];
+        int[] row = condOut[c];
+        if (STRIDE * (size + 1) > row.length) {
+            row = Arrays.copyOf(row, STRIDE * (size + (size >> 1) + 2));
+            condOut[c] = row;
+        }
+        System.arraycopy(row, STRIDE * at, row, STRIDE * (at + 1), STRIDE * (size - at));
+        row[STRIDE * at] = t;
+        row[STRIDE * at + 1] = count;
+        row[STRIDE * at + 2] = min;
+        row[STRIDE * at + 3] = max;
+        condOutSize[c] = size + 1;
+    }
+
+
+    private void removeOut(int c, int at) {
+        int size = --condOutSize[c];
+        System.arraycopy(condOut[c], STRIDE * (at + 1), condOut[c], STRIDE * at, STRIDE * (size - at));
+    }
+
+
+    private void insertIn(int t, int s) {
+        int size = condInSize[t];
+        int at = -Arrays.binarySearch(condIn[t], 0, size, s) - 1;
+        int[] row = condIn[t];
+        if (size == row.length) {
+            row = Arrays.copyOf(row, size + (size >> 1) + 2);
+            condIn[t] = row;
+        }
+        System.arraycopy(row, at, row, at + 1, size - at);
+        row[at] = s;
+        condInSize[t] = size + 1;
+    }
+
+
+    private void removeIn(int t, int s) {
+        int at = Arrays.binarySearch(condIn[t], 0, condInSize[t], s);
+        int size = --condInSize[t];
+        System.arraycopy(condIn[t], at + 1, condIn[t], at, size - at);
+    }
+
+
+    private void clearRows(int c) {
+        condOut[c] = EMPTY;
+        condOutSize[c] = 0;
+        condIn[c] = EMPTY;
+        condInSize[c] = 0;
+    }
+
+
+    // Inserting cu -> cv with cv ordered before cu. Collects into forward the
+    // components reachable from cv ordered no later than cu, and into backward
+    // those reaching cu ordered no earlier than cv. If cu was reached, the
+    // components in both sets form the new cycle: they are left in queue and
+    // their number is returned. Otherwise 0 is returned.
+    private int searchRegion(int cu, int cv) {
+        epoch++;
+        int upper = ord[cu];
+        int lower = ord[cv];
+        int tail = 0;
+        forwardMark[cv] = epoch;
+        forward[tail++] = cv;
+        for (int head = 0; head < tail; head++) {
+            int c = forward[head];
+            int[] row = condOut[c];
+            for (int i = 0; i < condOutSize[c]; i++) {
+                int t = row[STRIDE * i];
+                if (forwardMark[t] != epoch && ord[t] <= upper) {
+                    forwardMark[t] = epoch;
+                    forward[tail++] = t;
+                }
+            }
+        }
+        forwardSize = tail;
+
+        tail = 0;
+        backwardMark[cu] = epoch;
+        backward[tail++] = cu;
+        for (int head = 0; head < tail; head++) {
+            int c = backward[head];
+            int[] row = condIn[c];
+            for (int i = 0; i < condInSize[c]; i++) {
+                int s = row[i];
+                if (backwardMark[s] != epoch && ord[s] >= lower) {
+                    backwardMark[s] = epoch;
+                    backward[tail++] = s;
+                }
+            }
+        }
+        backwardSize = tail;
+        visitCounter.add(forwardSize + backwardSize);
+        if (forwardMark[cu] != epoch) {
+            return 0;
+        }
+
+        int size = 0;
+        for (int i = 0; i < forwardSize; i++) {
+            if (backwardMark[forward[i]] == epoch) {
+                queue[size++] = forward[i];
+            }
+        }
+        return size;
+    }
+
+
+    private boolean inCycle(int c) {
+        return forwardMark[c] == epoch && backwardMark[c] == epoch;
+    }
+
+
+    // Gives the positions the searched region held to the backward set, then the
+    // merged component (keeper, -1 if none), then the forward set, each set keeping
+    // its relative order. Backward components only move down and forward ones only
+    // up, so edges leaving the region stay ordered. Positions of merged-away
+    // components are left empty.
+    private void reorder(int keeper) {
+        int pool = 0;
+        int b = 0;
+        for (int i = 0; i < backwardSize; i++) {
+            int c = backward[i];
+            positions[pool++] = ord[c];
+            if (forwardMark[c] != epoch) {
+                backward[b++] = ord[c];
+            }
+        }
+        int f = 0;
+        for (int i = 0; i < forwardSize; i++) {
+            int c = forward[i];
+            if (backwardMark[c] != epoch) {
+                positions[pool++] = ord[c];
+                forward[f++] = ord[c];
+            }
+        }
+        Arrays.sort(positions, 0, pool);
+        Arrays.sort(backward, 0, b);
+        Arrays.sort(forward, 0, f);
+        for (int i = 0; i < b; i++) {
+            backward[i] = nodeAt[backward[i]];
+        }
+        for (int i = 0; i < f; i++) {
+            forward[i] = nodeAt[forward[i]];
+        }
+        for (int i = 0; i < pool; i++) {
+            nodeAt[positions[i]] = -1;
+        }
+        int next = 0;
+        for (int i = 0; i < b; i++) {
+            place(backward[i], positions[next++]);
+        }
+        if (keeper >= 0) {
+            place(keeper, positions[next]);
+        }
+        for (int i = 0; i < f; i++) {
+            place(forward[i], positions[pool - f + i]);
+        }
+        reorderCounter.add(pool);
+    }
+
+
+    private void place(int c, int position) {
+        ord[c] = position;
+        nodeAt[position] = c;
+    }
+
+
+    // Merges queue[0 .. size) into the largest of them and returns its id. The
+    // other ids are freed afterwards by releaseMerged.
+    private int merge(int size) {
+        mergeCounter.increment();
+        componentChanges++;
+        sccs = null;
+        int keeper = queue[0];
+        for (int k = 1; k < size; k++) {
+            if (memberCount[queue[k]] > memberCount[keeper]) {
+                keeper = queue[k];
+            }
+        }
+
+        // Edges leaving the cycle become keeper's; the neighbours' rows drop their
+        // entries for cycle components, handing the outgoing ones over as well.
+        touchEpoch++;
+        int touchedCount = 0;
+        for (int k = 0; k < size; k++) {
+            int c = queue[k];
+            int[] row = condOut[c];
+            for (int i = 0; i < condOutSize[c]; i++) {
+                int t = row[STRIDE * i];
+                if (!inCycle(t)) {
+                    addPending(keeper, t, row[STRIDE * i + 1], row[STRIDE * i + 2], row[STRIDE * i + 3]);
+                    if (touchMark[t] != touchEpoch) {
+                        touchMark[t] = touchEpoch;
+                        touched[touchedCount++] = t;
+                    }
+                }
+            }
+            for (int i = 0; i < condInSize[c]; i++) {
+                int s = condIn[c][i];
+                if (!inCycle(s) && touchMark[s] != touchEpoch) {
+                    touchMark[s] = touchEpoch;
+                    touched[touchedCount++] = s;
+                }
+            }
+        }
+        for (int k = 0; k < touchedCount; k++) {
+            dropCycleEntries(touched[k], keeper);
+        }
+        for (int k = 0; k < size; k++) {
+            int c = queue[k];
+            clearRows(c);
+            if (c != keeper) {
+                for (int i = 0; i < memberCount[c]; i++) {
+                    int x = members[c][i];
+                    comp[x] = keeper;
+                    addMember(keeper, x);
+                }
+            }
+        }
+        attachPending();
+        return keeper;
+    }
+
+
+    private void dropCycleEntries(int c, int keeper) {
+        int[] row = condOut[c];
+        int n = 0;
+        for (int i = 0; i < condOutSize[c]; i++) {
+            if (inCycle(row[STRIDE * i])) {
+                addPending(c, keeper, row[STRIDE * i + 1], row[STRIDE * i + 2], row[STRIDE * i + 3]);
+            } else {
+                System.arraycopy(row, STRIDE * i, row, STRIDE * n++, STRIDE);
+            }
+        }
+        condOutSize[c] = n;
+
+        row = condIn[c];
+        n = 0;
+        for (int i = 0; i < condInSize[c]; i++) {
+            if (!inCycle(row[i])) {
+                row[n++] = row[i];
+            }
+        }
+        condInSize[c] = n;
+    }
+
+
+    // Frees the merged-away ids of queue[0 .. size), highest first, refilling each
+    // with the current highest id so ids stay dense.
+    private void releaseMerged(int size, int keeper) {
+        int n = 0;
+        for (int k = 0; k < size; k++) {
+            if (queue[k] != keeper) {
+                queue[n++] = queue[k];
+            }
+        }
+        Arrays.sort(queue, 0, n);
+        for (int k = n - 1; k >= 0; k--) {
+            int c = queue[k];
+            members[c] = null;
+            memberCount[c] = 0;
+            int last = --liveCount;
+            if (c != last) {
+                moveId(last, c);
+            }
+        }
+    }
+
+
+    // Renames component from to the free id to; only its members and the rows of
+    // its neighbours are touched.
+    private void moveId(int from, int to) {
+        members[to] = members[from];
+        memberCount[to] = memberCount[from];
+        members[from] = null;
+        memberCount[from] = 0;
+        for (int i = 0; i < memberCount[to]; i++) {
+            comp[members[to][i]] = to;
+        }
+        condOut[to] = condOut[from];
+        condOutSize[to] = condOutSize[from];
+        condIn[to] = condIn[from];
+        condInSize[to] = condInSize[from];
+        clearRows(from);
+        place(to, ord[from]);
+
+        for (int i = 0; i < condOutSize[to]; i++) {
+            int t = condOut[to][STRIDE * i];
+            removeIn(t, from);
+            insertIn(t, to);
+        }
+        for (int i = 0; i < condInSize[to]; i++) {
+            int s = condIn[to][i];
+            int[] row = condOut[s];
+            int at = findOut(s, from);
+            int count = row[STRIDE * at + 1];
+            int min = row[STRIDE * at + 2];
+            int max = row[STRIDE * at + 3];
+            removeOut(s, at);
+            insertOut(s, -findOut(s, to) - 1, to, count, min, max);
+        }
+    }
+
+
+    private void addMember(int c, int x) {
+        if (memberCount[c] == members[c].length) {
+            members[c] = Arrays.copyOf(members[c], memberCount[c] * 2 + 1);
+        }
+        members[c][memberCount[c]++] = x;
+    }
+
+
+    private void addPending(int from, int to, int count, int min, int max) {
+        if (pendingSize == pendingFrom.length) {
+            int capacity = pendingSize * 2;
+            pendingFrom = Arrays.copyOf(pendingFrom, capacity);
+            pendingTo = Arrays.copyOf(pendingTo, capacity);
+            pendingCount = Arrays.copyOf(pendingCount, capacity);
+            pendingMin = Arrays.copyOf(pendingMin, capacity);
+            pendingMax = Arrays.copyOf(pendingMax, capacity);
+        }
+        pendingFrom[pendingSize] = from;
+        pendingTo[pendingSize] = to;
+        pendingCount[pendingSize] = count;
+        pendingMin[pendingSize] = min;
+        pendingMax[pendingSize] = max;
+        pendingSize++;
+    }
+
+
+    // Sorts the pending cross edges by (from, to), folds parallel ones and merges
+    // them into the rows at both ends, which must hold no stale entries for them.
+    private void attachPending() {
+        int n = pendingSize;
+        pendingSize = 0;
+        if (n == 0) {
+            return;
+        }
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (long) pendingFrom[i] << 32 | pendingTo[i];
+        }
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m == 0 || sorted[m - 1] != sorted[i]) {
+                sorted[m++] = sorted[i];
+            }
+        }
+        int[] count = new int[m];
+        int[] min = new int[m];
+        int[] max = new int[m];
+        Arrays.fill(min, Integer.MAX_VALUE);
+        Arrays.fill(max, Integer.MIN_VALUE);
+        for (int i = 0; i < n; i++) {
+            int j = Arrays.binarySearch(sorted, 0, m, keys[i]);
+            count[j] += pendingCount[i];
+            min[j] = Math.min(min[j], pendingMin[i]);
+            max[j] = Math.max(max[j], pendingMax[i]);
+        }
+
+        long[] byTarget = new long[m];
+        for (int lo = 0; lo < m; ) {
+            int from = (int) (sorted[lo] >>> 32);
+            int hi = lo;
+            while (hi < m && (int) (sorted[hi] >>> 32) == from) {
+                byTarget[hi] = sorted[hi] << 32 | from;
+                hi++;
+            }
+            mergeOut(from, sorted, count, min, max, lo, hi);
+            lo = hi;
+        }
+        Arrays.sort(byTarget);
+        for (int lo = 0; lo < m; ) {
+            int to = (int) (byTarget[lo] >>> 32);
+            int hi = lo;
+            while (hi < m && (int) (byTarget[hi] >>> 32) == to) {
+                hi++;
+            }
+            mergeIn(to, byTarget, lo, hi);
+            lo = hi;
+        }
+    }
+
+
+    private void mergeOut(int c, long[] keys, int[] count, int[] min, int[] max, int lo, int hi) {
+        int[] old = condOut[c];
+        int oldSize = condOutSize[c];
+        int[] row = new int[STRIDE * (oldSize + hi - lo)];
+        int i = 0;
+        int j = lo;
+        int n = 0;
+        while (i < oldSize || j < hi) {
+            int t = j < hi ? (int) keys[j] : Integer.MAX_VALUE;
+            if (i < oldSize && old[STRIDE * i] <= t) {
+                System.arraycopy(old, STRIDE * i, row, STRIDE * n, STRIDE);
+                if (old[STRIDE * i] == t) {
+                    row[STRIDE * n + 1] += count[j];
+                    row[STRIDE * n + 2] = Math.min(row[STRIDE * n + 2], min[j]);
+                    row[STRIDE * n + 3] = Math.max(row[STRIDE * n + 3], max[j]);
+                    j++;
+                }
+                i++;
+            } else {
+                row[STRIDE * n] = t;
+                row[STRIDE * n + 1] = count[j];
+                row[STRIDE * n + 2] = min[j];
+                row[STRIDE * n + 3] = max[j];
+                j++;
+            }
+            n++;
+        }
+        condOut[c] = row;
+        condOutSize[c] = n;
+    }
+
+
+    private void mergeIn(int c, long[] keys, int lo, int hi) {
+        int[] old = condIn[c];
+        int oldSize = condInSize[c];
+        int[] row = new int[oldSize + hi - lo];
+        int i = 0;
+        int j = lo;
+        int n = 0;
+        while (i < oldSize || j < hi) {
+            int s = j < hi ? (int) keys[j] : Integer.MAX_VALUE;
+            if (i < oldSize && old[i] <= s) {
+                if (old[i] == s) {
+                    j++;
+                }
+                row[n++] = old[i++];
+            } else {
+                row[n++] = s;
+                j++;
+            }
+        }
+        condIn[c] = row;
+        condInSize[c] = n;
+    }
+
+
+    // Removing u -> v leaves the component strongly connected iff u still reaches v.
+    private boolean reachesWithin(int u, int v, int c) {
+        epoch++;
+        int head = 0;
+        int tail = 0;
+        nodeMark[u] = epoch;
+        queue[tail++] = u;
+        boolean found = u == v;
+        while (head < tail && !found) {
+            int x = queue[head++];
+            for (int i = 0; i < outDegree[x]; i++) {
+                int y = out[x][i];
+                if (comp[y] == c && nodeMark[y] != epoch) {
+                    if (y == v) {
+                        found = true;
+                        break;
+                    }
+                    nodeMark[y] = epoch;
+                    queue[tail++] = y;
+                }
+            }
+        }
+        visitCounter.add(tail);
+        return found;
+    }
+
+
+    private void split(int c) {
+        splitCounter.increment();
+        componentChanges++;
+        sccs = null;
+        List<int[]> pieces = decompose(c);
+        visitCounter.add(memberCount[c]);
+
+        for (int i = 0; i < condOutSize[c]; i++) {
+            removeIn(condOut[c][STRIDE * i], c);
+        }
+        for (int i = 0; i < condInSize[c]; i++) {
+            int s = condIn[c][i];
+            removeOut(s, findOut(s, c));
+        }
+        clearRows(c);
+
+        // The largest piece keeps the id, so only the smaller ones are relabelled.
+        // Tarjan finishes pieces sinks first, so ids[] is filled in reverse to get
+        // a topological order.
+        int largest = 0;
+        for (int k = 1; k < pieces.size(); k++) {
+            if (pieces.get(k).length > pieces.get(largest).length) {
+                largest = k;
+            }
+        }
+        epoch++;
+        int p = pieces.size();
+        int[] ids = new int[p];
+        for (int k = 0; k < p; k++) {
+            int[] piece = pieces.get(k);
+            int id = k == largest ? c : liveCount++;
+            ids[p - 1 - k] = id;
+            members[id] = piece;
+            memberCount[id] = piece.length;
+            forwardMark[id] = epoch;
+            for (int x : piece) {
+                comp[x] = id;
+            }
+        }
+
+        for (int id : ids) {
+            for (int k = 0; k < memberCount[id]; k++) {
+                int x = members[id][k];
+                for (int i = 0; i < outDegree[x]; i++) {
+                    int cy = comp[out[x][i]];
+                    if (cy != id) {
+                        addPending(id, cy, 1, outWeights[x][i], outWeights[x][i]);
+                    }
+                }
+                for (int i = 0; i < inDegree[x]; i++) {
+                    int cy = comp[in[x][i]];
+                    if (forwardMark[cy] != epoch) {
+                        addPending(cy, id, 1, inWeights[x][i], inWeights[x][i]);
+                    }
+                }
+            }
+        }
+        attachPending();
+        placePieces(c, ids);
+    }
+
+
+    // The pieces need consecutive positions where c was. The nearest empty
+    // positions are found around it (right first) and the components between are
+    // shifted over them, keeping their order.
+    private void placePieces(int c, int[] ids) {
+        int at = ord[c];
+        int need = ids.length - 1;
+        int right = at;
+        int holes = 0;
+        while (holes < need && right + 1 < V) {
+            right++;
+            if (nodeAt[right] < 0) {
+                holes++;
+            }
+        }
+        int left = at;
+        while (holes < need) {
+            left--;
+            if (nodeAt[left] < 0) {
+                holes++;
+            }
+        }
+        int before = 0;
+        for (int p = left; p < at; p++) {
+            if (nodeAt[p] >= 0) {
+                forward[before++] = nodeAt[p];
+            }
+        }
+        int after = 0;
+        for (int p = at + 1; p <= right; p++) {
+            if (nodeAt[p] >= 0) {
+                backward[after++] = nodeAt[p];
+            }
+        }
+        int p = left;
+        for (int i = 0; i < before; i++) {
+            place(forward[i], p++);
+        }
+        for (int id : ids) {
+            place(id, p++);
+        }
+        for (int i = 0; i < after; i++) {
+            place(backward[i], p++);
+        }
+        reorderCounter.add(right - left + 1);
+    }
+
+
+    // Iterative Tarjan restricted to the members of component c.
+    private List<int[]> decompose(int c) {
+        if (dfsIndex == null) {
+            dfsIndex = new int[V];
+            dfsLow = new int[V];
+            dfsCursor = new int[V];
+            callStack = new int[V];
+            sccStack = new int[V];
+            onStack = new boolean[V];
+        }
+        for (int i = 0; i < memberCount[c]; i++) {
+            dfsIndex[members[c][i]] = -1;
+        }
+
+        List<int[]> pieces = new ArrayList<>();
+        int counter = 0;
+        int sccTop = 0;
+        for (int r = 0; r < memberCount[c]; r++) {
+            int root = members[c][r];
+            if (dfsIndex[root] != -1) {
+                continue;
+            }
+            int callTop = 0;
+            dfsIndex[root] = dfsLow[root] = counter++;
+            dfsCursor[root] = 0;
+            onStack[root] = true;
+            sccStack[sccTop++] = root;
+            callStack[callTop++] = root;
+            while (callTop > 0) {
+                int x = callStack[callTop - 1];
+                if (dfsCursor[x] < outDegree[x]) {
+                    int y = out[x][dfsCursor[x]++];
+                    if (comp[y] != c) {
+                        continue;
+                    }
+                    if (dfsIndex[y] == -1) {
+                        dfsIndex[y] = dfsLow[y] = counter++;
+                        dfsCursor[y] = 0;
+                        onStack[y] = true;
+                        sccStack[sccTop++] = y;
+                        callStack[callTop++] = y;
+                    } else if (onStack[y]) {
+                        dfsLow[x] = Math.min(dfsLow[x], dfsIndex[y]);
+                    }
+                } else {
+                    callTop--;
+                    if (callTop > 0) {
+                        int parent = callStack[callTop - 1];
+                        dfsLow[parent] = Math.min(dfsLow[parent], dfsLow[x]);
+                    }
+                    if (dfsLow[x] == dfsIndex[x]) {
+                        int start = sccTop;
+                        do {
+                            start--;
+                            onStack[sccStack[start]] = false;
+                        } while (sccStack[start] != x);
+                        pieces.add(Arrays.copyOfRange(sccStack, start, sccTop));
+                        sccTop = start;
+                    }
+                }
+            }
+        }
+        return pieces;
+    }
+
+
+    private void refreshWeights(int cu, int cv, int slot) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int k = 0; k < memberCount[cu]; k++) {
+            int x = members[cu][k];
+            for (int i = 0; i < outDegree[x]; i++) {
+                if (comp[out[x][i]] == cv) {
+                    min = Math.min(min, outWeights[x][i]);
+                    max = Math.max(max, outWeights[x][i]);
+                }
+            }
+        }
+        condOut[cu][STRIDE * slot + 2] = min;
+        condOut[cu][STRIDE * slot + 3] = max;
+    }
+
+
+    // Lays the rows out as a CSR; they are already sorted, so this is a copy.
+    private CsrGraph condensation() {
+        checkRun();
+        if (condensation == null) {
+            int[] offsets = new int[liveCount + 1];
+            for (int c = 0; c < liveCount; c++) {
+                offsets[c + 1] = offsets[c] + condOutSize[c];
+            }
+            int E = offsets[liveCount];
+            int[] targets = new int[E];
+            int[] minWeights = new int[E];
+            int[] maxWeights = new int[E];
+            for (int c = 0; c < liveCount; c++) {
+                int[] row = condOut[c];
+                for (int i = 0, e = offsets[c]; i < condOutSize[c]; i++, e++) {
+                    targets[e] = row[STRIDE * i];
+                    minWeights[e] = row[STRIDE * i + 2];
+                    maxWeights[e] = row[STRIDE * i + 3];
+                }
+            }
+            condensation = new CsrGraph(liveCount, offsets, targets, minWeights, minWeights, maxWeights);
+        }
+        return condensation;
+    }
+
+
+    @Override
+    public List<List<Integer>> getSccs() {
+        checkRun();
+        if (sccs == null) {
+            sccs = new ArrayList<>(liveCount);
+            for (int c = 0; c < liveCount; c++) {
+                sccs.add(new ArrayList<>());
+            }
+            for (int u = 0; u < V; u++) {
+                sccs.get(comp[u]).add(u);
+            }
+        }
+        return sccs;
+    }
+
+
+    @Override
+    public int getSccId(int nodeId) {
+        checkRun();
+        return comp[nodeId];
+    }
+
+
+    @Override
+    public int getSccCount() {
+        checkRun();
+        return liveCount;
+    }
+
+
+    @Override
+    public CsrGraph getCondensationCsr() {
+        return condensation();
+    }
+
+
+    @Override
+    public Graph getCondensationGraph() {
+        CsrGraph c = condensation();
+        if (condensationGraph == null) {
+            condensationGraph = c.toGraph();
+        }
+        return condensationGraph;
+    }
+}
@@ -1,36 +1,45 @@
 package org.example.graph.scc;
 
+import org.example.graph.CsrGraph;
 import org.example.graph.Graph;
-import org.example.graph.Edge;
 import org.example.Metrics;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Stack;
 
 
-public class KosarajuSCC {
-    private Graph g;
-    private Metrics metrics;
+public class KosarajuSCC extends AbstractSccEngine {
     private boolean[] visited;
-    private int[] sccMap;
-    private List<List<Integer>> sccs;
-    private Stack<Integer> finishStack;
-    private int sccCount;
-    private Graph condensationGraph;
+
+    // Shared DFS scratch: explicit node stack plus the next edge index per node.
+    private int[] stack;
+    private int[] cursor;
+    private int[] finishOrder;
+    private int finishCount;
+    private final Metrics.Counter dfs1Visits;
+    private final Metrics.Counter dfs1Edges;
+    private final Metrics.Counter dfs2Visits;
+    private final Metrics.Counter dfs2Edges;
 
 
     public KosarajuSCC(Graph g, Metrics metrics) {
-        this.g = g;
-        this.metrics = metrics;
+        this(g.toCsr(), metrics);
+    }
+
+
+    public KosarajuSCC(CsrGraph g, Metrics metrics) {
+        super(g, metrics);
         this.visited = new boolean[g.V];
-        this.sccMap = new int[g.V];
-        this.finishStack = new Stack<>();
-        this.sccs = new ArrayList<>();
+        this.stack = new int[g.V];
+        this.cursor = new int[g.V];
+        this.finishOrder = new int[g.V];
+        this.dfs1Visits = metrics.counter("scc.dfs1.visits");
+        this.dfs1Edges = metrics.counter("scc.dfs1.edges");
+        this.dfs2Visits = metrics.counter("scc.dfs2.visits");
+        this.dfs2Edges = metrics.counter("scc.dfs2.edges");
     }
 
 
+    @Override
     public void run() {
         for (int i = 0; i < g.V; i++) {
             if (!visited[i]) {
@@ -38,78 +47,77 @@ public class KosarajuSCC {
             }
         }
 
-        Graph gT = g.getTranspose();
+        CsrGraph gT = g.transpose();
 
         Arrays.fill(visited, false);
         sccCount = 0;
-        while (!finishStack.isEmpty()) {
-            int u = finishStack.pop();
+        for (int f = finishCount - 1; f >= 0; f--) {
+            int u = finishOrder[f];
             if (!visited[u]) {
-                List<Integer> currentScc = new ArrayList<>();
-                dfs2(gT, u, currentScc);
-                sccs.add(currentScc);
+                dfs2(gT, u);
                 sccCount++;
             }
         }
 
-        buildCondensationGraph();
-    }
-
-
-    private void dfs1(int u) {
-        metrics.increment("scc.dfs1.visits");
-        visited[u] = true;
-        for (Edge e : g.adj.get(u)) {
-            metrics.increment("scc.dfs1.edges");
-            if (!visited[e.to]) {
-                dfs1(e.to);
-            }
-        }
-        finishStack.push(u);
+        finish();
     }
 
 
-    private void dfs2(Graph gT, int u, List<Integer> currentScc) {
-        metrics.increment("scc.dfs2.visits");
-        visited[u] = true;
-        currentScc.add(u);
-        sccMap[u] = sccCount;
-        for (Edge e : gT.adj.get(u)) {
-            metrics.increment("scc.dfs2.edges");
-            if (!visited[e.to]) {
-                dfs2(gT, e.to, currentScc);
+    private void dfs1(int root) {
+        int top = 0;
+        stack[top++] = root;
+        cursor[root] = g.offsets[root];
+        visited[root] = true;
+        long visits = 1;
+        long edges = 0;
+
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (cursor[u] < g.offsets[u + 1]) {
+                int v = g.targets[cursor[u]++];
+                edges++;
+                if (!visited[v]) {
+                    visited[v] = true;
+                    visits++;
+                    cursor[v] = g.offsets[v];
+                    stack[top++] = v;
+                }
+            } else {
+                top--;
+                finishOrder[finishCount++] = u;
             }
         }
+        dfs1Visits.add(visits);
+        dfs1Edges.add(edges);
     }
 
 
-    private void buildCondensationGraph() {
-        condensationGraph = new Graph(sccCount);
-        for (int u = 0; u < g.V; u++) {
-            for (Edge e : g.adj.get(u)) {
-                int v = e.to;
-                int sccU = sccMap[u];
-                int sccV = sccMap[v];
-                if (sccU != sccV) {
-                    condensationGraph.addCondensationEdge(sccU, sccV, e.weight);
+    private void dfs2(CsrGraph gT, int root) {
+        int top = 0;
+        stack[top++] = root;
+        cursor[root] = gT.offsets[root];
+        visited[root] = true;
+        sccMap[root] = sccCount;
+        long visits = 1;
+        long edges = 0;
+
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (cursor[u] < gT.offsets[u + 1]) {
+                int v = gT.targets[cursor[u]++];
+                edges++;
+                if (!visited[v]) {
+                    visited[v] = true;
+                    sccMap[v] = sccCount;
+                    visits++;
+                    cursor[v] = gT.offsets[v];
+                    stack[top++] = v;
                 }
+            } else {
+                top--;
             }
         }
-    }
-
-
-    public List<List<Integer>> getSccs() { 
-        return sccs; 
-    }
-
-
-    public Graph getCondensationGraph() { 
-        return condensationGraph; 
-    }
-
-
-    public int getSccId(int nodeId) { 
-        return sccMap[nodeId]; 
+        dfs2Visits.add(visits);
+        dfs2Edges.add(edges);
     }
 }
-
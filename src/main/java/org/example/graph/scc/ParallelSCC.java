@@ -0,0 +1,325 @@
+package org.example.graph.scc;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.example.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+
+// Trim + forward-backward SCC decomposition on a ForkJoinPool.
+// Trim peels off nodes with no live in- or out-edges (singleton SCCs) frontier
+// by frontier; FW-BW then splits the remaining nodes around a pivot into
+// FW & BW (one SCC), FW - BW, BW - FW and the rest, recursing on each part in parallel.
+public class ParallelSCC extends AbstractSccEngine {
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    private static final int DONE = -1;
+
+    private final int parallelism;
+    private CsrGraph gT;
+    private int[] color;
+    private int[] forwardMark;
+    private int[] backwardMark;
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+    private final AtomicInteger nextLabel = new AtomicInteger();
+    private final AtomicInteger pivots = new AtomicInteger();
+
+
+    public ParallelSCC(Graph g, Metrics metrics) {
+        this(g.toCsr(), metrics);
+    }
+
+
+    public ParallelSCC(CsrGraph g, Metrics metrics) {
+        this(g, metrics, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    public ParallelSCC(CsrGraph g, Metrics metrics, int parallelism) {
+        super(g, metrics);
+        this.parallelism = parallelism;
+    }
+
+
+    @Override
+    public void run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            gT = g.transpose();
+            color = new int[g.V];
+            forwardMark = new int[g.V];
+            backwardMark = new int[g.V];
+            Arrays.fill(sccMap, DONE);
+
+            int trimmed = trim(pool);
+            int[] remaining = pool.submit(() -> IntStream.range(0, g.V)
+                    .parallel()
+                    .filter(u -> color[u] != DONE)
+                    .toArray()).get();
+            int root = nextColor.getAndIncrement();
+            for (int u : remaining) {
+                color[u] = root;
+            }
+            if (remaining.length > 0) {
+                pool.invoke(new ForwardBackwardTask(remaining, root));
+            }
+
+            // Trimmed nodes are singleton SCCs; give them labels after the FW-BW ones.
+            int label = nextLabel.get();
+            for (int u = 0; u < g.V; u++) {
+                if (sccMap[u] == DONE) {
+                    sccMap[u] = label++;
+                }
+            }
+            sccCount = label;
+
+            metrics.increment("scc.parallel.trimmed", trimmed);
+            metrics.increment("scc.parallel.pivots", pivots.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel SCC decomposition interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Parallel SCC decomposition failed", e);
+        } finally {
+            pool.shutdown();
+        }
+
+        gT = null;
+        color = null;
+        forwardMark = null;
+        backwardMark = null;
+        finish();
+    }
+
+
+    private int trim(ForkJoinPool pool) throws Exception {
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(g.V);
+        AtomicIntegerArray outDegree = new AtomicIntegerArray(g.V);
+        AtomicIntegerArray claimed = new AtomicIntegerArray(g.V);
+        pool.submit(() -> IntStream.range(0, g.V).parallel().forEach(u -> {
+            int out = 0;
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                if (g.targets[i] != u) {
+                    out++;
+                }
+            }
+            int in = 0;
+            for (int i = gT.offsets[u]; i < gT.offsets[u + 1]; i++) {
+                if (gT.targets[i] != u) {
+                    in++;
+                }
+            }
+            outDegree.set(u, out);
+            inDegree.set(u, in);
+        })).get();
+
+        int[] frontier = pool.submit(() -> IntStream.range(0, g.V)
+                .parallel()
+                .filter(u -> (inDegree.get(u) == 0 || outDegree.get(u) == 0) && claimed.compareAndSet(u, 0, 1))
+                .toArray()).get();
+
+        int trimmed = 0;
+        while (frontier.length > 0) {
+            trimmed += frontier.length;
+            for (int u : frontier) {
+                color[u] = DONE;
+            }
+            frontier = expandFrontier(pool, frontier, inDegree, outDegree, claimed);
+        }
+        return trimmed;
+    }
+
+
+    private int[] expandFrontier(ForkJoinPool pool, int[] frontier, AtomicIntegerArray inDegree,
+                                 AtomicIntegerArray outDegree, AtomicIntegerArray claimed) throws Exception {
+        if (frontier.length < SEQUENTIAL_THRESHOLD) {
+            return peel(frontier, 0, frontier.length, inDegree, outDegree, claimed);
+        }
+        int chunks = parallelism * 4;
+        int chunkSize = (frontier.length + chunks - 1) / chunks;
+        List<Callable<int[]>> jobs = new ArrayList<>();
+        for (int from = 0; from < frontier.length; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, frontier.length);
+            jobs.add(() -> peel(frontier, start, end, inDegree, outDegree, claimed));
+        }
+        List<int[]> parts = new ArrayList<>();
+        int total = 0;
+        for (Future<int[]> part : pool.invokeAll(jobs)) {
+            parts.add(part.get());
+            total += parts.get(parts.size() - 1).length;
+        }
+        int[] next = new int[total];
+        int at = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, next, at, part.length);
+            at += part.length;
+        }
+        return next;
+    }
+
+
+    private int[] peel(int[] frontier, int from, int to, AtomicIntegerArray inDegree,
+                       AtomicIntegerArray outDegree, AtomicIntegerArray claimed) {
+        int[] next = new int[16];
+        int size = 0;
+        for (int f = from; f < to; f++) {
+            int u = frontier[f];
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                if (v != u && inDegree.decrementAndGet(v) == 0 && claimed.compareAndSet(v, 0, 1)) {
+                    if (size == next.length) {
+                        next = Arrays.copyOf(next, size * 2);
+                    }
+                    next[size++] = v;
+                }
+            }
+            for (int i = gT.offsets[u]; i < gT.offsets[u + 1]; i++) {
+                int w = gT.targets[i];
+                if (w != u && outDegree.decrementAndGet(w) == 0 && claimed.compareAndSet(w, 0, 1)) {
+                    if (size == next.length) {
+                        next = Arrays.copyOf(next, size * 2);
+                    }
+                    next[size++] = w;
+                }
+            }
+        }
+        return Arrays.copyOf(next, size);
+    }
+
+
+    // Each subproblem owns a fresh color, so tasks only ever write nodes of their
+    // own color and can read neighbours' colors without synchronisation.
+    private class ForwardBackwardTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodes;
+        private final int nodeColor;
+
+
+        ForwardBackwardTask(int[] nodes, int nodeColor) {
+            this.nodes = nodes;
+            this.nodeColor = nodeColor;
+        }
+
+
+        @Override
+        protected void compute() {
+            List<ForwardBackwardTask> forked = new ArrayList<>();
+            ArrayDeque<int[]> work = new ArrayDeque<>();
+            ArrayDeque<Integer> workColors = new ArrayDeque<>();
+            work.push(nodes);
+            workColors.push(nodeColor);
+
+            int[] queue = new int[Math.min(nodes.length, SEQUENTIAL_THRESHOLD)];
+            while (!work.isEmpty()) {
+                int[] part = work.pop();
+                int partColor = workColors.pop();
+                if (queue.length < part.length) {
+                    queue = new int[part.length];
+                }
+                for (int[] child : split(part, partColor, queue)) {
+                    int childColor = color[child[0]];
+                    if (child.length >= SEQUENTIAL_THRESHOLD) {
+                        ForwardBackwardTask task = new ForwardBackwardTask(child, childColor);
+                        task.fork();
+                        forked.add(task);
+                    } else {
+                        work.push(child);
+                        workColors.push(childColor);
+                    }
+                }
+            }
+            for (ForwardBackwardTask task : forked) {
+                task.join();
+            }
+        }
+    }
+
+
+    private List<int[]> split(int[] part, int partColor, int[] queue) {
+        pivots.incrementAndGet();
+        int pivot = part[(int) Long.remainderUnsigned(mix(partColor), part.length)];
+        search(g, pivot, partColor, forwardMark, queue);
+        search(gT, pivot, partColor, backwardMark, queue);
+
+        int label = nextLabel.getAndIncrement();
+        int forwardOnly = 0;
+        int backwardOnly = 0;
+        int rest = 0;
+        for (int u : part) {
+            boolean forward = forwardMark[u] == partColor;
+            boolean backward = backwardMark[u] == partColor;
+            if (forward && backward) {
+                sccMap[u] = label;
+            } else if (forward) {
+                forwardOnly++;
+            } else if (backward) {
+                backwardOnly++;
+            } else {
+                rest++;
+            }
+        }
+
+        int[][] children = {new int[forwardOnly], new int[backwardOnly], new int[rest]};
+        int[] childColors = new int[3];
+        for (int k = 0; k < 3; k++) {
+            childColors[k] = children[k].length > 0 ? nextColor.getAndIncrement() : DONE;
+        }
+        int[] fill = new int[3];
+        for (int u : part) {
+            boolean forward = forwardMark[u] == partColor;
+            boolean backward = backwardMark[u] == partColor;
+            int k = forward ? (backward ? -1 : 0) : (backward ? 1 : 2);
+            if (k == -1) {
+                color[u] = DONE;
+            } else {
+                color[u] = childColors[k];
+                children[k][fill[k]++] = u;
+            }
+        }
+
+        List<int[]> result = new ArrayList<>(3);
+        for (int[] child : children) {
+            if (child.length > 0) {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+
+
+    private void search(CsrGraph graph, int pivot, int partColor, int[] mark, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        mark[pivot] = partColor;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+                int v = graph.targets[i];
+                if (color[v] == partColor && mark[v] != partColor) {
+                    mark[v] = partColor;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return x ^ (x >>> 33);
+    }
+}
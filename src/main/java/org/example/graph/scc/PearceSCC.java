@@ -0,0 +1,122 @@
+package org.example.graph.scc;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.example.Metrics;
+
+
+// Pearce's single-pass, memory-efficient variant of Tarjan's algorithm.
+// rindex doubles as the component label once a node is finished, so no
+// transpose, low-link array or on-stack flags are needed.
+public class PearceSCC extends AbstractSccEngine {
+    private int[] rindex;
+    private boolean[] root;
+    private int[] stack;
+    private int[] cursor;
+    private int[] component;
+    private int index;
+    private int c;
+    private final Metrics.Counter visits;
+    private final Metrics.Counter edges;
+
+
+    public PearceSCC(Graph g, Metrics metrics) {
+        this(g.toCsr(), metrics);
+    }
+
+
+    public PearceSCC(CsrGraph g, Metrics metrics) {
+        super(g, metrics);
+        this.rindex = sccMap;
+        this.root = new boolean[g.V];
+        this.stack = new int[g.V];
+        this.cursor = new int[g.V];
+        this.component = new int[g.V];
+        this.visits = metrics.counter("scc.pearce.visits");
+        this.edges = metrics.counter("scc.pearce.edges");
+    }
+
+
+    @Override
+    public void run() {
+        index = 1;
+        c = g.V - 1;
+        int componentTop = 0;
+        for (int i = 0; i < g.V; i++) {
+            if (rindex[i] == 0) {
+                componentTop = visit(i, componentTop);
+            }
+        }
+
+        // Components were labelled c+1 .. V-1 in completion order; shift to 0-based.
+        int lowest = c + 1;
+        sccCount = g.V - lowest;
+        for (int u = 0; u < g.V; u++) {
+            sccMap[u] = rindex[u] - lowest;
+        }
+
+        finish();
+    }
+
+
+    private int visit(int start, int componentTop) {
+        int top = 0;
+        long visitCount = 1;
+        long edgeCount = 0;
+        begin(start);
+        stack[top++] = start;
+
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (cursor[u] < g.offsets[u + 1]) {
+                int v = g.targets[cursor[u]++];
+                edgeCount++;
+                if (rindex[v] == 0) {
+                    visitCount++;
+                    begin(v);
+                    stack[top++] = v;
+                } else if (rindex[v] < rindex[u]) {
+                    rindex[u] = rindex[v];
+                    root[u] = false;
+                }
+            } else {
+                top--;
+                componentTop = complete(u, componentTop);
+                if (top > 0) {
+                    int parent = stack[top - 1];
+                    if (rindex[u] < rindex[parent]) {
+                        rindex[parent] = rindex[u];
+                        root[parent] = false;
+                    }
+                }
+            }
+        }
+        visits.add(visitCount);
+        edges.add(edgeCount);
+        return componentTop;
+    }
+
+
+    private void begin(int u) {
+        rindex[u] = index++;
+        root[u] = true;
+        cursor[u] = g.offsets[u];
+    }
+
+
+    private int complete(int u, int componentTop) {
+        if (!root[u]) {
+            component[componentTop++] = u;
+            return componentTop;
+        }
+        index--;
+        while (componentTop > 0 && rindex[u] <= rindex[component[componentTop - 1]]) {
+            int w = component[--componentTop];
+            rindex[w] = c;
+            index--;
+        }
+        rindex[u] = c;
+        c--;
+        return componentTop;
+    }
+}
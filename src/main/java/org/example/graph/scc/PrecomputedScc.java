@@ -0,0 +1,86 @@
+package org.example.graph.scc;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+// SccEngine view over results computed earlier (e.g. loaded from ResultCache);
+// run() has nothing left to do. The lazy views are built aside and published
+// whole, so a shared instance can be read from many threads.
+public class PrecomputedScc implements SccEngine {
+    private final int[] sccMap;
+    private final int sccCount;
+    private final CsrGraph condensation;
+    private volatile List<List<Integer>> sccs;
+    private volatile Graph condensationGraph;
+
+
+    public PrecomputedScc(int[] sccMap, int sccCount, CsrGraph condensation) {
+        this.sccMap = sccMap;
+        this.sccCount = sccCount;
+        this.condensation = condensation;
+    }
+
+
+    public static int[] sccMapOf(SccEngine engine, int V) {
+        int[] map = new int[V];
+        for (int u = 0; u < V; u++) {
+            map[u] = engine.getSccId(u);
+        }
+        return map;
+    }
+
+
+    @Override
+    public void run() {
+    }
+
+
+    @Override
+    public List<List<Integer>> getSccs() {
+        List<List<Integer>> result = sccs;
+        if (result == null) {
+            result = new ArrayList<>(sccCount);
+            for (int c = 0; c < sccCount; c++) {
+                result.add(new ArrayList<>());
+            }
+            for (int u = 0; u < sccMap.length; u++) {
+                result.get(sccMap[u]).add(u);
+            }
+            sccs = result;
+        }
+        return result;
+    }
+
+
+    @Override
+    public int getSccId(int nodeId) {
+        return sccMap[nodeId];
+    }
+
+
+    @Override
+    public int getSccCount() {
+        return sccCount;
+    }
+
+
+    @Override
+    public CsrGraph getCondensationCsr() {
+        return condensation;
+    }
+
+
+    @Override
+    public Graph getCondensationGraph() {
+        Graph result = condensationGraph;
+        if (result == null) {
+            result = condensation.toGraph();
+            condensationGraph = result;
+        }
+        return result;
+    }
+}
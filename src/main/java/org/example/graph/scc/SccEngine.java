@@ -0,0 +1,44 @@
+package org.example.graph.scc;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+
+import java.util.List;
+
+
+public interface SccEngine {
+
+    void run();
+
+
+    List<List<Integer>> getSccs();
+
+
+    int getSccId(int nodeId);
+
+
+    int getSccCount();
+
+
+    CsrGraph getCondensationCsr();
+
+
+    Graph getCondensationGraph();
+
+
+    static SccEngine create(String name, CsrGraph g, Metrics metrics) {
+        switch (name) {
+            case "kosaraju":
+                return new KosarajuSCC(g, metrics);
+            case "pearce":
+                return new PearceSCC(g, metrics);
+            case "parallel":
+                return new ParallelSCC(g, metrics);
+            case "dynamic":
+                return new DynamicSCC(g, metrics);
+            default:
+                throw new IllegalArgumentException("Unknown SCC engine: " + name);
+        }
+    }
+}
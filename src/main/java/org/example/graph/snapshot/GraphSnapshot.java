@@ -0,0 +1,47 @@
+package org.example.graph.snapshot;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.scc.PrecomputedScc;
+import org.example.graph.scc.SccEngine;
+
+
+// One published version of a VersionedGraph. Everything in it is built before
+// it is published and never written afterwards, so any number of threads can
+// query it without locks while newer versions are being built.
+public final class GraphSnapshot {
+    public final long version;
+    public final CsrGraph graph;
+    public final SccEngine scc;
+    public final CsrGraph condensation;
+    public final DAGPathFinder finder;
+    // Shared with later versions that keep the same components.
+    final int[] sccMap;
+
+
+    GraphSnapshot(long version, CsrGraph graph, int[] sccMap, int sccCount, CsrGraph condensation, int[] order,
+                  Metrics metrics) {
+        this.version = version;
+        this.graph = graph;
+        this.sccMap = sccMap;
+        this.scc = new PrecomputedScc(sccMap, sccCount, condensation);
+        this.condensation = condensation;
+        this.finder = new DAGPathFinder(condensation, order, metrics).prepareQueries();
+    }
+
+
+    public int sccOf(int node) {
+        return sccMap[node];
+    }
+
+
+    // Shortest or longest path between two original nodes, on the condensation.
+    // An empty path means "to" is not reachable from "from".
+    public DAGPathFinder.Path query(int from, int to, boolean findLongest) {
+        if (from < 0 || to < 0 || from >= graph.V || to >= graph.V) {
+            throw new IndexOutOfBoundsException("Query " + from + " -> " + to + " outside [0, " + graph.V + ")");
+        }
+        return finder.query(sccMap[from], sccMap[to], findLongest);
+    }
+}
@@ -0,0 +1,385 @@
+package org.example.graph.snapshot;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.CondensationBuilder;
+import org.example.graph.scc.DynamicSCC;
+import org.example.graph.scc.PrecomputedScc;
+import org.example.graph.topo.OnlineTopologicalOrder;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+// Copy-on-write versions of a graph for concurrent readers and one writer.
+// Readers call current() and query the GraphSnapshot they got back. That is one
+// volatile read with no lock, and the snapshot stays the same however long they
+// hold it. The writer applies an EdgeBatch to private state, builds the next
+// snapshot next to the published one, and swaps it in with a single set().
+// Queries in flight keep the old version; the GC frees it when the last one ends.
+//
+// The writer never re-runs SCC from scratch. DynamicSCC takes the batch and only
+// touches the components an edge affects, and the new CSR block-copies the rows
+// that did not change. What remains depends on the batch:
+//   - no component merged or split: the SCC ids of the previous version stay
+//     valid. New cross edges go into an OnlineTopologicalOrder of the
+//     condensation. If the batch only inserted, addCrossEdges patches them into
+//     the previous condensation, block-copying its unchanged rows without looking
+//     at the original graph. If it removed a cross edge, CondensationBuilder
+//     rebuilds the condensation from the new CSR in O(V + E), since that edge may
+//     have been the last one between its two components.
+//   - otherwise: the snapshot takes DynamicSCC's ids, which stay stable except for
+//     the merged and split components, with its topological order, and the
+//     online order is rebuilt from the new condensation.
+public class VersionedGraph {
+    private final Metrics metrics;
+    private final DynamicSCC scc;
+    private final AtomicReference<GraphSnapshot> current;
+    // Topological order of the published condensation, plus edges removed since
+    // (those only constrain it more than needed).
+    private OnlineTopologicalOrder order;
+    private final Metrics.Counter publishCounter;
+    private final Metrics.Counter renumberCounter;
+    private final Metrics.Counter addedCounter;
+    private final Metrics.Counter removedCounter;
+
+
+    // Edge insertions and deletions, applied in the order they were added.
+    public static class EdgeBatch {
+        int[] from = new int[16];
+        int[] to = new int[16];
+        int[] weight = new int[16];
+        boolean[] remove = new boolean[16];
+        int size;
+
+
+        public EdgeBatch add(int u, int v, int w) {
+            return append(u, v, w, false);
+        }
+
+
+        // Removes one u -> v edge of weight w; ignored if there is none.
+        public EdgeBatch remove(int u, int v, int w) {
+            return append(u, v, w, true);
+        }
+
+
+        public int size() {
+            return size;
+        }
+
+
+        private EdgeBatch append(int u, int v, int w, boolean isRemove) {
+            if (size == from.length) {
+                int capacity = size * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                remove = Arrays.copyOf(remove, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            remove[size] = isRemove;
+            size++;
+            return this;
+        }
+    }
+
+
+    public VersionedGraph(CsrGraph initial, Metrics metrics) {
+        this.metrics = metrics;
+        this.scc = new DynamicSCC(initial, metrics);
+        scc.run();
+        this.publishCounter = metrics.counter("snapshot.publishes");
+        this.renumberCounter = metrics.counter("snapshot.renumbered");
+        this.addedCounter = metrics.counter("snapshot.edges.added");
+        this.removedCounter = metrics.counter("snapshot.edges.removed");
+        this.current = new AtomicReference<>(renumbered(0, initial));
+    }
+
+
+    public GraphSnapshot current() {
+        return current.get();
+    }
+
+
+    // Applies the batch and publishes it as the next version, which is returned.
+    // Writers are serialized; readers are never blocked. A batch with an
+    // out-of-range node is rejected before anything changes.
+    public synchronized GraphSnapshot apply(EdgeBatch batch) {
+        GraphSnapshot previous = current.get();
+        CsrGraph g = previous.graph;
+        for (int i = 0; i < batch.size; i++) {
+            int u = batch.from[i];
+            int v = batch.to[i];
+            if (u < 0 || v < 0 || u >= g.V || v >= g.V) {
+                throw new IndexOutOfBoundsException("Edge " + u + " -> " + v + " outside [0, " + g.V + ")");
+            }
+        }
+
+        metrics.start("Publish");
+        // Deletions DynamicSCC did not find are dropped here, so the CSR merge
+        // below applies exactly the same changes.
+        boolean[] applied = new boolean[batch.size];
+        long added = 0;
+        long removed = 0;
+        long changes = scc.getComponentChanges();
+        boolean sameIds = true;
+        boolean crossRemoved = false;
+        int[] crossFrom = new int[batch.size];
+        int[] crossTo = new int[batch.size];
+        int[] crossWeight = new int[batch.size];
+        int crossCount = 0;
+        for (int i = 0; i < batch.size; i++) {
+            int u = batch.from[i];
+            int v = batch.to[i];
+            if (!batch.remove[i]) {
+                scc.addEdge(u, v, batch.weight[i]);
+                applied[i] = true;
+                added++;
+            } else if (scc.removeEdge(u, v, batch.weight[i])) {
+                applied[i] = true;
+                removed++;
+            }
+            if (sameIds && scc.getComponentChanges() != changes) {
+                sameIds = false;
+            }
+            int cu = previous.sccOf(u);
+            int cv = previous.sccOf(v);
+            if (!sameIds || !applied[i] || cu == cv) {
+                continue;
+            }
+            if (batch.remove[i]) {
+                crossRemoved = true;
+                continue;
+            }
+            // The online order may still hold a removed cross edge and reject
+            // a valid insertion as a cycle; renumbering clears that up.
+            if (!order.addEdge(cu, cv)) {
+                sameIds = false;
+                continue;
+            }
+            crossFrom[crossCount] = cu;
+            crossTo[crossCount] = cv;
+            crossWeight[crossCount] = batch.weight[i];
+            crossCount++;
+        }
+        CsrGraph merged = merge(g, batch, applied);
+        GraphSnapshot next;
+        if (sameIds) {
+            int sccCount = previous.condensation.V;
+            // A removed cross edge may or may not have been the last one between
+            // its two components, so only insertions are patched in.
+            CsrGraph condensation = crossRemoved
+                    ? CondensationBuilder.build(merged, previous.sccMap, sccCount)
+                    : addCrossEdges(previous.condensation, crossFrom, crossTo, crossWeight, crossCount);
+            next = new GraphSnapshot(previous.version + 1, merged, previous.sccMap, sccCount, condensation,
+                    order.order(), metrics);
+        } else {
+            next = renumbered(previous.version + 1, merged);
+        }
+        current.set(next);
+        metrics.stop("Publish");
+
+        publishCounter.increment();
+        addedCounter.add(added);
+        removedCounter.add(removed);
+        return next;
+    }
+
+
+    // Snapshot on DynamicSCC's current ids and topological order.
+    private GraphSnapshot renumbered(long version, CsrGraph g) {
+        CsrGraph condensation = scc.getCondensationCsr();
+        int[] sccMap = PrecomputedScc.sccMapOf(scc, g.V);
+        order = new OnlineTopologicalOrder(condensation, metrics);
+        renumberCounter.increment();
+        return new GraphSnapshot(version, g, sccMap, condensation.V, condensation, scc.topologicalOrder(), metrics);
+    }
+
+
+    // New CSR with the applied operations of the batch. Operations are grouped by
+    // source, keeping their order; each changed row is rebuilt and the unchanged
+    // runs between them are copied with one arraycopy each.
+    static CsrGraph merge(CsrGraph g, EdgeBatch batch, boolean[] applied) {
+        int V = g.V;
+        int[] opStart = new int[V + 1];
+        int delta = 0;
+        for (int i = 0; i < batch.size; i++) {
+            if (applied[i]) {
+                opStart[batch.from[i] + 1]++;
+                delta += batch.remove[i] ? -1 : 1;
+            }
+        }
+        for (int u = 0; u < V; u++) {
+            opStart[u + 1] += opStart[u];
+        }
+        int[] ops = new int[opStart[V]];
+        int[] cursor = Arrays.copyOf(opStart, V);
+        for (int i = 0; i < batch.size; i++) {
+            if (applied[i]) {
+                ops[cursor[batch.from[i]]++] = i;
+            }
+        }
+
+        int E = g.E + delta;
+        int[] offsets = new int[V + 1];
+        int[] targets = new int[E];
+        int[] weights = new int[E];
+        int[] rowTargets = new int[16];
+        int[] rowWeights = new int[16];
+        int copyFrom = 0;
+        int out = 0;
+        for (int u = 0; u < V; u++) {
+            if (opStart[u] == opStart[u + 1]) {
+                continue;
+            }
+            // Block-copy the unchanged rows [copyFrom, u).
+            int length = g.offsets[u] - g.offsets[copyFrom];
+            System.arraycopy(g.targets, g.offsets[copyFrom], targets, out, length);
+            System.arraycopy(g.weights, g.offsets[copyFrom], weights, out, length);
+            int shift = out - g.offsets[copyFrom];
+            for (int w = copyFrom; w < u; w++) {
+                offsets[w] = g.offsets[w] + shift;
+            }
+            out += length;
+
+            int degree = g.outDegree(u);
+            int capacity = degree + opStart[u + 1] - opStart[u];
+            if (capacity > rowTargets.length) {
+                rowTargets = new int[capacity];
+                rowWeights = new int[capacity];
+            }
+            System.arraycopy(g.targets, g.offsets[u], rowTargets, 0, degree);
+            System.arraycopy(g.weights, g.offsets[u], rowWeights, 0, degree);
+            for (int k = opStart[u]; k < opStart[u + 1]; k++) {
+                int op = ops[k];
+                if (!batch.remove[op]) {
+                    rowTargets[degree] = batch.to[op];
+                    rowWeights[degree] = batch.weight[op];
+                    degree++;
+                    continue;
+                }
+                int j = 0;
+                while (rowTargets[j] != batch.to[op] || rowWeights[j] != batch.weight[op]) {
+                    j++;
+                }
+                degree--;
+                System.arraycopy(rowTargets, j + 1, rowTargets, j, degree - j);
+                System.arraycopy(rowWeights, j + 1, rowWeights, j, degree - j);
+            }
+            offsets[u] = out;
+            System.arraycopy(rowTargets, 0, targets, out, degree);
+            System.arraycopy(rowWeights, 0, weights, out, degree);
+            out += degree;
+            copyFrom = u + 1;
+        }
+        int length = g.offsets[V] - g.offsets[copyFrom];
+        System.arraycopy(g.targets, g.offsets[copyFrom], targets, out, length);
+        System.arraycopy(g.weights, g.offsets[copyFrom], weights, out, length);
+        int shift = out - g.offsets[copyFrom];
+        for (int w = copyFrom; w <= V; w++) {
+            offsets[w] = g.offsets[w] + shift;
+        }
+        return new CsrGraph(V, offsets, targets, weights);
+    }
+
+
+    // Condensation c plus the given cross edges, folded into the min/max weights
+    // of an existing edge between the same components where there is one. Rows
+    // without new edges are block-copied; rows with new ones stay sorted by target.
+    static CsrGraph addCrossEdges(CsrGraph c, int[] from, int[] to, int[] weight, int count) {
+        int C = c.V;
+        int[] opStart = new int[C + 1];
+        for (int i = 0; i < count; i++) {
+            opStart[from[i] + 1]++;
+        }
+        for (int k = 0; k < C; k++) {
+            opStart[k + 1] += opStart[k];
+        }
+        int[] ops = new int[count];
+        int[] cursor = Arrays.copyOf(opStart, C);
+        for (int i = 0; i < count; i++) {
+            ops[cursor[from[i]]++] = i;
+        }
+
+        int[] offsets = new int[C + 1];
+        int[] targets = new int[c.E + count];
+        int[] minWeights = new int[c.E + count];
+        int[] maxWeights = new int[c.E + count];
+        // slotOf[t] is t's slot in the row being built if it is at least rowStart.
+        int[] slotOf = new int[C];
+        Arrays.fill(slotOf, -1);
+        int copyFrom = 0;
+        int out = 0;
+        for (int k = 0; k < C; k++) {
+            if (opStart[k] == opStart[k + 1]) {
+                continue;
+            }
+            out = copyRows(c, copyFrom, k, offsets, targets, minWeights, maxWeights, out);
+            int rowStart = out;
+            for (int e = c.offsets[k]; e < c.offsets[k + 1]; e++) {
+                targets[out] = c.targets[e];
+                minWeights[out] = c.minWeights[e];
+                maxWeights[out] = c.maxWeights[e];
+                slotOf[c.targets[e]] = out++;
+            }
+            for (int j = opStart[k]; j < opStart[k + 1]; j++) {
+                int op = ops[j];
+                int slot = slotOf[to[op]];
+                if (slot >= rowStart) {
+                    minWeights[slot] = Math.min(minWeights[slot], weight[op]);
+                    maxWeights[slot] = Math.max(maxWeights[slot], weight[op]);
+                } else {
+                    targets[out] = to[op];
+                    minWeights[out] = weight[op];
+                    maxWeights[out] = weight[op];
+                    slotOf[to[op]] = out++;
+                }
+            }
+            // New targets were appended after the sorted old ones; insert them.
+            for (int j = rowStart + c.outDegree(k); j < out; j++) {
+                int t = targets[j];
+                int min = minWeights[j];
+                int max = maxWeights[j];
+                int i = j;
+                while (i > rowStart && targets[i - 1] > t) {
+                    targets[i] = targets[i - 1];
+                    minWeights[i] = minWeights[i - 1];
+                    maxWeights[i] = maxWeights[i - 1];
+                    i--;
+                }
+                targets[i] = t;
+                minWeights[i] = min;
+                maxWeights[i] = max;
+            }
+            offsets[k] = rowStart;
+            copyFrom = k + 1;
+        }
+        out = copyRows(c, copyFrom, C, offsets, targets, minWeights, maxWeights, out);
+        offsets[C] = out;
+        if (out < targets.length) {
+            targets = Arrays.copyOf(targets, out);
+            minWeights = Arrays.copyOf(minWeights, out);
+            maxWeights = Arrays.copyOf(maxWeights, out);
+        }
+        return new CsrGraph(C, offsets, targets, minWeights, minWeights, maxWeights);
+    }
+
+
+    // Copies rows [from, to) of c to position out; returns the position after them.
+    private static int copyRows(CsrGraph c, int from, int to, int[] offsets, int[] targets, int[] minWeights,
+                                int[] maxWeights, int out) {
+        int start = c.offsets[from];
+        int length = c.offsets[to] - start;
+        System.arraycopy(c.targets, start, targets, out, length);
+        System.arraycopy(c.minWeights, start, minWeights, out, length);
+        System.arraycopy(c.maxWeights, start, maxWeights, out, length);
+        int shift = out - start;
+        for (int k = from; k < to; k++) {
+            offsets[k] = c.offsets[k] + shift;
+        }
+        return out + length;
+    }
+}
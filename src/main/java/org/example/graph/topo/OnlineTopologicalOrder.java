@@ -0,0 +1,277 @@
+package org.example.graph.topo;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+// Pearce-Kelly dynamic topological order. Inserting u -> v with ord[u] > ord[v]
+// only explores the affected region: forward from v over nodes ordered before u,
+// backward from u over nodes ordered after v. The two visited sets are then
+// reassigned the positions they already held, backward set first. Reaching u in
+// the forward search means the edge would close a cycle; it is rejected and the
+// cycle is kept for lastCycle().
+public class OnlineTopologicalOrder {
+    private static final int[] EMPTY = new int[0];
+
+    private final int V;
+    private final Metrics metrics;
+    private int[][] out;
+    private int[] outDegree;
+    private int[][] in;
+    private int[] inDegree;
+
+    private int[] ord;
+    private int[] nodeAt;
+
+    private int[] mark;
+    private int epoch;
+    private int[] parent;
+    private int[] stack;
+    private int[] forward;
+    private int[] backward;
+    private int[] positions;
+    private List<Integer> lastCycle;
+
+
+    public OnlineTopologicalOrder(Graph g, Metrics metrics) {
+        this(g.toCsr(), metrics);
+    }
+
+
+    public OnlineTopologicalOrder(CsrGraph g, Metrics metrics) {
+        this.V = g.V;
+        this.metrics = metrics;
+        List<Integer> initial = new TopologicalSort(g, metrics).run();
+        if (initial == null) {
+            throw new IllegalArgumentException("Initial graph has a cycle");
+        }
+
+        out = new int[V][];
+        in = new int[V][];
+        outDegree = new int[V];
+        inDegree = new int[V];
+        for (int u = 0; u < V; u++) {
+            out[u] = g.outDegree(u) == 0 ? EMPTY : Arrays.copyOfRange(g.targets, g.offsets[u], g.offsets[u + 1]);
+            outDegree[u] = g.outDegree(u);
+            in[u] = EMPTY;
+        }
+        for (int u = 0; u < V; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                inDegree[v] = append(in, inDegree[v], v, u);
+            }
+        }
+
+        ord = new int[V];
+        nodeAt = new int[V];
+        for (int i = 0; i < V; i++) {
+            nodeAt[i] = initial.get(i);
+            ord[nodeAt[i]] = i;
+        }
+        mark = new int[V];
+        parent = new int[V];
+        stack = new int[V];
+        forward = new int[V];
+        backward = new int[V];
+        positions = new int[V];
+    }
+
+
+    // Returns false, leaving the graph and order untouched, if u -> v would close a cycle.
+    public boolean addEdge(int u, int v) {
+        if (u < 0 || v < 0 || u >= V || v >= V) {
+            throw new IndexOutOfBoundsException("Edge " + u + " -> " + v + " outside [0, " + V + ")");
+        }
+        metrics.increment("topo.online.inserts");
+        if (u == v) {
+            lastCycle = List.of(u);
+            return false;
+        }
+        int lower = ord[v];
+        int upper = ord[u];
+        if (lower < upper) {
+            epoch++;
+            int forwardSize = searchForward(v, u, upper);
+            if (forwardSize < 0) {
+                return false;
+            }
+            int backwardSize = searchBackward(u, lower);
+            reorder(forwardSize, backwardSize);
+            metrics.increment("topo.online.reordered", forwardSize + backwardSize);
+        }
+        outDegree[u] = append(out, outDegree[u], u, v);
+        inDegree[v] = append(in, inDegree[v], v, u);
+        lastCycle = null;
+        return true;
+    }
+
+
+    // Removing an edge never invalidates a topological order.
+    public boolean removeEdge(int u, int v) {
+        if (u < 0 || v < 0 || u >= V || v >= V) {
+            throw new IndexOutOfBoundsException("Edge " + u + " -> " + v + " outside [0, " + V + ")");
+        }
+        int i = indexOf(out[u], outDegree[u], v);
+        if (i < 0) {
+            return false;
+        }
+        out[u][i] = out[u][--outDegree[u]];
+        int j = indexOf(in[v], inDegree[v], u);
+        in[v][j] = in[v][--inDegree[v]];
+        return true;
+    }
+
+
+    private int searchForward(int v, int u, int upper) {
+        int size = 0;
+        int top = 0;
+        mark[v] = epoch;
+        parent[v] = -1;
+        stack[top++] = v;
+        while (top > 0) {
+            int x = stack[--top];
+            forward[size++] = x;
+            for (int i = 0; i < outDegree[x]; i++) {
+                int y = out[x][i];
+                if (y == u) {
+                    parent[u] = x;
+                    recordCycle(v, u);
+                    metrics.increment("topo.online.cycles");
+                    return -1;
+                }
+                if (mark[y] != epoch && ord[y] < upper) {
+                    mark[y] = epoch;
+                    parent[y] = x;
+                    stack[top++] = y;
+                }
+            }
+        }
+        return size;
+    }
+
+
+    private int searchBackward(int u, int lower) {
+        int size = 0;
+        int top = 0;
+        mark[u] = epoch;
+        stack[top++] = u;
+        while (top > 0) {
+            int x = stack[--top];
+            backward[size++] = x;
+            for (int i = 0; i < inDegree[x]; i++) {
+                int y = in[x][i];
+                if (mark[y] != epoch && ord[y] > lower) {
+                    mark[y] = epoch;
+                    stack[top++] = y;
+                }
+            }
+        }
+        return size;
+    }
+
+
+    // Both sets keep their internal relative order; the pooled positions are
+    // handed out to the backward set first, then the forward set.
+    private void reorder(int forwardSize, int backwardSize) {
+        sortByOrd(forward, forwardSize);
+        sortByOrd(backward, backwardSize);
+        int count = 0;
+        for (int i = 0; i < backwardSize; i++) {
+            positions[count++] = ord[backward[i]];
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            positions[count++] = ord[forward[i]];
+        }
+        Arrays.sort(positions, 0, count);
+
+        int next = 0;
+        for (int i = 0; i < backwardSize; i++) {
+            place(backward[i], positions[next++]);
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            place(forward[i], positions[next++]);
+        }
+    }
+
+
+    private void sortByOrd(int[] nodes, int size) {
+        for (int i = 0; i < size; i++) {
+            nodes[i] = ord[nodes[i]];
+        }
+        Arrays.sort(nodes, 0, size);
+        for (int i = 0; i < size; i++) {
+            nodes[i] = nodeAt[nodes[i]];
+        }
+    }
+
+
+    private void place(int node, int position) {
+        ord[node] = position;
+        nodeAt[position] = node;
+    }
+
+
+    private void recordCycle(int v, int u) {
+        List<Integer> path = new ArrayList<>();
+        for (int x = u; x != -1; x = parent[x]) {
+            path.add(x);
+        }
+        // path runs u <- ... <- v; the rejected edge u -> v closes it.
+        List<Integer> cycle = new ArrayList<>(path.size());
+        cycle.add(u);
+        for (int i = path.size() - 1; i > 0; i--) {
+            cycle.add(path.get(i));
+        }
+        lastCycle = cycle;
+    }
+
+
+    private static int append(int[][] lists, int size, int u, int v) {
+        if (size == lists[u].length) {
+            lists[u] = Arrays.copyOf(lists[u], size + (size >> 1) + 2);
+        }
+        lists[u][size] = v;
+        return size + 1;
+    }
+
+
+    private static int indexOf(int[] list, int size, int v) {
+        for (int i = 0; i < size; i++) {
+            if (list[i] == v) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    // Cycle closed by the last rejected edge u -> v, as [u, v, ..., u's predecessor];
+    // null if the last insertion succeeded.
+    public List<Integer> lastCycle() {
+        return lastCycle;
+    }
+
+
+    public int position(int u) {
+        return ord[u];
+    }
+
+
+    public int[] order() {
+        return nodeAt.clone();
+    }
+
+
+    public List<Integer> orderList() {
+        List<Integer> result = new ArrayList<>(V);
+        for (int u : nodeAt) {
+            result.add(u);
+        }
+        return result;
+    }
+}
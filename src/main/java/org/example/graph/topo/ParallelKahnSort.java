@@ -0,0 +1,181 @@
+package org.example.graph.topo;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.example.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+
+// Level-synchronous Kahn: every node whose in-degree drops to zero while the
+// current wave is processed belongs to the next wave. Waves are independent
+// sets of tasks, so they double as a parallel schedule.
+public class ParallelKahnSort {
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private CsrGraph g;
+    private Metrics metrics;
+    private int parallelism;
+
+
+    public static class Schedule {
+        public int[] order;
+        public int[] level;
+        public int[] levelStart;
+        public int levelCount;
+
+
+        public Schedule(int[] order, int[] level, int[] levelStart, int levelCount) {
+            this.order = order;
+            this.level = level;
+            this.levelStart = levelStart;
+            this.levelCount = levelCount;
+        }
+
+
+        public List<Integer> orderList() {
+            List<Integer> result = new ArrayList<>(order.length);
+            for (int u : order) {
+                result.add(u);
+            }
+            return result;
+        }
+
+
+        public int[] wave(int index) {
+            return Arrays.copyOfRange(order, levelStart[index], levelStart[index + 1]);
+        }
+    }
+
+
+    public ParallelKahnSort(Graph g, Metrics metrics) {
+        this(g.toCsr(), metrics);
+    }
+
+
+    public ParallelKahnSort(CsrGraph g, Metrics metrics) {
+        this(g, metrics, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    public ParallelKahnSort(CsrGraph g, Metrics metrics, int parallelism) {
+        this.g = g;
+        this.metrics = metrics;
+        this.parallelism = parallelism;
+    }
+
+
+    public Schedule run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return run(pool);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Topological sort interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel topological sort failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    private Schedule run(ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        int[] counts = new int[g.V];
+        for (int i = 0; i < g.E; i++) {
+            counts[g.targets[i]]++;
+        }
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(counts);
+
+        int[] order = new int[g.V];
+        int[] level = new int[g.V];
+        int[] levelStart = new int[g.V + 1];
+        int size = 0;
+        for (int u = 0; u < g.V; u++) {
+            if (inDegree.get(u) == 0) {
+                order[size++] = u;
+            }
+        }
+
+        int levels = 0;
+        int waveStart = 0;
+        while (waveStart < size) {
+            int waveEnd = size;
+            levelStart[levels] = waveStart;
+            for (int i = waveStart; i < waveEnd; i++) {
+                level[order[i]] = levels;
+            }
+            int[] next = expand(pool, order, waveStart, waveEnd, inDegree);
+            Arrays.sort(next);
+            System.arraycopy(next, 0, order, size, next.length);
+            size += next.length;
+            waveStart = waveEnd;
+            levels++;
+        }
+        levelStart[levels] = size;
+
+        metrics.increment("topo.kahn.visits", size);
+        metrics.increment("topo.kahn.edges", g.E);
+        metrics.increment("topo.kahn.levels", levels);
+        if (size < g.V) {
+            return null;
+        }
+        return new Schedule(order, level, Arrays.copyOf(levelStart, levels + 1), levels);
+    }
+
+
+    private int[] expand(ForkJoinPool pool, int[] wave, int from, int to, AtomicIntegerArray inDegree)
+            throws InterruptedException, ExecutionException {
+        if (to - from < SEQUENTIAL_THRESHOLD) {
+            return release(wave, from, to, inDegree);
+        }
+        int chunks = parallelism * 4;
+        int chunkSize = (to - from + chunks - 1) / chunks;
+        List<Callable<int[]>> jobs = new ArrayList<>();
+        for (int start = from; start < to; start += chunkSize) {
+            int chunkFrom = start;
+            int chunkTo = Math.min(start + chunkSize, to);
+            jobs.add(() -> release(wave, chunkFrom, chunkTo, inDegree));
+        }
+        List<int[]> parts = new ArrayList<>(jobs.size());
+        int total = 0;
+        for (Future<int[]> part : pool.invokeAll(jobs)) {
+            int[] released = part.get();
+            parts.add(released);
+            total += released.length;
+        }
+        int[] next = new int[total];
+        int at = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, next, at, part.length);
+            at += part.length;
+        }
+        return next;
+    }
+
+
+    private int[] release(int[] wave, int from, int to, AtomicIntegerArray inDegree) {
+        int[] next = new int[16];
+        int size = 0;
+        for (int f = from; f < to; f++) {
+            int u = wave[f];
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                if (inDegree.decrementAndGet(v) == 0) {
+                    if (size == next.length) {
+                        next = Arrays.copyOf(next, size * 2);
+                    }
+                    next[size++] = v;
+                }
+            }
+        }
+        return Arrays.copyOf(next, size);
+    }
+}
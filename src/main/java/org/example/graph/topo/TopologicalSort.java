@@ -1,26 +1,38 @@
 package org.example.graph.topo;
 
+import org.example.graph.CsrGraph;
 import org.example.graph.Graph;
-import org.example.graph.Edge;
 import org.example.Metrics;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 
 
 public class TopologicalSort {
-    private Graph g;
-    private Metrics metrics;
-    private Stack<Integer> stack;
+    private CsrGraph g;
     private int[] states;
+    private int[] stack;
+    private int[] cursor;
+    private int[] order;
+    private int remaining;
+    private final Metrics.Counter visits;
+    private final Metrics.Counter edges;
 
 
     public TopologicalSort(Graph g, Metrics metrics) {
+        this(g.toCsr(), metrics);
+    }
+
+
+    public TopologicalSort(CsrGraph g, Metrics metrics) {
         this.g = g;
-        this.metrics = metrics;
-        this.stack = new Stack<>();
         this.states = new int[g.V];
+        this.stack = new int[g.V];
+        this.cursor = new int[g.V];
+        this.order = new int[g.V];
+        this.remaining = g.V;
+        this.visits = metrics.counter("topo.dfs.visits");
+        this.edges = metrics.counter("topo.dfs.edges");
     }
 
 
@@ -33,33 +45,45 @@ public class TopologicalSort {
             }
         }
 
-        List<Integer> order = new ArrayList<>(g.V);
-        while (!stack.isEmpty()) {
-            order.add(stack.pop());
+        List<Integer> result = new ArrayList<>(g.V);
+        for (int u : order) {
+            result.add(u);
         }
-        return order;
+        return result;
     }
 
-    private boolean hasCycleDfs(int u) {
-        metrics.increment("topo.dfs.visits");
-        states[u] = 1;
+    private boolean hasCycleDfs(int root) {
+        int top = 0;
+        stack[top++] = root;
+        cursor[root] = g.offsets[root];
+        states[root] = 1;
+        long visitCount = 1;
+        long edgeCount = 0;
 
-        for (Edge e : g.adj.get(u)) {
-            metrics.increment("topo.dfs.edges");
-            int v = e.to;
-            if (states[v] == 1) {
-                return true;
-            }
-            if (states[v] == 0) {
-                if (hasCycleDfs(v)) {
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (cursor[u] < g.offsets[u + 1]) {
+                int v = g.targets[cursor[u]++];
+                edgeCount++;
+                if (states[v] == 1) {
+                    visits.add(visitCount);
+                    edges.add(edgeCount);
                     return true;
                 }
+                if (states[v] == 0) {
+                    states[v] = 1;
+                    visitCount++;
+                    cursor[v] = g.offsets[v];
+                    stack[top++] = v;
+                }
+            } else {
+                top--;
+                states[u] = 2;
+                order[--remaining] = u;
             }
         }
-
-        states[u] = 2;
-        stack.push(u);
+        visits.add(visitCount);
+        edges.add(edgeCount);
         return false;
     }
 }
-
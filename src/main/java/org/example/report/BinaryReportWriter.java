@@ -0,0 +1,195 @@
+package org.example.report;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.CriticalPathMethod;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.topo.ParallelKahnSort;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+
+// Compact little-endian report. The stream starts with magic "SCRP" and a version,
+// then holds one tagged record per section; close() writes END. Strings are an int
+// length plus UTF-8; every array is preceded by its full count and the shown count.
+//
+//   HEADER       dataset, V, E, source, weightModel, sccEngine, cache ("" if off)
+//   SCCS         count, shown, per SCC: size, shown, members
+//   CONDENSATION V, E, shown, flags (1 = min/max), shown x (from, to, min, max | weight)
+//   ORDER        count, shown, order, waves (-1 without schedule), shown, waveStart[shown + 1]
+//   DISTANCES    kind (0 shortest, 1 longest), sourceScc, count, shown, long distances
+//   PATH         kind (0 critical, 1 example), target, long length, count, shown, nodes
+//   METRICS      three maps (counters, timer nanos, bytes): size, size x (string, long)
+//   CPM          long projectLength, count, shown, shown x (long ES, LS, slack),
+//                critical count, shown, critical SCC ids (only with --cpm)
+//
+// Unreachable distances keep DAGPathFinder's Long.MAX_VALUE / MIN_VALUE sentinels.
+public class BinaryReportWriter implements ReportWriter {
+    public static final int MAGIC = 0x50524353; // "SCRP" read little-endian
+    public static final int VERSION = 2;
+
+    public static final int END = 0;
+    public static final int HEADER = 1;
+    public static final int SCCS = 2;
+    public static final int CONDENSATION = 3;
+    public static final int ORDER = 4;
+    public static final int DISTANCES = 5;
+    public static final int PATH = 6;
+    public static final int METRICS = 7;
+    public static final int CPM = 8;
+
+    private final ReportBuffer out;
+    private final int limit;
+    private boolean started;
+
+
+    public BinaryReportWriter(ReportBuffer out, int limit) {
+        this.out = out;
+        this.limit = limit;
+    }
+
+
+    private void start() throws IOException {
+        if (!started) {
+            out.putInt(MAGIC).putInt(VERSION);
+            started = true;
+        }
+    }
+
+
+    @Override
+    public void header(String dataset, CsrGraph g, int source, String weightModel, String sccEngine,
+                       String cacheStatus) throws IOException {
+        start();
+        out.putByte(HEADER).putString(dataset).putInt(g.V).putInt(g.E).putInt(source)
+                .putString(weightModel).putString(sccEngine).putString(cacheStatus == null ? "" : cacheStatus);
+    }
+
+
+    @Override
+    public void sccs(List<List<Integer>> sccs) throws IOException {
+        int shown = Math.min(limit, sccs.size());
+        out.putByte(SCCS).putInt(sccs.size()).putInt(shown);
+        for (int i = 0; i < shown; i++) {
+            list(sccs.get(i));
+        }
+    }
+
+
+    @Override
+    public void condensation(CsrGraph c) throws IOException {
+        int shown = Math.min(limit, c.E);
+        boolean condensation = c.isCondensation();
+        out.putByte(CONDENSATION).putInt(c.V).putInt(c.E).putInt(shown).putByte(condensation ? 1 : 0);
+        int u = 0;
+        for (int i = 0; i < shown; i++) {
+            while (c.offsets[u + 1] <= i) {
+                u++;
+            }
+            out.putInt(u).putInt(c.targets[i]);
+            if (condensation) {
+                out.putInt(c.minWeights[i]).putInt(c.maxWeights[i]);
+            } else {
+                out.putInt(c.weights[i]);
+            }
+        }
+    }
+
+
+    @Override
+    public void order(List<Integer> order, ParallelKahnSort.Schedule schedule) throws IOException {
+        out.putByte(ORDER);
+        list(order);
+        if (schedule == null) {
+            out.putInt(-1);
+            return;
+        }
+        int shown = Math.min(limit, schedule.levelCount);
+        out.putInt(schedule.levelCount).putInt(shown);
+        for (int w = 0; w <= shown; w++) {
+            out.putInt(schedule.levelStart[w]);
+        }
+    }
+
+
+    @Override
+    public void paths(int source, int sourceScc, DAGPathFinder.PathResult shortest, DAGPathFinder.PathResult longest,
+                      DAGPathFinder.Path criticalPath, int exampleTarget, List<Integer> examplePath) throws IOException {
+        distances(0, sourceScc, shortest);
+        distances(1, sourceScc, longest);
+        int criticalTarget = criticalPath.path.isEmpty() ? -1 : criticalPath.path.get(criticalPath.path.size() - 1);
+        out.putByte(PATH).putByte(0).putInt(criticalTarget).putLong(criticalPath.distance);
+        list(criticalPath.path);
+        if (examplePath != null) {
+            out.putByte(PATH).putByte(1).putInt(exampleTarget).putLong(shortest.distances[exampleTarget]);
+            list(examplePath);
+        }
+    }
+
+
+    private void distances(int kind, int sourceScc, DAGPathFinder.PathResult result) throws IOException {
+        int shown = Math.min(limit, result.V);
+        out.putByte(DISTANCES).putByte(kind).putInt(sourceScc).putInt(result.V).putInt(shown);
+        for (int i = 0; i < shown; i++) {
+            out.putLong(result.distances[i]);
+        }
+    }
+
+
+    @Override
+    public void cpm(CriticalPathMethod.CpmResult cpm) throws IOException {
+        int V = cpm.slack.length;
+        int shown = Math.min(limit, V);
+        out.putByte(CPM).putLong(cpm.projectLength).putInt(V).putInt(shown);
+        for (int i = 0; i < shown; i++) {
+            out.putLong(cpm.earliestStart[i]).putLong(cpm.latestStart[i]).putLong(cpm.slack[i]);
+        }
+        int criticalShown = Math.min(limit, cpm.criticalTasks.length);
+        out.putInt(cpm.criticalTasks.length).putInt(criticalShown);
+        for (int i = 0; i < criticalShown; i++) {
+            out.putInt(cpm.criticalTasks[i]);
+        }
+    }
+
+
+    @Override
+    public void metrics(Metrics metrics) throws IOException {
+        out.putByte(METRICS);
+        map(metrics.counters());
+        map(metrics.timings());
+        map(metrics.bytes());
+    }
+
+
+    private void map(Map<String, Long> values) throws IOException {
+        out.putInt(values.size());
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            out.putString(entry.getKey()).putLong(entry.getValue());
+        }
+    }
+
+
+    private void list(List<Integer> values) throws IOException {
+        int shown = Math.min(limit, values.size());
+        out.putInt(values.size()).putInt(shown);
+        for (int i = 0; i < shown; i++) {
+            out.putInt(values.get(i));
+        }
+    }
+
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        start();
+        out.putByte(END);
+        out.close();
+    }
+}
@@ -0,0 +1,329 @@
+package org.example.report;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.CriticalPathMethod;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.topo.ParallelKahnSort;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+
+// One JSON object per line and section, each tagged with its dataset so batch
+// reports can share a file. Arrays are cut at limit; "count" keeps the full size.
+// Unreachable distances are null.
+//
+//   {"dataset":"data/small_1.json","section":"header","nodes":8,...}
+//   {"dataset":"data/small_1.json","section":"sccs","count":6,"shown":6,"members":[[0],[1,2,3],...]}
+public class JsonLinesReportWriter implements ReportWriter {
+    private final ReportBuffer out;
+    private final int limit;
+    private String dataset = "";
+
+
+    public JsonLinesReportWriter(ReportBuffer out, int limit) {
+        this.out = out;
+        this.limit = limit;
+    }
+
+
+    private void begin(String section) throws IOException {
+        out.ascii("{\"dataset\":");
+        string(dataset);
+        out.ascii(",\"section\":\"").ascii(section).ascii('"');
+    }
+
+
+    private void key(String name) throws IOException {
+        out.ascii(",\"").ascii(name).ascii("\":");
+    }
+
+
+    private void end() throws IOException {
+        out.ascii("}\n");
+    }
+
+
+    @Override
+    public void header(String dataset, CsrGraph g, int source, String weightModel, String sccEngine,
+                       String cacheStatus) throws IOException {
+        this.dataset = dataset;
+        begin("header");
+        key("nodes");
+        out.number(g.V);
+        key("edges");
+        out.number(g.E);
+        key("source");
+        out.number(source);
+        key("weightModel");
+        string(weightModel);
+        key("sccEngine");
+        string(sccEngine);
+        key("cache");
+        string(cacheStatus);
+        end();
+    }
+
+
+    @Override
+    public void sccs(List<List<Integer>> sccs) throws IOException {
+        int shown = Math.min(limit, sccs.size());
+        begin("sccs");
+        key("count");
+        out.number(sccs.size());
+        key("shown");
+        out.number(shown);
+        key("members");
+        out.ascii('[');
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                out.ascii(',');
+            }
+            list(sccs.get(i));
+        }
+        out.ascii(']');
+        end();
+    }
+
+
+    // Edges as [from, to, minWeight, maxWeight] (or [from, to, weight]).
+    @Override
+    public void condensation(CsrGraph c) throws IOException {
+        int shown = Math.min(limit, c.E);
+        boolean condensation = c.isCondensation();
+        begin("condensation");
+        key("nodes");
+        out.number(c.V);
+        key("count");
+        out.number(c.E);
+        key("shown");
+        out.number(shown);
+        key("edges");
+        out.ascii('[');
+        int u = 0;
+        for (int i = 0; i < shown; i++) {
+            while (c.offsets[u + 1] <= i) {
+                u++;
+            }
+            if (i > 0) {
+                out.ascii(',');
+            }
+            out.ascii('[').number(u).ascii(',').number(c.targets[i]).ascii(',');
+            if (condensation) {
+                out.number(c.minWeights[i]).ascii(',').number(c.maxWeights[i]);
+            } else {
+                out.number(c.weights[i]);
+            }
+            out.ascii(']');
+        }
+        out.ascii(']');
+        end();
+    }
+
+
+    @Override
+    public void order(List<Integer> order, ParallelKahnSort.Schedule schedule) throws IOException {
+        begin("order");
+        key("count");
+        out.number(order.size());
+        key("shown");
+        out.number(Math.min(limit, order.size()));
+        key("order");
+        list(order);
+        if (schedule != null) {
+            // waveStart[w] indexes the first node of wave w in "order".
+            int shown = Math.min(limit, schedule.levelCount);
+            key("waves");
+            out.number(schedule.levelCount);
+            key("waveStart");
+            out.ascii('[');
+            for (int w = 0; w <= shown; w++) {
+                if (w > 0) {
+                    out.ascii(',');
+                }
+                out.number(schedule.levelStart[w]);
+            }
+            out.ascii(']');
+        }
+        end();
+    }
+
+
+    @Override
+    public void paths(int source, int sourceScc, DAGPathFinder.PathResult shortest, DAGPathFinder.PathResult longest,
+                      DAGPathFinder.Path criticalPath, int exampleTarget, List<Integer> examplePath) throws IOException {
+        distances("shortest", sourceScc, shortest);
+        distances("longest", sourceScc, longest);
+
+        begin("criticalPath");
+        key("sourceScc");
+        out.number(sourceScc);
+        key("length");
+        if (criticalPath.distance == Long.MIN_VALUE) {
+            out.ascii("null");
+        } else {
+            out.number(criticalPath.distance);
+        }
+        key("path");
+        list(criticalPath.path);
+        end();
+
+        if (examplePath != null) {
+            begin("examplePath");
+            key("sourceScc");
+            out.number(sourceScc);
+            key("target");
+            out.number(exampleTarget);
+            key("path");
+            list(examplePath);
+            end();
+        }
+    }
+
+
+    private void distances(String section, int sourceScc, DAGPathFinder.PathResult result) throws IOException {
+        int shown = Math.min(limit, result.V);
+        begin(section);
+        key("sourceScc");
+        out.number(sourceScc);
+        key("count");
+        out.number(result.V);
+        key("shown");
+        out.number(shown);
+        key("distances");
+        out.ascii('[');
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                out.ascii(',');
+            }
+            long d = result.distances[i];
+            if (d == Long.MAX_VALUE || d == Long.MIN_VALUE) {
+                out.ascii("null");
+            } else {
+                out.number(d);
+            }
+        }
+        out.ascii(']');
+        end();
+    }
+
+
+    @Override
+    public void cpm(CriticalPathMethod.CpmResult cpm) throws IOException {
+        int V = cpm.slack.length;
+        int shown = Math.min(limit, V);
+        begin("cpm");
+        key("projectLength");
+        out.number(cpm.projectLength);
+        key("count");
+        out.number(V);
+        key("shown");
+        out.number(shown);
+        key("earliestStart");
+        longs(cpm.earliestStart, shown);
+        key("latestStart");
+        longs(cpm.latestStart, shown);
+        key("slack");
+        longs(cpm.slack, shown);
+        key("criticalCount");
+        out.number(cpm.criticalTasks.length);
+        key("critical");
+        out.ascii('[');
+        int criticalShown = Math.min(limit, cpm.criticalTasks.length);
+        for (int i = 0; i < criticalShown; i++) {
+            if (i > 0) {
+                out.ascii(',');
+            }
+            out.number(cpm.criticalTasks[i]);
+        }
+        out.ascii(']');
+        end();
+    }
+
+
+    private void longs(long[] values, int shown) throws IOException {
+        out.ascii('[');
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                out.ascii(',');
+            }
+            out.number(values[i]);
+        }
+        out.ascii(']');
+    }
+
+
+    @Override
+    public void metrics(Metrics metrics) throws IOException {
+        begin("metrics");
+        key("counters");
+        map(metrics.counters());
+        key("timingsNanos");
+        map(metrics.timings());
+        key("bytes");
+        map(metrics.bytes());
+        end();
+    }
+
+
+    private void map(Map<String, Long> values) throws IOException {
+        out.ascii('{');
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (!first) {
+                out.ascii(',');
+            }
+            first = false;
+            string(entry.getKey());
+            out.ascii(':').number(entry.getValue());
+        }
+        out.ascii('}');
+    }
+
+
+    private void list(List<Integer> values) throws IOException {
+        int shown = Math.min(limit, values.size());
+        out.ascii('[');
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                out.ascii(',');
+            }
+            out.number(values.get(i));
+        }
+        out.ascii(']');
+    }
+
+
+    private void string(String s) throws IOException {
+        if (s == null) {
+            out.ascii("null");
+            return;
+        }
+        StringBuilder escaped = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                escaped.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) ch));
+            } else {
+                escaped.append(ch);
+            }
+        }
+        out.text(escaped.append('"').toString());
+    }
+
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
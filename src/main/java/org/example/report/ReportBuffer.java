@@ -0,0 +1,169 @@
+package org.example.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+// One large buffer in front of a channel. Numbers are formatted straight into the
+// buffer, so writing a million distances allocates nothing per value.
+public final class ReportBuffer implements Closeable {
+    public static final int DEFAULT_SIZE = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private final OutputStream stream;
+    private final boolean closeChannel;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+
+
+    private ReportBuffer(WritableByteChannel channel, OutputStream stream, boolean closeChannel, int size) {
+        this.channel = channel;
+        this.stream = stream;
+        this.closeChannel = closeChannel;
+        this.buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+
+    // The stream is flushed but not closed, so System.out stays usable.
+    public static ReportBuffer of(OutputStream out) {
+        return new ReportBuffer(Channels.newChannel(out), out, false, DEFAULT_SIZE);
+    }
+
+
+    public static ReportBuffer open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new ReportBuffer(channel, null, true, DEFAULT_SIZE);
+    }
+
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+
+    public ReportBuffer text(String s) throws IOException {
+        return bytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    // Caller guarantees s is 7-bit ASCII (labels, keywords, punctuation).
+    public ReportBuffer ascii(String s) throws IOException {
+        int length = s.length();
+        for (int done = 0; done < length; ) {
+            ensure(1);
+            int chunk = Math.min(length - done, buffer.remaining());
+            for (int i = 0; i < chunk; i++) {
+                buffer.put((byte) s.charAt(done + i));
+            }
+            done += chunk;
+        }
+        return this;
+    }
+
+
+    public ReportBuffer bytes(byte[] bytes) throws IOException {
+        for (int done = 0; done < bytes.length; ) {
+            ensure(1);
+            int chunk = Math.min(bytes.length - done, buffer.remaining());
+            buffer.put(bytes, done, chunk);
+            done += chunk;
+        }
+        return this;
+    }
+
+
+    public ReportBuffer ascii(char c) throws IOException {
+        ensure(1);
+        buffer.put((byte) c);
+        return this;
+    }
+
+
+    // Decimal text of v.
+    public ReportBuffer number(long v) throws IOException {
+        ensure(20);
+        if (v == Long.MIN_VALUE) {
+            return ascii("-9223372036854775808");
+        }
+        if (v < 0) {
+            buffer.put((byte) '-');
+            v = -v;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+        return this;
+    }
+
+
+    public ReportBuffer putByte(int v) throws IOException {
+        ensure(1);
+        buffer.put((byte) v);
+        return this;
+    }
+
+
+    public ReportBuffer putInt(int v) throws IOException {
+        ensure(4);
+        buffer.putInt(v);
+        return this;
+    }
+
+
+    public ReportBuffer putLong(long v) throws IOException {
+        ensure(8);
+        buffer.putLong(v);
+        return this;
+    }
+
+
+    // Length-prefixed UTF-8.
+    public ReportBuffer putString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        return bytes(bytes);
+    }
+
+
+    public void flush() throws IOException {
+        drain();
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (closeChannel) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.report;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.CriticalPathMethod;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.topo.ParallelKahnSort;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+
+// Sink for Main's analysis report, one call per section. limit caps the entries
+// written per section (SCCs, edges, order, distances, path nodes); truncated
+// sections still report their full size.
+public interface ReportWriter extends Closeable {
+    int UNLIMITED = Integer.MAX_VALUE;
+
+
+    void header(String dataset, CsrGraph g, int source, String weightModel, String sccEngine,
+                String cacheStatus) throws IOException;
+
+
+    void sccs(List<List<Integer>> sccs) throws IOException;
+
+
+    void condensation(CsrGraph condensation) throws IOException;
+
+
+    // schedule is null unless the order came from ParallelKahnSort.
+    void order(List<Integer> order, ParallelKahnSort.Schedule schedule) throws IOException;
+
+
+    // examplePath is null when nothing but the source is reachable.
+    void paths(int source, int sourceScc, DAGPathFinder.PathResult shortest, DAGPathFinder.PathResult longest,
+               DAGPathFinder.Path criticalPath, int exampleTarget, List<Integer> examplePath) throws IOException;
+
+
+    // Only written with --cpm.
+    void cpm(CriticalPathMethod.CpmResult cpm) throws IOException;
+
+
+    void metrics(Metrics metrics) throws IOException;
+
+
+    void flush() throws IOException;
+
+
+    static ReportWriter create(String format, ReportBuffer out, int limit) {
+        switch (format) {
+            case "text":
+                return new TextReportWriter(out, limit);
+            case "jsonl":
+                return new JsonLinesReportWriter(out, limit);
+            case "binary":
+                return new BinaryReportWriter(out, limit);
+            default:
+                throw new IllegalArgumentException("Unknown report format: " + format + " (expected text, jsonl or binary)");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.example.report;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.CriticalPathMethod;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.topo.ParallelKahnSort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+
+// The human-readable console report. With no limit the output is the same as
+// Main's original System.out dump.
+public class TextReportWriter implements ReportWriter {
+    private final ReportBuffer out;
+    private final int limit;
+
+
+    public TextReportWriter(ReportBuffer out, int limit) {
+        this.out = out;
+        this.limit = limit;
+    }
+
+
+    @Override
+    public void header(String dataset, CsrGraph g, int source, String weightModel, String sccEngine,
+                       String cacheStatus) throws IOException {
+        out.ascii("=== Smart City Scheduling Analysis ===\n");
+        out.ascii("Dataset: ").text(dataset).ascii('\n');
+        out.ascii("Loaded graph with ").number(g.V).ascii(" nodes and ").number(g.E).ascii(" edges.\n");
+        out.ascii("Original Source Node: ").number(source).ascii('\n');
+        out.ascii("Weight Model: ").text(weightModel).ascii('\n');
+        out.ascii("SCC Engine: ").text(sccEngine).ascii('\n');
+        if (cacheStatus != null) {
+            out.ascii("Result cache: ").text(cacheStatus).ascii('\n');
+        }
+        out.ascii("---\n");
+    }
+
+
+    @Override
+    public void sccs(List<List<Integer>> sccs) throws IOException {
+        out.ascii("### 1.1 Strongly Connected Components ###\n");
+        out.ascii("Found ").number(sccs.size()).ascii(" SCCs:\n");
+        int shown = Math.min(limit, sccs.size());
+        for (int i = 0; i < shown; i++) {
+            List<Integer> members = sccs.get(i);
+            out.ascii("  SCC ").number(i).ascii(" (Size ").number(members.size()).ascii("): ");
+            list(members);
+            out.ascii('\n');
+        }
+        more(sccs.size() - shown, "SCCs");
+    }
+
+
+    @Override
+    public void condensation(CsrGraph c) throws IOException {
+        out.ascii("\nBuilding condensation graph... \n");
+        out.ascii("Condensation graph has ").number(c.V).ascii(" nodes (one per SCC). Edges:\n");
+        boolean condensation = c.isCondensation();
+        int lines = 0;
+        int skipped = 0;
+        for (int u = 0; u < c.V; u++) {
+            int start = c.offsets[u];
+            int end = c.offsets[u + 1];
+            if (start == end) {
+                continue;
+            }
+            if (lines == limit) {
+                skipped++;
+                continue;
+            }
+            lines++;
+            out.ascii("  Node ").number(u).ascii(" -> ");
+            int shownEnd = (int) Math.min(end, (long) start + limit);
+            for (int i = start; i < shownEnd; i++) {
+                if (i > start) {
+                    out.ascii(", ");
+                }
+                out.number(c.targets[i]);
+                if (condensation) {
+                    out.ascii(" (minW: ").number(c.minWeights[i]).ascii(", maxW: ").number(c.maxWeights[i]).ascii(')');
+                } else {
+                    out.ascii(" (w: ").number(c.weights[i]).ascii(')');
+                }
+            }
+            if (shownEnd < end) {
+                out.ascii(", ... (").number(end - shownEnd).ascii(" more)");
+            }
+            out.ascii('\n');
+        }
+        more(skipped, "nodes with edges");
+        out.ascii("---\n");
+    }
+
+
+    @Override
+    public void order(List<Integer> order, ParallelKahnSort.Schedule schedule) throws IOException {
+        out.ascii("### 1.2 Topological Sort of Condensation DAG ###\n");
+        out.ascii("Topological Order of SCCs: ");
+        list(order);
+        out.ascii('\n');
+        if (schedule != null) {
+            out.ascii("Parallel schedule (").number(schedule.levelCount).ascii(" waves):\n");
+            int shown = Math.min(limit, schedule.levelCount);
+            for (int w = 0; w < shown; w++) {
+                out.ascii("  Wave ").number(w).ascii(": ");
+                array(schedule.order, schedule.levelStart[w], schedule.levelStart[w + 1]);
+                out.ascii('\n');
+            }
+            more(schedule.levelCount - shown, "waves");
+        }
+        out.ascii("---\n");
+    }
+
+
+    @Override
+    public void paths(int source, int sourceScc, DAGPathFinder.PathResult shortest, DAGPathFinder.PathResult longest,
+                      DAGPathFinder.Path criticalPath, int exampleTarget, List<Integer> examplePath) throws IOException {
+        out.ascii("### 1.3 Shortest & Longest Paths on DAG ###\n");
+        out.ascii("Original source node ").number(source).ascii(" is in SCC ").number(sourceScc).ascii(".\n");
+
+        out.ascii("\n**Single-Source Shortest Paths (from SCC ").number(sourceScc).ascii(")**\n");
+        distances(shortest);
+        out.ascii("\n**Single-Source Longest Paths (from SCC ").number(sourceScc).ascii(")**\n");
+        distances(longest);
+
+        out.ascii("\n**Critical (Longest) Path from source**\n");
+        out.ascii("  Path (of SCCs): ");
+        list(criticalPath.path);
+        out.ascii("\n  Length: ");
+        if (criticalPath.distance == Long.MIN_VALUE) {
+            out.ascii("N/A");
+        } else {
+            out.number(criticalPath.distance);
+        }
+        out.ascii('\n');
+
+        if (examplePath != null) {
+            out.ascii("\n**Example Shortest Path (to SCC ").number(exampleTarget).ascii(")**\n");
+            out.ascii("  Path (of SCCs): ");
+            list(examplePath);
+            out.ascii('\n');
+        }
+        out.ascii("---\n");
+    }
+
+
+    private void distances(DAGPathFinder.PathResult result) throws IOException {
+        int shown = Math.min(limit, result.V);
+        for (int i = 0; i < shown; i++) {
+            long d = result.distances[i];
+            out.ascii("  SCC ").number(i).ascii(": ");
+            if (d == Long.MAX_VALUE || d == Long.MIN_VALUE) {
+                out.ascii("UNREACHABLE");
+            } else {
+                out.number(d);
+            }
+            out.ascii('\n');
+        }
+        more(result.V - shown, "SCCs");
+    }
+
+
+    @Override
+    public void cpm(CriticalPathMethod.CpmResult cpm) throws IOException {
+        out.ascii("### 1.4 Critical Path Scheduling (CPM) ###\n");
+        out.ascii("Project length: ").number(cpm.projectLength).ascii('\n');
+        int V = cpm.slack.length;
+        int shown = Math.min(limit, V);
+        for (int i = 0; i < shown; i++) {
+            out.ascii("  SCC ").number(i).ascii(": ES ").number(cpm.earliestStart[i])
+                    .ascii(", LS ").number(cpm.latestStart[i]).ascii(", slack ").number(cpm.slack[i]).ascii('\n');
+        }
+        more(V - shown, "SCCs");
+        out.ascii("Zero-slack SCCs (").number(cpm.criticalTasks.length).ascii("): ");
+        array(cpm.criticalTasks, 0, cpm.criticalTasks.length);
+        out.ascii("\n---\n");
+    }
+
+
+    // Metrics.printReport already has the right layout and is only a few lines.
+    @Override
+    public void metrics(Metrics metrics) throws IOException {
+        out.ascii("### Instrumentation Report ###\n");
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        metrics.printReport(new PrintStream(report, true));
+        out.bytes(report.toByteArray());
+    }
+
+
+    // Same layout as List.toString(), cut after limit elements.
+    private void list(List<Integer> values) throws IOException {
+        int shown = Math.min(limit, values.size());
+        out.ascii('[');
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                out.ascii(", ");
+            }
+            out.number(values.get(i));
+        }
+        if (shown < values.size()) {
+            out.ascii(", ... (").number(values.size() - shown).ascii(" more)");
+        }
+        out.ascii(']');
+    }
+
+
+    private void array(int[] values, int from, int to) throws IOException {
+        int shownEnd = (int) Math.min(to, (long) from + limit);
+        out.ascii('[');
+        for (int i = from; i < shownEnd; i++) {
+            if (i > from) {
+                out.ascii(", ");
+            }
+            out.number(values[i]);
+        }
+        if (shownEnd < to) {
+            out.ascii(", ... (").number(to - shownEnd).ascii(" more)");
+        }
+        out.ascii(']');
+    }
+
+
+    private void more(int count, String what) throws IOException {
+        if (count > 0) {
+            out.ascii("  ... (").number(count).ascii(" more ").ascii(what).ascii(")\n");
+        }
+    }
+
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BatchRunnerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testResolveDirectoryAndGlob() throws IOException {
+        List<Path> all = BatchRunner.resolve(List.of("data"));
+        assertEquals(9, all.size());
+        assertEquals(Paths.get("data/large_1.json"), all.get(0));
+
+        List<Path> small = BatchRunner.resolve(List.of("data/small_*.json", "data/small_1.json"));
+        assertEquals(List.of(Paths.get("data/small_1.json"), Paths.get("data/small_2.json"),
+                Paths.get("data/small_3.json")), small);
+
+        assertTrue(BatchRunner.isBatchInput("data"));
+        assertTrue(BatchRunner.isBatchInput("data/*.json"));
+        assertFalse(BatchRunner.isBatchInput("data/small_1.json"));
+    }
+
+    @Test
+    void testPercentileIsNearestRank() {
+        long[] values = new long[100];
+        for (int i = 0; i < 100; i++) {
+            values[i] = i + 1;
+        }
+        assertEquals(50, BatchRunner.percentile(values, 50));
+        assertEquals(99, BatchRunner.percentile(values, 99));
+        assertEquals(7, BatchRunner.percentile(new long[]{7}, 99));
+        assertEquals(0, BatchRunner.percentile(new long[0], 50));
+    }
+
+    @Test
+    void testRunIsolatesMetricsAndReportsFailures() throws IOException, InterruptedException {
+        Files.writeString(dir.resolve("broken.json"), "{ not json");
+        List<Path> files = BatchRunner.resolve(List.of("data/medium_*.json"));
+        files.add(dir.resolve("broken.json"));
+
+        Main.Options options = new Main.Options();
+        options.threads = 3;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        BatchRunner.Summary summary = new BatchRunner(options, new PrintStream(buffer)).run(files);
+
+        assertEquals(4, summary.files);
+        assertEquals(1, summary.failed);
+        assertEquals(3, summary.phases.get("SCC").length);
+        assertEquals(3, summary.phases.get("TotalTime").length);
+        assertTrue(summary.percentile("TotalTime", 50) <= summary.percentile("TotalTime", 99));
+        assertTrue(summary.loadedBytes > 0);
+        assertTrue(buffer.toString().contains("broken.json: FAILED"));
+    }
+}
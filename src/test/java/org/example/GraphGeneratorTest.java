@@ -0,0 +1,96 @@
+package org.example;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.io.CsrStreamWriter;
+import org.example.graph.io.GraphDataset;
+import org.example.graph.io.GraphFiles;
+import org.example.graph.io.JsonGraphWriter;
+import org.example.graph.scc.PearceSCC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class GraphGeneratorTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testOutputDependsOnSeedNotThreads() throws IOException {
+        for (GraphGenerator.Topology topology : GraphGenerator.Topology.values()) {
+            List<Long> single = collect(new GraphGenerator(topology, 100_000, 7, 1));
+            List<Long> parallel = collect(new GraphGenerator(topology, 100_000, 7, 4));
+            List<Long> reseeded = collect(new GraphGenerator(topology, 100_000, 8, 4));
+
+            assertFalse(single.isEmpty());
+            assertEquals(single, parallel);
+            assertNotEquals(single, reseeded);
+        }
+    }
+
+    @Test
+    void testClustersAreStronglyConnectedRings() throws IOException {
+        CsrGraph g = writeBinary(GraphGenerator.Topology.CLUSTERS, 1000);
+
+        PearceSCC scc = new PearceSCC(g, new Metrics());
+        scc.run();
+        assertEquals(10, scc.getSccCount());
+    }
+
+    @Test
+    void testJsonAndBinaryWritersProduceTheSameGraph() throws IOException {
+        GraphGenerator generator = new GraphGenerator(GraphGenerator.Topology.GRID, 5000, 3, 2);
+        Path json = dir.resolve("grid.json");
+        try (JsonGraphWriter writer = new JsonGraphWriter(json, 5000, true, 0, "edge")) {
+            generator.generate(writer::writeEdges);
+            writer.finish();
+        }
+        CsrGraph fromJson = GraphFiles.load(json.toString()).graph;
+        CsrGraph fromBinary = writeBinary(GraphGenerator.Topology.GRID, 5000);
+
+        assertEquals(5000, fromBinary.V);
+        assertArrayEquals(fromJson.offsets, fromBinary.offsets);
+        assertArrayEquals(fromJson.targets, fromBinary.targets);
+        assertArrayEquals(fromJson.weights, fromBinary.weights);
+    }
+
+    @Test
+    void testFailedGenerationLeavesNoJsonFile() {
+        Path json = dir.resolve("failed.json");
+        assertThrows(IOException.class, () -> {
+            try (JsonGraphWriter writer = new JsonGraphWriter(json, 3, true, 0, "edge")) {
+                writer.writeEdges(new int[]{0}, new int[]{1}, new int[]{5}, 1);
+                throw new IOException("generator failed");
+            }
+        });
+        assertFalse(Files.exists(json));
+    }
+
+    private CsrGraph writeBinary(GraphGenerator.Topology topology, int n) throws IOException {
+        Path path = dir.resolve(topology + ".csrg");
+        try (CsrStreamWriter writer = new CsrStreamWriter(path, n, true, 0, "edge")) {
+            new GraphGenerator(topology, n, 3, 2).generate(writer::writeEdges);
+            writer.finish();
+        }
+        GraphDataset data = GraphFiles.load(path.toString());
+        assertTrue(data.directed);
+        return data.graph;
+    }
+
+    private static List<Long> collect(GraphGenerator generator) throws IOException {
+        List<Long> edges = new ArrayList<>();
+        generator.generate((sources, targets, weights, count) -> {
+            for (int i = 0; i < count; i++) {
+                edges.add(((long) sources[i] << 36) | ((long) targets[i] << 4) | weights[i]);
+            }
+        });
+        return edges;
+    }
+}
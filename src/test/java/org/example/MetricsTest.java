@@ -0,0 +1,73 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class MetricsTest {
+
+    @Test
+    void testCounterHandleIsSharedByName() {
+        Metrics metrics = new Metrics();
+        Metrics.Counter counter = metrics.counter("edges");
+        counter.increment();
+        counter.add(4);
+        metrics.increment("edges");
+
+        assertSame(counter, metrics.counter("edges"));
+        assertEquals(Metrics.ENABLED ? 6 : 0, metrics.getCounter("edges"));
+        assertEquals(0, metrics.getCounter("missing"));
+    }
+
+    @Test
+    void testConcurrentIncrementsAreNotLost() throws InterruptedException {
+        Metrics metrics = new Metrics();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                Metrics.Counter counter = metrics.counter("visits");
+                for (int i = 0; i < 100_000; i++) {
+                    counter.increment();
+                    metrics.increment("lookups");
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(Metrics.ENABLED ? 400_000 : 0, metrics.getCounter("visits"));
+        assertEquals(Metrics.ENABLED ? 400_000 : 0, metrics.getCounter("lookups"));
+    }
+
+    @Test
+    void testReportWhileOtherThreadsRecord() throws Exception {
+        Metrics metrics = new Metrics();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        for (int t = 0; t < 2; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    String name = "phase" + thread + "." + (i % 500);
+                    metrics.start(name);
+                    metrics.stop(name);
+                    metrics.recordBytes(name, 1);
+                }
+            });
+        }
+        PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+        while (!pool.isTerminated()) {
+            metrics.printReport(sink);
+            pool.shutdown();
+        }
+
+        assertEquals(1000, metrics.timings().size());
+        assertEquals(40, metrics.getBytes("phase1.7"));
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class QueryServerTest {
+    private Main.Result result;
+    private QueryServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Metrics metrics = new Metrics();
+        result = Main.analyze("data/medium_3.json", new Main.Options(), metrics);
+        server = new QueryServer(result, metrics, 2).start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private JsonObject get(String path) throws IOException {
+        String body = QueryLoadTest.get(new URL("http://localhost:" + server.port() + path));
+        return JsonParser.parseString(body).getAsJsonObject();
+    }
+
+    @Test
+    void testPathQueriesMatchReport() throws IOException {
+        int target = result.exampleTarget;
+        int member = result.scc.getSccs().get(target).get(0);
+        JsonObject shortest = get("/shortest?from=" + result.source + "&to=" + member);
+        assertTrue(shortest.get("reachable").getAsBoolean());
+        assertEquals(result.shortestPaths.distances[target], shortest.get("distance").getAsLong());
+        assertEquals(result.examplePath.size(), shortest.getAsJsonArray("path").size());
+
+        JsonObject longest = get("/longest?from=" + result.source + "&to=" + member);
+        assertEquals(result.longestPaths.distances[target], longest.get("distance").getAsLong());
+
+        JsonObject critical = get("/critical?from=" + result.source);
+        assertEquals(result.criticalPath.distance, critical.get("distance").getAsLong());
+
+        JsonObject back = get("/shortest?from=" + member + "&to=" + result.source);
+        assertEquals(target == result.sourceScc, back.get("reachable").getAsBoolean());
+    }
+
+    @Test
+    void testReachAndStats() throws IOException {
+        JsonObject reach = get("/reach?from=" + result.source + "&to=" + result.source);
+        assertTrue(reach.get("reachable").getAsBoolean());
+
+        JsonObject stats = get("/stats");
+        assertEquals(result.nodes, stats.get("nodes").getAsInt());
+        assertEquals(result.sccCount, stats.get("sccs").getAsInt());
+        assertTrue(stats.getAsJsonObject("counters").get("server.requests").getAsLong() >= 2);
+    }
+
+    @Test
+    void testBadRequests() {
+        IOException missing = assertThrows(IOException.class, () -> get("/shortest?from=0"));
+        assertTrue(missing.getMessage().contains("HTTP 400"));
+        IOException range = assertThrows(IOException.class, () -> get("/reach?from=0&to=" + result.nodes));
+        assertTrue(range.getMessage().contains("out of range"));
+    }
+
+    @Test
+    void testHandlerFailureIsServerError() throws IOException {
+        // Point every condensation edge outside the graph, so a path query that
+        // follows one throws inside the finder.
+        Arrays.fill(result.condensation.targets, Integer.MAX_VALUE);
+        IOException failed = assertThrows(IOException.class,
+                () -> get("/critical?from=" + firstNodeWithOutEdge()));
+        assertTrue(failed.getMessage().contains("HTTP 500"));
+
+        JsonObject stats = get("/stats");
+        assertEquals(1, stats.getAsJsonObject("counters").get("server.errors").getAsLong());
+    }
+
+    private int firstNodeWithOutEdge() {
+        for (int u = 0; u < result.nodes; u++) {
+            int c = result.scc.getSccId(u);
+            if (c != result.sourceScc && result.condensation.outDegree(c) > 0) {
+                return u;
+            }
+        }
+        throw new AssertionError("no condensation edge outside the source component");
+    }
+
+    @Test
+    void testLoadTestReportsEveryRequest() throws Exception {
+        QueryLoadTest test = new QueryLoadTest();
+        test.baseUrl = "http://localhost:" + server.port();
+        test.requests = 200;
+        test.warmup = 20;
+        test.threads = 2;
+        QueryLoadTest.Report report = test.run();
+        assertEquals(0, report.failed);
+        assertEquals(200, report.latencies.length);
+        assertTrue(report.percentile(50) <= report.percentile(99));
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CsrGraphTest {
+
+    @Test
+    void testBuilderKeepsInsertionOrderPerNode() {
+        CsrGraph g = new CsrGraph.Builder(4)
+                .addEdge(2, 3, 7)
+                .addEdge(0, 2, 1)
+                .addEdge(0, 1, 4)
+                .build();
+
+        assertEquals(4, g.V);
+        assertEquals(3, g.E);
+        assertArrayEquals(new int[]{0, 2, 2, 3, 3}, g.offsets);
+        assertArrayEquals(new int[]{2, 1, 3}, g.targets);
+        assertArrayEquals(new int[]{1, 4, 7}, g.weights);
+        assertFalse(g.isCondensation());
+    }
+
+    @Test
+    void testBuilderRejectsOutOfRangeEdge() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.addEdge(0, 2, 1));
+    }
+
+    @Test
+    void testTranspose() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 5);
+        g.addEdge(0, 2, 6);
+        g.addEdge(1, 2, 7);
+
+        CsrGraph t = g.toCsr().transpose();
+        assertEquals(0, t.outDegree(0));
+        assertEquals(1, t.outDegree(1));
+        assertEquals(2, t.outDegree(2));
+        assertEquals(0, t.targets[t.offsets[1]]);
+        assertEquals(5, t.weights[t.offsets[1]]);
+    }
+
+    @Test
+    void testCondensationWeightsResolved() {
+        Graph g = new Graph(3);
+        g.addCondensationEdge(0, 1, 5);
+        g.addCondensationEdge(0, 1, 3);
+        g.addEdge(1, 2, 4);
+
+        CsrGraph csr = g.toCsr();
+        assertTrue(csr.isCondensation());
+        assertEquals(3, csr.minWeights[0]);
+        assertEquals(5, csr.maxWeights[0]);
+        assertEquals(4, csr.minWeights[1]);
+        assertEquals(4, csr.maxWeights[1]);
+
+        Graph back = csr.toGraph();
+        assertEquals(3, back.adj.get(0).get(0).minWeight);
+        assertEquals(5, back.adj.get(0).get(0).maxWeight);
+    }
+}
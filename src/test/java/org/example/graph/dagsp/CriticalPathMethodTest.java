@@ -0,0 +1,90 @@
+package org.example.graph.dagsp;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.topo.ParallelKahnSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CriticalPathMethodTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testTwoBranchProject() {
+        // 0 -> 1 -> 3 takes 3 + 4, 0 -> 2 -> 3 takes 2 + 1, 3 -> 4 takes 2.
+        CsrGraph.Builder builder = new CsrGraph.Builder(5);
+        builder.addEdge(0, 1, 3);
+        builder.addEdge(0, 2, 2);
+        builder.addEdge(1, 3, 4);
+        builder.addEdge(2, 3, 1);
+        builder.addEdge(3, 4, 2);
+        CsrGraph g = builder.build();
+
+        CriticalPathMethod.CpmResult cpm = new CriticalPathMethod(g, new int[]{0, 1, 2, 3, 4}, metrics).run();
+        assertEquals(9, cpm.projectLength);
+        assertArrayEquals(new long[]{0, 3, 2, 7, 9}, cpm.earliestStart);
+        assertArrayEquals(new long[]{0, 3, 6, 7, 9}, cpm.latestStart);
+        assertArrayEquals(new long[]{0, 0, 4, 0, 0}, cpm.slack);
+        assertArrayEquals(new int[]{0, 1, 3, 4}, cpm.criticalTasks);
+        assertFalse(cpm.isCritical(2));
+        assertEquals(2L * g.E, metrics.getCounter("dagsp.cpm.relaxations"));
+    }
+
+    @Test
+    void testMatchesLongestPathPerNode() {
+        Random random = new Random(22);
+        for (int round = 0; round < 10; round++) {
+            int n = 20 + random.nextInt(60);
+            CsrGraph.Builder builder = new CsrGraph.Builder(n);
+            for (int u = 0; u < n; u++) {
+                for (int v = u + 1; v < n; v++) {
+                    if (random.nextInt(8) == 0) {
+                        builder.addEdge(u, v, random.nextInt(20));
+                    }
+                }
+            }
+            CsrGraph g = builder.build();
+            int[] order = new ParallelKahnSort(g, metrics).run().order;
+            CriticalPathMethod.CpmResult cpm = new CriticalPathMethod(g, order, metrics).run();
+
+            // Slow reference: one longest-path run per node in each direction.
+            CsrGraph reverse = g.transpose();
+            int[] reverseOrder = new int[n];
+            for (int i = 0; i < n; i++) {
+                reverseOrder[i] = order[n - 1 - i];
+            }
+            DAGPathFinder forward = new DAGPathFinder(g, order, metrics);
+            DAGPathFinder backward = new DAGPathFinder(reverse, reverseOrder, metrics);
+            long[] earliest = new long[n];
+            long[] tail = new long[n];
+            for (int u = 0; u < n; u++) {
+                long[] from = forward.run(u, true).distances;
+                long[] to = backward.run(u, true).distances;
+                for (int v = 0; v < n; v++) {
+                    earliest[v] = Math.max(earliest[v], from[v]);
+                    tail[v] = Math.max(tail[v], to[v]);
+                }
+            }
+            long project = 0;
+            for (int v = 0; v < n; v++) {
+                project = Math.max(project, earliest[v]);
+            }
+            assertEquals(project, cpm.projectLength);
+            for (int v = 0; v < n; v++) {
+                assertEquals(earliest[v], cpm.earliestStart[v]);
+                assertEquals(project - tail[v], cpm.latestStart[v]);
+                assertTrue(cpm.slack[v] >= 0);
+            }
+        }
+    }
+}
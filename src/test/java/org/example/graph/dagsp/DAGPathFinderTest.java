@@ -1,12 +1,15 @@
 package org.example.graph.dagsp;
 
 import org.example.Metrics;
+import org.example.graph.CsrGraph;
 import org.example.graph.Graph;
 import org.example.graph.topo.TopologicalSort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -130,5 +133,122 @@ class DAGPathFinderTest {
         
         assertTrue(shortest.distances[2] <= longest.distances[2]);
     }
-}
 
+    @Test
+    void testBatchMatchesSingleSourceRuns() {
+        Random random = new Random(4);
+        int n = 300;
+        Graph g = new Graph(n);
+        for (int i = 0; i < 1500; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                g.addEdge(Math.min(a, b), Math.max(a, b), 1 + random.nextInt(20));
+            }
+        }
+        List<Integer> order = new TopologicalSort(g, metrics).run();
+        DAGPathFinder finder = new DAGPathFinder(g, order, metrics);
+        int[] sources = {0, 5, 17, 150, 299};
+
+        for (boolean longest : new boolean[]{false, true}) {
+            long[] matrix = finder.runBatch(sources, longest);
+            assertEquals(sources.length * n, matrix.length);
+            for (int row = 0; row < sources.length; row++) {
+                long[] expected = finder.run(sources[row], longest).distances;
+                for (int v = 0; v < n; v++) {
+                    assertEquals(expected[v], matrix[row * n + v]);
+                }
+            }
+
+            long[][] streamed = new long[sources.length][];
+            finder.runBatch(sources, longest, (row, source, distances) -> streamed[row] = distances.clone());
+            for (int row = 0; row < sources.length; row++) {
+                assertArrayEquals(Arrays.copyOfRange(matrix, row * n, (row + 1) * n), streamed[row]);
+            }
+        }
+    }
+
+    @Test
+    void testFusedPassMatchesSeparateRuns() {
+        Random random = new Random(9);
+        int n = 200;
+        Graph g = new Graph(n);
+        for (int i = 0; i < 1200; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                g.addCondensationEdge(Math.min(a, b), Math.max(a, b), 1 + random.nextInt(20));
+            }
+        }
+        CsrGraph csr = g.toCsr();
+        int[] order = new TopologicalSort(csr, metrics).run().stream().mapToInt(Integer::intValue).toArray();
+        Metrics separateMetrics = new Metrics();
+        Metrics fusedMetrics = new Metrics();
+        DAGPathFinder separate = new DAGPathFinder(csr, order, separateMetrics);
+        DAGPathFinder fused = new DAGPathFinder(csr, order, fusedMetrics);
+
+        for (int source : new int[]{0, 42, 199}) {
+            DAGPathFinder.PathResult shortest = separate.run(source, false);
+            DAGPathFinder.PathResult longest = separate.run(source, true);
+            DAGPathFinder.PathPair both = fused.runBoth(source);
+
+            assertArrayEquals(shortest.distances, both.shortest.distances);
+            assertArrayEquals(shortest.parent, both.shortest.parent);
+            assertArrayEquals(longest.distances, both.longest.distances);
+            assertArrayEquals(longest.parent, both.longest.parent);
+        }
+        assertEquals(separateMetrics.getCounter("dagsp.relaxations"), 2 * fusedMetrics.getCounter("dagsp.relaxations"));
+    }
+
+    @Test
+    void testPointToPointQueryMatchesFullRun() {
+        Random random = new Random(21);
+        int n = 150;
+        Graph g = new Graph(n);
+        for (int i = 0; i < 400; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                g.addCondensationEdge(Math.min(a, b), Math.max(a, b), 1 + random.nextInt(20));
+            }
+        }
+        CsrGraph csr = g.toCsr();
+        List<Integer> order = new TopologicalSort(csr, metrics).run();
+        DAGPathFinder finder = new DAGPathFinder(csr, order, metrics);
+        finder.run(0, false);
+        // Only point-to-point queries register their counter.
+        assertFalse(metrics.counters().containsKey("dagsp.query.pruned"));
+
+        for (int source = 0; source < n; source += 7) {
+            for (boolean longest : new boolean[]{false, true}) {
+                DAGPathFinder.PathResult full = finder.run(source, longest);
+                for (int target = 0; target < n; target++) {
+                    DAGPathFinder.Path path = finder.query(source, target, longest);
+                    assertEquals(full.distances[target], path.distance);
+                    assertEquals(full.reconstructPath(target).isEmpty(), path.path.isEmpty());
+                    if (!path.path.isEmpty()) {
+                        assertEquals(source, path.path.get(0));
+                        assertEquals(target, path.path.get(path.path.size() - 1));
+                        assertEquals(path.distance, weightOf(csr, path.path, longest));
+                    }
+                }
+            }
+        }
+        assertEquals(List.of(3), finder.query(3, 3, false).path);
+        assertTrue(metrics.counters().containsKey("dagsp.query.pruned"));
+    }
+
+    private static long weightOf(CsrGraph g, List<Integer> path, boolean longest) {
+        long total = 0;
+        for (int k = 0; k + 1 < path.size(); k++) {
+            int u = path.get(k);
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                if (g.targets[i] == path.get(k + 1)) {
+                    total += longest ? g.maxWeights[i] : g.minWeights[i];
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+}
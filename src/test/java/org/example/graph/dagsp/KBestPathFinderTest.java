@@ -0,0 +1,177 @@
+package org.example.graph.dagsp;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.topo.ParallelKahnSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class KBestPathFinderTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testDiamondPaths() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(4);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(0, 2, 5);
+        builder.addEdge(1, 3, 1);
+        builder.addEdge(2, 3, 1);
+        builder.addEdge(0, 3, 4);
+
+        KBestPathFinder finder = new KBestPathFinder(builder.build(), 2, metrics);
+        KBestPathFinder.KBestResult shortest = finder.run(0, false);
+        assertEquals(2, shortest.count(3));
+        assertEquals(2, shortest.distance(3, 0));
+        assertEquals(Arrays.asList(0, 1, 3), shortest.reconstructPath(3, 0));
+        assertEquals(4, shortest.distance(3, 1));
+        assertEquals(Arrays.asList(0, 3), shortest.reconstructPath(3, 1));
+
+        KBestPathFinder.KBestResult longest = finder.run(0, true);
+        assertEquals(6, longest.distance(3, 0));
+        assertEquals(Arrays.asList(0, 2, 3), longest.reconstructPath(3, 0));
+        List<DAGPathFinder.Path> chains = longest.bestPaths();
+        assertEquals(2, chains.size());
+        assertEquals(6, chains.get(0).distance);
+        assertEquals(4, chains.get(1).distance);
+        assertEquals(Arrays.asList(0, 3), chains.get(1).path);
+    }
+
+    @Test
+    void testSingleChainIsOnePath() {
+        // Every prefix of the chain is a path too, but only the full one is complete.
+        CsrGraph.Builder builder = new CsrGraph.Builder(5);
+        for (int u = 0; u + 1 < 5; u++) {
+            builder.addEdge(u, u + 1, 2);
+        }
+        KBestPathFinder finder = new KBestPathFinder(builder.build(), 3, metrics);
+        for (boolean longest : new boolean[]{false, true}) {
+            List<DAGPathFinder.Path> chains = finder.run(0, longest).bestPaths();
+            assertEquals(1, chains.size());
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4), chains.get(0).path);
+            assertEquals(8, chains.get(0).distance);
+        }
+    }
+
+    @Test
+    void testUnreachableNodesHaveNoPaths() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(3);
+        builder.addEdge(1, 0, 1);
+        builder.addEdge(0, 2, 1);
+        KBestPathFinder.KBestResult result = new KBestPathFinder(builder.build(), 3, metrics).run(0, true);
+        assertEquals(0, result.count(1));
+        assertTrue(result.reconstructPath(1, 0).isEmpty());
+        assertEquals(1, result.count(2));
+        assertEquals(1, result.distance(2, 0));
+    }
+
+    @Test
+    void testMatchesPathEnumeration() {
+        Random random = new Random(21);
+        for (int round = 0; round < 20; round++) {
+            int n = 6 + random.nextInt(10);
+            CsrGraph.Builder builder = new CsrGraph.Builder(n);
+            for (int u = 0; u < n; u++) {
+                for (int v = u + 1; v < n; v++) {
+                    if (random.nextInt(3) == 0) {
+                        builder.addEdge(u, v, 1 + random.nextInt(9));
+                    }
+                }
+            }
+            CsrGraph g = builder.build();
+            int k = 1 + random.nextInt(6);
+            KBestPathFinder finder = new KBestPathFinder(g, new ParallelKahnSort(g, metrics).run(), k, metrics, 2);
+            for (boolean longest : new boolean[]{false, true}) {
+                KBestPathFinder.KBestResult result = finder.run(0, longest);
+                List<Long> all = new ArrayList<>();
+                for (int target = 0; target < n; target++) {
+                    List<Long> expected = new ArrayList<>();
+                    enumerate(g, 0, target, 0, expected);
+                    if (g.outDegree(target) == 0) {
+                        all.addAll(expected);
+                    }
+                    expected.sort(longest ? (a, b) -> Long.compare(b, a) : Long::compare);
+                    List<DAGPathFinder.Path> paths = result.paths(target);
+                    assertEquals(Math.min(k, expected.size()), paths.size());
+                    for (int r = 0; r < paths.size(); r++) {
+                        assertEquals(expected.get(r), paths.get(r).distance);
+                        assertEquals(paths.get(r).distance, length(g, paths.get(r).path));
+                    }
+                }
+                all.sort(longest ? (a, b) -> Long.compare(b, a) : Long::compare);
+                List<DAGPathFinder.Path> best = result.bestPaths();
+                assertEquals(Math.min(k, all.size()), best.size());
+                for (int r = 0; r < best.size(); r++) {
+                    assertEquals(all.get(r), best.get(r).distance);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParallelWavesMatchSequential() {
+        int n = 50_000;
+        Random random = new Random(4);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, 3 * n);
+        for (int u = 0; u < n; u++) {
+            for (int j = 0; j < 3; j++) {
+                int v = u + 1 + random.nextInt(5000);
+                if (v < n) {
+                    builder.addEdge(u, v, 1 + random.nextInt(20));
+                }
+            }
+        }
+        CsrGraph g = builder.build();
+        ParallelKahnSort.Schedule schedule = new ParallelKahnSort(g, metrics).run();
+        KBestPathFinder.KBestResult one = new KBestPathFinder(g, schedule, 4, metrics, 1).run(0, true);
+        KBestPathFinder.KBestResult four = new KBestPathFinder(g, schedule, 4, metrics, 4).run(0, true);
+        DAGPathFinder.PathResult single = new DAGPathFinder(g, schedule.order, metrics).run(0, true);
+        for (int v = 0; v < n; v++) {
+            assertEquals(one.count(v), four.count(v));
+            for (int r = 0; r < one.count(v); r++) {
+                assertEquals(one.distance(v, r), four.distance(v, r));
+            }
+            if (one.count(v) > 0) {
+                assertEquals(single.distances[v], one.distance(v, 0));
+            }
+        }
+    }
+
+    private static void enumerate(CsrGraph g, int u, int target, long length, List<Long> out) {
+        if (u == target) {
+            out.add(length);
+            return;
+        }
+        for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+            enumerate(g, g.targets[i], target, length + g.weights[i], out);
+        }
+    }
+
+    private static long length(CsrGraph g, List<Integer> path) {
+        long total = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int u = path.get(i);
+            int best = -1;
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                if (g.targets[e] == path.get(i + 1)) {
+                    best = e;
+                }
+            }
+            assertTrue(best >= 0, "path uses a missing edge");
+            total += g.weights[best];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.graph.io;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.example.graph.offheap.IntArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BinaryGraphFormatTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripDataset() throws IOException {
+        GraphDataset json = JsonGraphLoader.load("data/medium_2.json");
+        Path file = dir.resolve("medium_2" + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(file.toString(), json);
+
+        GraphDataset binary = GraphFiles.load(file.toString());
+        assertEquals(json.directed, binary.directed);
+        assertEquals(json.source, binary.source);
+        assertEquals(json.weightModel, binary.weightModel);
+        assertEquals(json.graph.V, binary.graph.V);
+        assertArrayEquals(json.graph.offsets, binary.graph.offsets);
+        assertArrayEquals(json.graph.targets, binary.graph.targets);
+        assertArrayEquals(json.graph.weights, binary.graph.weights);
+        assertFalse(binary.graph.isCondensation());
+    }
+
+    @Test
+    void testRoundTripCondensationWeights() throws IOException {
+        Graph g = new Graph(3);
+        g.addCondensationEdge(0, 1, 5);
+        g.addCondensationEdge(0, 1, 2);
+        g.addCondensationEdge(1, 2, 7);
+        CsrGraph csr = g.toCsr();
+        Path file = dir.resolve("condensation" + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(file, csr, true, 0, "edge");
+
+        CsrGraph loaded = BinaryGraphFormat.load(file.toString()).graph;
+        assertTrue(loaded.isCondensation());
+        assertArrayEquals(csr.minWeights, loaded.minWeights);
+        assertArrayEquals(csr.maxWeights, loaded.maxWeights);
+    }
+
+    @Test
+    void testMapMatchesLoad() throws IOException {
+        Graph g = new Graph(3);
+        g.addCondensationEdge(0, 1, 5);
+        g.addCondensationEdge(0, 1, 2);
+        g.addCondensationEdge(1, 2, 7);
+        CsrGraph csr = g.toCsr();
+        Path file = dir.resolve("mapped" + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(file, csr, true, 1, "node");
+
+        OffHeapDataset mapped = BinaryGraphFormat.map(file.toString());
+        assertEquals(1, mapped.source);
+        assertEquals("node", mapped.weightModel);
+        assertEquals(csr.V, mapped.graph.V);
+        assertEquals(csr.E, mapped.graph.E);
+        assertTrue(mapped.graph.isCondensation());
+        for (int u = 0; u <= csr.V; u++) {
+            assertEquals(csr.offsets[u], mapped.graph.offsets.get(u));
+        }
+        for (int i = 0; i < csr.E; i++) {
+            assertEquals(csr.targets[i], mapped.graph.targets.get(i));
+            assertEquals(csr.minWeights[i], mapped.graph.minWeights.get(i));
+            assertEquals(csr.maxWeights[i], mapped.graph.maxWeights.get(i));
+        }
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        Path file = dir.resolve("bogus" + BinaryGraphFormat.EXTENSION);
+        Files.write(file, new byte[BinaryGraphFormat.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> BinaryGraphFormat.load(file.toString()));
+    }
+
+    @Test
+    void testRejectsCorruptSections() throws IOException {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 4);
+        g.addEdge(0, 2, 1);
+        g.addEdge(1, 2, 2);
+        Path file = dir.resolve("corrupt" + BinaryGraphFormat.EXTENSION);
+        int offsets = BinaryGraphFormat.HEADER_SIZE;
+        int targets = offsets + 4 * 4;
+
+        // V, weight model length, offsets[1] (2 -> 4 > offsets[2]), targets[1]
+        int[][] patches = {{12, -1}, {28, 99}, {offsets + 4, 4}, {targets + 4, 3}, {targets + 4, -1}};
+        for (int[] patch : patches) {
+            BinaryGraphFormat.write(file, g.toCsr(), true, 0, "edge");
+            assertNotNull(BinaryGraphFormat.load(file.toString()));
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(patch[0], patch[1]);
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> BinaryGraphFormat.load(file.toString()),
+                    "patch at " + patch[0]);
+            assertThrows(IOException.class, () -> BinaryGraphFormat.map(file.toString()),
+                    "patch at " + patch[0]);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IOException.class, () -> IntArray.map(channel, -4, 1));
+        }
+    }
+
+    @Test
+    void testBinaryName() {
+        assertEquals("data/small_1.csrg", GraphFiles.binaryName("data/small_1.json"));
+    }
+}
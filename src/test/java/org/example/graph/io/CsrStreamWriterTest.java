@@ -0,0 +1,61 @@
+package org.example.graph.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CsrStreamWriterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testFailedOpenRemovesWeightsFile() throws IOException {
+        // The output path is a directory, so opening it for writing fails after
+        // the temporary weights file has already been created next to it.
+        Path path = Files.createDirectory(dir.resolve("graph.csrg"));
+
+        assertThrows(IOException.class, () -> new CsrStreamWriter(path, 4, true, 0, "edge"));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> left = files.collect(Collectors.toList());
+            assertEquals(List.of(path), left);
+        }
+    }
+
+
+    @Test
+    void testWritesLoadableGraph() throws IOException {
+        Path path = dir.resolve("graph.csrg");
+        try (CsrStreamWriter writer = new CsrStreamWriter(path, 3, true, 0, "edge")) {
+            writer.writeEdges(new int[]{0, 1}, new int[]{1, 2}, new int[]{5, 6}, 2);
+            writer.finish();
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+        assertEquals(2, BinaryGraphFormat.load(path.toString()).graph.E);
+    }
+
+
+    @Test
+    void testUnfinishedWriterLeavesNoFiles() throws IOException {
+        Path path = dir.resolve("graph.csrg");
+        try (CsrStreamWriter writer = new CsrStreamWriter(path, 3, true, 0, "edge")) {
+            writer.writeEdges(new int[]{0, 1}, new int[]{1, 2}, new int[]{5, 6}, 2);
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.graph.io;
+
+import org.example.graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class JsonGraphLoaderTest {
+
+    @Test
+    void testLoadsDatasetFile() throws IOException {
+        GraphDataset data = JsonGraphLoader.load("data/small_1.json");
+
+        assertTrue(data.directed);
+        assertEquals(8, data.graph.V);
+        assertEquals(8, data.graph.E);
+        assertEquals(0, data.source);
+        assertEquals("edge", data.weightModel);
+        assertTrue(data.sizeBytes > 0);
+        assertEquals(1, data.graph.targets[data.graph.offsets[0]]);
+        assertEquals(1, data.graph.weights[data.graph.offsets[0]]);
+    }
+
+    @Test
+    void testFieldOrderAndUnknownFields() throws IOException {
+        String json = "{\"edges\": [{\"w\": 4, \"v\": 2, \"u\": 1, \"label\": \"x\"}, {\"u\": 0, \"v\": 1, \"w\": 3}],"
+                + " \"meta\": {\"a\": [1, 2]}, \"source\": 1, \"n\": 3, \"weight_model\": \"edge\"}";
+        GraphDataset data = JsonGraphLoader.load(new StringReader(json), json.length());
+        CsrGraph g = data.graph;
+
+        assertEquals(3, g.V);
+        assertEquals(1, data.source);
+        assertArrayEquals(new int[]{0, 1, 2, 2}, g.offsets);
+        assertArrayEquals(new int[]{1, 2}, g.targets);
+        assertArrayEquals(new int[]{3, 4}, g.weights);
+    }
+
+    @Test
+    void testEdgeOutsideVertexCountIsRejected() {
+        String json = "{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 5, \"w\": 1}]}";
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> JsonGraphLoader.load(new StringReader(json), json.length()));
+    }
+
+    @Test
+    void testMissingVertexCountIsRejected() {
+        String json = "{\"edges\": []}";
+        assertThrows(IOException.class, () -> JsonGraphLoader.load(new StringReader(json), json.length()));
+    }
+
+    @Test
+    void testEdgeWithoutEndpointIsRejected() {
+        String json = "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1}, {\"u\": 1, \"w\": 2}]}";
+        IOException e = assertThrows(IOException.class,
+                () -> JsonGraphLoader.load(new StringReader(json), json.length()));
+        assertTrue(e.getMessage().endsWith("edge 1"));
+    }
+}
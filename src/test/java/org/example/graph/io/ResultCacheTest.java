@@ -0,0 +1,189 @@
+package org.example.graph.io;
+
+import org.example.Main;
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.PearceSCC;
+import org.example.graph.scc.PrecomputedScc;
+import org.example.graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ResultCacheTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripThroughPrecomputedScc() throws IOException {
+        CsrGraph g = randomGraph(200, 600, 3);
+        ResultCache cache = new ResultCache(dir, 1L << 20);
+        String key = ResultCache.key(g);
+        assertNull(cache.get(key, g.V));
+
+        ResultCache.Entry entry = compute(g);
+        cache.put(key, entry);
+        ResultCache.Entry loaded = cache.get(key, g.V);
+        assertNotNull(loaded);
+        assertArrayEquals(entry.sccMap, loaded.sccMap);
+        assertArrayEquals(entry.order, loaded.order);
+        assertEquals("dfs", loaded.topoMode);
+        assertArrayEquals(entry.condensation.offsets, loaded.condensation.offsets);
+        assertArrayEquals(entry.condensation.targets, loaded.condensation.targets);
+        assertArrayEquals(entry.condensation.minWeights, loaded.condensation.minWeights);
+        assertArrayEquals(entry.condensation.maxWeights, loaded.condensation.maxWeights);
+
+        PearceSCC expected = new PearceSCC(g, new Metrics());
+        expected.run();
+        PrecomputedScc view = new PrecomputedScc(loaded.sccMap, loaded.sccCount, loaded.condensation);
+        assertEquals(expected.getSccs(), view.getSccs());
+        assertEquals(expected.getSccCount(), view.getSccCount());
+    }
+
+    @Test
+    void testKahnOrderIsNotReusedForDfs() throws IOException {
+        Main.Options cold = new Main.Options();
+        List<Integer> expected = Main.analyze("data/small_2.json", cold, new Metrics()).topoOrder;
+
+        Main.Options kahn = new Main.Options();
+        kahn.cacheDir = dir.toString();
+        kahn.topoMode = "kahn";
+        List<Integer> kahnOrder = Main.analyze("data/small_2.json", kahn, new Metrics()).topoOrder;
+        assertNotEquals(expected, kahnOrder);
+
+        Main.Options dfs = new Main.Options();
+        dfs.cacheDir = dir.toString();
+        Main.Result first = Main.analyze("data/small_2.json", dfs, new Metrics());
+        assertTrue(first.cacheStatus.startsWith("hit"));
+        assertEquals(expected, first.topoOrder);
+        // The DFS run rewrote the entry, so the next one reuses its order.
+        Metrics metrics = new Metrics();
+        assertEquals(expected, Main.analyze("data/small_2.json", dfs, metrics).topoOrder);
+        assertEquals("dfs", new ResultCache(dir, 1L << 30).get(ResultCache.key(first.graph), first.nodes).topoMode);
+    }
+
+    @Test
+    void testKeyDependsOnWeights() {
+        CsrGraph a = randomGraph(50, 100, 1);
+        CsrGraph b = randomGraph(50, 100, 1);
+        assertEquals(ResultCache.key(a), ResultCache.key(b));
+
+        b.weights[0]++;
+        assertNotEquals(ResultCache.key(a), ResultCache.key(b));
+    }
+
+    @Test
+    void testCorruptEntryIsMiss() throws IOException {
+        CsrGraph g = randomGraph(50, 100, 2);
+        ResultCache cache = new ResultCache(dir, 1L << 20);
+        String key = ResultCache.key(g);
+        cache.put(key, compute(g));
+
+        Path file = dir.resolve(key + ResultCache.EXTENSION);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(cache.get(key, g.V));
+
+        Files.write(file, new byte[100]);
+        assertNull(cache.get(key, g.V));
+    }
+
+    @Test
+    void testInconsistentEntryIsDeletedMiss() throws IOException {
+        CsrGraph g = randomGraph(50, 100, 2);
+        ResultCache cache = new ResultCache(dir, 1L << 20);
+        String key = ResultCache.key(g);
+        ResultCache.Entry entry = compute(g);
+        cache.put(key, entry);
+        Path file = dir.resolve(key + ResultCache.EXTENSION);
+        byte[] good = Files.readAllBytes(file);
+
+        // Header is 64 bytes, then sccMap int[V], offsets, targets, min, max, order.
+        int C = entry.sccCount;
+        int E = entry.condensation.E;
+        long sccMap = 64;
+        long targets = sccMap + 4L * (g.V + 1 + C);
+        long order = targets + 12L * E;
+        assertTrue(C > 1 && E > 0);
+        for (long[] damage : new long[][]{{sccMap + 4, C}, {sccMap, -1}, {targets, C}, {order, -1},
+                {order + 4, entry.order[0]}}) {
+            ByteBuffer bytes = ByteBuffer.wrap(good.clone()).order(ByteOrder.LITTLE_ENDIAN);
+            bytes.putInt((int) damage[0], (int) damage[1]);
+            Files.write(file, bytes.array());
+            assertNull(cache.get(key, g.V));
+            assertFalse(Files.exists(file));
+        }
+    }
+
+    @Test
+    void testEntryForAnotherNodeCountIsMiss() throws IOException {
+        CsrGraph g = randomGraph(50, 100, 2);
+        ResultCache cache = new ResultCache(dir, 1L << 20);
+        String key = ResultCache.key(g);
+        cache.put(key, compute(g));
+
+        assertNotNull(cache.get(key, g.V));
+        assertNull(cache.get(key, g.V + 1));
+        assertNull(cache.get(key, g.V));
+
+        cache.put(key, compute(g));
+        assertNull(cache.get(key, g.V - 1));
+        assertFalse(Files.exists(dir.resolve(key + ResultCache.EXTENSION)));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        CsrGraph a = randomGraph(300, 900, 4);
+        CsrGraph b = randomGraph(300, 900, 5);
+        CsrGraph c = randomGraph(300, 900, 6);
+        ResultCache cache = new ResultCache(dir, Long.MAX_VALUE);
+        cache.put(ResultCache.key(a), compute(a));
+        long entrySize = cache.sizeBytes();
+
+        cache = new ResultCache(dir, 2 * entrySize + entrySize / 2);
+        cache.put(ResultCache.key(b), compute(b));
+        age(a, 2000);
+        age(b, 1000);
+        assertNotNull(cache.get(ResultCache.key(a), a.V));
+
+        cache.put(ResultCache.key(c), compute(c));
+        assertNotNull(cache.get(ResultCache.key(a), a.V));
+        assertNull(cache.get(ResultCache.key(b), b.V));
+        assertNotNull(cache.get(ResultCache.key(c), c.V));
+        assertTrue(cache.sizeBytes() <= 2 * entrySize + entrySize / 2);
+    }
+
+    private void age(CsrGraph g, long millis) throws IOException {
+        Path file = dir.resolve(ResultCache.key(g) + ResultCache.EXTENSION);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - millis));
+    }
+
+    private static ResultCache.Entry compute(CsrGraph g) {
+        PearceSCC scc = new PearceSCC(g, new Metrics());
+        scc.run();
+        CsrGraph condensation = scc.getCondensationCsr();
+        int[] order = new TopologicalSort(condensation, new Metrics()).run().stream().mapToInt(Integer::intValue).toArray();
+        return new ResultCache.Entry(PrecomputedScc.sccMapOf(scc, g.V), scc.getSccCount(), condensation, order, "dfs");
+    }
+
+    private static CsrGraph randomGraph(int n, int m, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, m);
+        for (int i = 0; i < m; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+        }
+        return builder.build();
+    }
+}
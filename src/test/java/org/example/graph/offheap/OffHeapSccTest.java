@@ -0,0 +1,102 @@
+package org.example.graph.offheap;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.scc.PearceSCC;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class OffHeapSccTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    private static CsrGraph randomGraph(Random random, int n, int m) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, m);
+        for (int i = 0; i < m; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testMatchesHeapPipeline() {
+        Random random = new Random(23);
+        for (int round = 0; round < 10; round++) {
+            int n = 20 + random.nextInt(300);
+            CsrGraph g = randomGraph(random, n, n + random.nextInt(2 * n));
+            PearceSCC heap = new PearceSCC(g, metrics);
+            heap.run();
+            OffHeapScc offHeap = new OffHeapScc(OffHeapGraph.copyOf(g), metrics);
+            offHeap.run();
+            assertEquals(heap.getSccCount(), offHeap.getSccCount());
+
+            // Same partition; remember how off-heap ids map to canonical ones.
+            int C = heap.getSccCount();
+            int[] canonical = new int[C];
+            for (int u = 0; u < n; u++) {
+                canonical[offHeap.getSccId(u)] = heap.getSccId(u);
+            }
+            for (int u = 0; u < n; u++) {
+                assertEquals(heap.getSccId(u), canonical[offHeap.getSccId(u)]);
+            }
+
+            CsrGraph expected = heap.getCondensationCsr();
+            OffHeapGraph condensation = offHeap.getCondensation();
+            assertEquals(expected.E, condensation.E);
+            assertTrue(condensation.isCondensation());
+            long[] minMax = new long[C * C];
+            for (int c = 0; c < C; c++) {
+                for (int i = condensation.offsets.get(c); i < condensation.offsets.get(c + 1); i++) {
+                    int to = condensation.targets.get(i);
+                    assertTrue(c < to, "ids are a topological order");
+                    minMax[canonical[c] * C + canonical[to]] = ((long) condensation.minWeights.get(i) << 32)
+                            | condensation.maxWeights.get(i);
+                }
+            }
+            for (int c = 0; c < C; c++) {
+                for (int i = expected.offsets[c]; i < expected.offsets[c + 1]; i++) {
+                    long edge = ((long) expected.minWeights[i] << 32) | expected.maxWeights[i];
+                    assertEquals(edge, minMax[c * C + expected.targets[i]]);
+                }
+            }
+
+            IntArray order = new OffHeapTopoSort(condensation, metrics).run();
+            assertNotNull(order);
+            int[] heapOrder = new int[C];
+            for (int k = 0; k < C; k++) {
+                heapOrder[k] = canonical[order.get(k)];
+            }
+            int source = random.nextInt(n);
+            OffHeapPathFinder.Paths paths = new OffHeapPathFinder(condensation, order, metrics)
+                    .runBoth(offHeap.getSccId(source));
+            DAGPathFinder.PathPair reference = new DAGPathFinder(expected, heapOrder, metrics)
+                    .runBoth(heap.getSccId(source));
+            for (int c = 0; c < C; c++) {
+                assertEquals(reference.shortest.distances[canonical[c]], paths.shortest(c));
+                assertEquals(reference.longest.distances[canonical[c]], paths.longest(c));
+            }
+            int target = paths.criticalTarget();
+            assertEquals(reference.longest.getLongestPath().distance, paths.longest(target));
+            assertEquals(offHeap.getSccId(source), (int) paths.path(target, true).get(0));
+        }
+    }
+
+    @Test
+    void testTopoSortDetectsCycle() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(3);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(1, 2, 1);
+        builder.addEdge(2, 1, 1);
+        assertNull(new OffHeapTopoSort(OffHeapGraph.copyOf(builder.build()), metrics).run());
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.graph.reach;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.scc.PearceSCC;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ReachabilityIndexTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testChainWithCycle() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(5);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(1, 0, 1);
+        builder.addEdge(1, 2, 1);
+        builder.addEdge(3, 2, 1);
+        PearceSCC scc = new PearceSCC(builder.build(), metrics);
+        scc.run();
+
+        ReachabilityIndex index = new ReachabilityIndex(scc, 5, metrics).build();
+        assertTrue(index.hasClosure());
+        assertTrue(index.canReach(1, 0));
+        assertTrue(index.canReach(0, 2));
+        assertTrue(index.canReach(3, 2));
+        assertFalse(index.canReach(2, 0));
+        assertFalse(index.canReach(0, 3));
+        assertFalse(index.canReach(4, 0));
+        assertTrue(index.canReach(4, 4));
+    }
+
+    @Test
+    void testClosureAndLabelModesMatchBfs() {
+        Random random = new Random(8);
+        for (int round = 0; round < 8; round++) {
+            int n = 50 + random.nextInt(250);
+            int m = n + random.nextInt(3 * n);
+            CsrGraph.Builder builder = new CsrGraph.Builder(n, m);
+            for (int i = 0; i < m; i++) {
+                builder.addEdge(random.nextInt(n), random.nextInt(n), 1);
+            }
+            CsrGraph g = builder.build();
+            PearceSCC scc = new PearceSCC(g, metrics);
+            scc.run();
+
+            ReachabilityIndex withClosure = new ReachabilityIndex(scc, n, metrics, 2, 1L << 20, 2).build();
+            ReachabilityIndex labelsOnly = new ReachabilityIndex(scc, n, metrics, 3, 0, 2).build();
+            assertTrue(withClosure.hasClosure());
+            assertFalse(labelsOnly.hasClosure());
+            for (int u = 0; u < n; u++) {
+                boolean[] reached = bfs(g, u);
+                for (int v = 0; v < n; v++) {
+                    assertEquals(reached[v], withClosure.canReach(u, v), u + " -> " + v);
+                    assertEquals(reached[v], labelsOnly.canReach(u, v), u + " -> " + v);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testClosureBeyondParallelThreshold() {
+        int n = 20_000;
+        Random random = new Random(2);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, 2 * n);
+        for (int i = 0; i < 2 * n; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                builder.addEdge(Math.min(a, b), Math.max(a, b), 1);
+            }
+        }
+        CsrGraph g = builder.build();
+        PearceSCC scc = new PearceSCC(g, metrics);
+        scc.run();
+        ReachabilityIndex closure = new ReachabilityIndex(scc, n, metrics, 2, 1L << 30, 4).build();
+        ReachabilityIndex labels = new ReachabilityIndex(scc, n, metrics, 2, 0, 4).build();
+        ReachabilityIndex oneHubWord = new ReachabilityIndex(scc, n, metrics, 2,
+                labels.sizeBytes() + 16L * scc.getSccCount(), 4).build();
+        ReachabilityIndex hubs = new ReachabilityIndex(scc, n, metrics, 2, 4L << 20, 4).build();
+        assertTrue(closure.hasClosure());
+        assertEquals(0, labels.getHubCount());
+        assertEquals(64, oneHubWord.getHubCount());
+        assertEquals(256, hubs.getHubCount());
+        assertTrue(hubs.sizeBytes() <= 4L << 20);
+
+        for (int s = 0; s < n; s += 997) {
+            boolean[] reached = bfs(g, s);
+            for (int v = 0; v < n; v += 7) {
+                assertEquals(reached[v], closure.canReach(s, v));
+                assertEquals(reached[v], labels.canReach(s, v));
+                assertEquals(reached[v], oneHubWord.canReach(s, v));
+                assertEquals(reached[v], hubs.canReach(s, v));
+            }
+        }
+    }
+
+    private static boolean[] bfs(CsrGraph g, int source) {
+        boolean[] seen = new boolean[g.V];
+        int[] queue = new int[g.V];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        seen[source] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                if (!seen[g.targets[i]]) {
+                    seen[g.targets[i]] = true;
+                    queue[tail++] = g.targets[i];
+                }
+            }
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.graph.scc;
+
+import org.example.graph.CsrGraph;
+import org.example.graph.Edge;
+import org.example.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CondensationBuilderTest {
+
+    @Test
+    void testAggregatesParallelEdges() {
+        CsrGraph g = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 1)
+                .addEdge(1, 0, 1)
+                .addEdge(0, 2, 5)
+                .addEdge(1, 2, 3)
+                .addEdge(1, 3, 4)
+                .addEdge(0, 2, 8)
+                .build();
+        int[] sccMap = {0, 0, 1, 2};
+
+        CsrGraph c = CondensationBuilder.build(g, sccMap, 3);
+        assertEquals(3, c.V);
+        assertEquals(2, c.E);
+        assertTrue(c.isCondensation());
+        assertArrayEquals(new int[]{1, 2}, c.targets);
+        assertArrayEquals(new int[]{3, 4}, c.minWeights);
+        assertArrayEquals(new int[]{8, 4}, c.maxWeights);
+    }
+
+    @Test
+    void testMatchesPerEdgeConstruction() {
+        Random random = new Random(3);
+        int n = 500;
+        int components = 40;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int i = 0; i < 4000; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(20));
+        }
+        CsrGraph g = builder.build();
+        int[] sccMap = new int[n];
+        for (int u = 0; u < n; u++) {
+            sccMap[u] = random.nextInt(components);
+        }
+
+        Graph expected = new Graph(components);
+        for (int u = 0; u < n; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                if (sccMap[u] != sccMap[g.targets[i]]) {
+                    expected.addCondensationEdge(sccMap[u], sccMap[g.targets[i]], g.weights[i]);
+                }
+            }
+        }
+
+        // Rows come out sorted by target.
+        CsrGraph actual = CondensationBuilder.build(g, sccMap, components);
+        for (int c = 0; c < components; c++) {
+            List<Edge> row = new ArrayList<>(expected.adj.get(c));
+            row.sort(Comparator.comparingInt(e -> e.to));
+            assertEquals(row.size(), actual.outDegree(c));
+            int i = actual.offsets[c];
+            for (Edge e : row) {
+                assertEquals(e.to, actual.targets[i]);
+                assertEquals(e.minWeight, actual.minWeights[i]);
+                assertEquals(e.maxWeight, actual.maxWeights[i]);
+                i++;
+            }
+        }
+    }
+}
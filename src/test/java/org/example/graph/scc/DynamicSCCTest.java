@@ -0,0 +1,208 @@
+package org.example.graph.scc;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.example.graph.io.JsonGraphLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class DynamicSCCTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testBackEdgeMergesChain() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 2);
+        g.addEdge(2, 3, 3);
+
+        DynamicSCC scc = new DynamicSCC(g, metrics);
+        scc.run();
+        assertEquals(4, scc.getSccCount());
+
+        scc.addEdge(2, 0, 5);
+        assertEquals(2, scc.getSccCount());
+        assertTrue(scc.sameScc(0, 2));
+        assertFalse(scc.sameScc(0, 3));
+        assertEquals(1, scc.getCondensationCsr().E);
+        assertEquals(3, scc.getCondensationCsr().minWeights[0]);
+    }
+
+    @Test
+    void testRemovingCycleEdgeSplits() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 4);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+        g.addEdge(1, 0, 7);
+
+        DynamicSCC scc = new DynamicSCC(g, metrics);
+        scc.run();
+        assertEquals(1, scc.getSccCount());
+
+        assertTrue(scc.removeEdge(2, 0, 1));
+        assertEquals(2, scc.getSccCount());
+        assertTrue(scc.sameScc(0, 1));
+        assertFalse(scc.sameScc(1, 2));
+        // The larger piece keeps the id; the other gets the next free one.
+        assertEquals(0, scc.getSccId(0));
+        assertEquals(1, scc.getSccId(2));
+
+        assertFalse(scc.removeEdge(2, 0, 1));
+        assertTrue(scc.removeEdge(1, 0, 7));
+        assertEquals(3, scc.getSccCount());
+        assertFalse(scc.sameScc(0, 1));
+        assertEquals(2, scc.getCondensationCsr().E);
+        assertEquals(Set.of(0, 1, 2), Set.of(scc.getSccId(0), scc.getSccId(1), scc.getSccId(2)));
+    }
+
+    @Test
+    void testCondensationMatchesStaticEngines() throws IOException {
+        for (String path : List.of("data/medium_2.json", "data/medium_3.json")) {
+            CsrGraph g = JsonGraphLoader.load(path).graph;
+            DynamicSCC dynamic = new DynamicSCC(g, metrics);
+            dynamic.run();
+            for (SccEngine expected : List.of(new KosarajuSCC(g, metrics), new PearceSCC(g, metrics))) {
+                expected.run();
+                assertEquals(expected.getSccCount(), dynamic.getSccCount());
+                for (int u = 0; u < g.V; u++) {
+                    assertEquals(expected.getSccId(u), dynamic.getSccId(u));
+                }
+                CsrGraph a = expected.getCondensationCsr();
+                CsrGraph b = dynamic.getCondensationCsr();
+                assertArrayEquals(a.offsets, b.offsets);
+                assertArrayEquals(a.targets, b.targets);
+                assertArrayEquals(a.minWeights, b.minWeights);
+                assertArrayEquals(a.maxWeights, b.maxWeights);
+            }
+        }
+    }
+
+    @Test
+    void testIdsOfUntouchedComponentsAreStable() {
+        // Two chains 0..4 and 5..9; closing a cycle on the first one must not
+        // renumber the second.
+        Graph g = new Graph(10);
+        for (int u = 0; u < 9; u++) {
+            if (u != 4) {
+                g.addEdge(u, u + 1, 1);
+            }
+        }
+        DynamicSCC scc = new DynamicSCC(g, metrics);
+        scc.run();
+        int[] before = new int[10];
+        for (int u = 0; u < 10; u++) {
+            before[u] = scc.getSccId(u);
+        }
+        scc.addEdge(2, 1, 1);
+        assertEquals(9, scc.getSccCount());
+        for (int u = 5; u < 9; u++) {
+            assertEquals(before[u], scc.getSccId(u));
+        }
+    }
+
+    @Test
+    void testUpdatesBeforeRunAreRejected() {
+        DynamicSCC scc = new DynamicSCC(new Graph(2), metrics);
+        assertThrows(IllegalStateException.class, () -> scc.addEdge(0, 1, 1));
+    }
+
+    @Test
+    void testMatchesStaticRecomputationUnderRandomUpdates() {
+        Random random = new Random(11);
+        for (int round = 0; round < 10; round++) {
+            int n = 2 + random.nextInt(60);
+            List<int[]> edges = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                edges.add(new int[]{random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9)});
+            }
+            DynamicSCC scc = new DynamicSCC(build(n, edges), metrics);
+            scc.run();
+
+            for (int step = 0; step < 200; step++) {
+                if (!edges.isEmpty() && random.nextInt(3) == 0) {
+                    int[] e = edges.remove(random.nextInt(edges.size()));
+                    assertTrue(scc.removeEdge(e[0], e[1], e[2]));
+                } else {
+                    int[] e = {random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9)};
+                    edges.add(e);
+                    scc.addEdge(e[0], e[1], e[2]);
+                }
+                if (step % 5 == 0) {
+                    assertSameAsStatic(scc, build(n, edges));
+                }
+            }
+        }
+    }
+
+    private void assertSameAsStatic(DynamicSCC dynamic, CsrGraph g) {
+        PearceSCC expected = new PearceSCC(g, metrics);
+        expected.run();
+
+        assertEquals(expected.getSccCount(), dynamic.getSccCount());
+        int[] toDynamic = new int[expected.getSccCount()];
+        for (int u = 0; u < g.V; u++) {
+            toDynamic[expected.getSccId(u)] = dynamic.getSccId(u);
+        }
+        for (int u = 0; u < g.V; u++) {
+            assertEquals(toDynamic[expected.getSccId(u)], dynamic.getSccId(u));
+        }
+
+        CsrGraph condensation = dynamic.getCondensationCsr();
+        Set<List<Integer>> mapped = new HashSet<>();
+        for (List<Integer> e : edgeSet(expected.getCondensationCsr())) {
+            mapped.add(List.of(toDynamic[e.get(0)], toDynamic[e.get(1)], e.get(2), e.get(3)));
+        }
+        assertEquals(mapped, edgeSet(condensation));
+
+        // Rows are sorted and the online order respects every edge.
+        int[] position = new int[condensation.V];
+        int[] order = dynamic.topologicalOrder();
+        assertEquals(condensation.V, order.length);
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        for (int c = 0; c < condensation.V; c++) {
+            for (int i = condensation.offsets[c]; i < condensation.offsets[c + 1]; i++) {
+                assertTrue(position[c] < position[condensation.targets[i]]);
+                if (i > condensation.offsets[c]) {
+                    assertTrue(condensation.targets[i - 1] < condensation.targets[i]);
+                }
+            }
+        }
+    }
+
+    private static CsrGraph build(int n, List<int[]> edges) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int[] e : edges) {
+            builder.addEdge(e[0], e[1], e[2]);
+        }
+        return builder.build();
+    }
+
+    private static Set<List<Integer>> edgeSet(CsrGraph g) {
+        Set<List<Integer>> result = new HashSet<>();
+        for (int u = 0; u < g.V; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                result.add(List.of(u, g.targets[i], g.minWeights[i], g.maxWeights[i]));
+            }
+        }
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.graph.scc;
 
 import org.example.Metrics;
+import org.example.graph.CsrGraph;
 import org.example.graph.Graph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -97,5 +98,21 @@ class KosarajuSCCTest {
         assertNotNull(condensation);
         assertTrue(condensation.V >= 2);
     }
-}
 
+    @Test
+    void testLongChainDoesNotOverflowStack() {
+        int n = 1_000_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, n);
+        for (int i = 1; i < n; i++) {
+            builder.addEdge(i - 1, i, 1);
+        }
+        builder.addEdge(n - 1, 0, 1);
+
+        KosarajuSCC scc = new KosarajuSCC(builder.build(), metrics);
+        scc.run();
+
+        assertEquals(1, scc.getSccs().size());
+        assertEquals(n, scc.getSccs().get(0).size());
+        assertEquals(scc.getSccId(0), scc.getSccId(n - 1));
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.graph.scc;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Edge;
+import org.example.graph.Graph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ParallelSCCTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testSimpleCycleWithTail() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(4, 0, 1);
+
+        ParallelSCC scc = new ParallelSCC(g.toCsr(), metrics, 2);
+        scc.run();
+
+        assertEquals(3, scc.getSccCount());
+        assertEquals(scc.getSccId(0), scc.getSccId(2));
+        assertNotEquals(scc.getSccId(3), scc.getSccId(4));
+    }
+
+    @Test
+    void testInterruptIsKept() {
+        ParallelSCC scc = new ParallelSCC(randomGraph(new Random(3), 1000, 3000), metrics, 2);
+        Thread.currentThread().interrupt();
+        assertThrows(IllegalStateException.class, scc::run);
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void testMatchesKosarajuOnSmallRandomGraphs() {
+        Random random = new Random(11);
+        for (int round = 0; round < 30; round++) {
+            int n = 1 + random.nextInt(300);
+            assertSameAsKosaraju(randomGraph(random, n, random.nextInt(3 * n)), 1 + random.nextInt(4));
+        }
+    }
+
+    @Test
+    void testMatchesKosarajuOnLargeGraphs() {
+        Random random = new Random(5);
+        assertSameAsKosaraju(randomGraph(random, 50_000, 120_000), 4);
+
+        int n = 40_000;
+        CsrGraph.Builder cycles = new CsrGraph.Builder(n);
+        for (int i = 0; i < n; i++) {
+            int blockStart = i - i % 100;
+            cycles.addEdge(i, i + 1 < blockStart + 100 ? i + 1 : blockStart, 1 + random.nextInt(10));
+            if (i % 100 == 0 && i + 100 < n) {
+                cycles.addEdge(i, i + 100, 1 + random.nextInt(10));
+            }
+        }
+        assertSameAsKosaraju(cycles.build(), 3);
+    }
+
+    private static CsrGraph randomGraph(Random random, int n, int m) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int i = 0; i < m; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+        }
+        return builder.build();
+    }
+
+    private void assertSameAsKosaraju(CsrGraph g, int threads) {
+        KosarajuSCC kosaraju = new KosarajuSCC(g, metrics);
+        kosaraju.run();
+        ParallelSCC parallel = new ParallelSCC(g, metrics, threads);
+        parallel.run();
+
+        assertEquals(kosaraju.getSccCount(), parallel.getSccCount());
+        for (int u = 0; u < g.V; u++) {
+            assertEquals(kosaraju.getSccId(u), parallel.getSccId(u));
+        }
+        assertEquals(kosaraju.getSccs(), parallel.getSccs());
+
+        Graph expected = kosaraju.getCondensationGraph();
+        Graph actual = parallel.getCondensationGraph();
+        assertEquals(expected.V, actual.V);
+        for (int c = 0; c < expected.V; c++) {
+            assertEquals(expected.adj.get(c).size(), actual.adj.get(c).size());
+            for (int i = 0; i < expected.adj.get(c).size(); i++) {
+                Edge e = expected.adj.get(c).get(i);
+                Edge a = actual.adj.get(c).get(i);
+                assertEquals(e.to, a.to);
+                assertEquals(e.minWeight, a.minWeight);
+                assertEquals(e.maxWeight, a.maxWeight);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.graph.scc;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class PearceSCCTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testSingleNode() {
+        PearceSCC scc = new PearceSCC(new Graph(1), metrics);
+        scc.run();
+
+        assertEquals(1, scc.getSccs().size());
+        assertEquals(0, scc.getSccId(0));
+    }
+
+    @Test
+    void testSimpleCycle() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+
+        PearceSCC scc = new PearceSCC(g, metrics);
+        scc.run();
+
+        assertEquals(1, scc.getSccs().size());
+        assertEquals(3, scc.getSccs().get(0).size());
+    }
+
+    @Test
+    void testIdsFollowTopologicalOrder() {
+        Graph g = new Graph(6);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+        g.addEdge(3, 4, 1);
+        g.addEdge(4, 5, 1);
+        g.addEdge(5, 3, 1);
+        g.addEdge(0, 3, 1);
+
+        PearceSCC scc = new PearceSCC(g, metrics);
+        scc.run();
+
+        assertEquals(2, scc.getSccCount());
+        assertTrue(scc.getSccId(0) < scc.getSccId(3));
+        assertEquals(2, scc.getCondensationGraph().V);
+        assertEquals(1, scc.getCondensationGraph().adj.get(scc.getSccId(0)).size());
+    }
+
+    @Test
+    void testMatchesKosarajuOnRandomGraphs() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + random.nextInt(200);
+            int m = random.nextInt(3 * n);
+            CsrGraph.Builder builder = new CsrGraph.Builder(n);
+            for (int i = 0; i < m; i++) {
+                builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+            }
+            CsrGraph g = builder.build();
+
+            KosarajuSCC kosaraju = new KosarajuSCC(g, metrics);
+            kosaraju.run();
+            PearceSCC pearce = new PearceSCC(g, metrics);
+            pearce.run();
+
+            assertEquals(kosaraju.getSccCount(), pearce.getSccCount());
+            assertEquals(asSets(kosaraju.getSccs()), asSets(pearce.getSccs()));
+            for (int u = 0; u < n; u++) {
+                for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                    assertTrue(pearce.getSccId(u) <= pearce.getSccId(g.targets[i]));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLongChainDoesNotOverflowStack() {
+        int n = 1_000_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, n);
+        for (int i = 1; i < n; i++) {
+            builder.addEdge(i - 1, i, 1);
+        }
+
+        PearceSCC scc = new PearceSCC(builder.build(), metrics);
+        scc.run();
+
+        assertEquals(n, scc.getSccCount());
+        assertEquals(0, scc.getSccId(0));
+        assertEquals(n - 1, scc.getSccId(n - 1));
+    }
+
+    private static Set<Set<Integer>> asSets(List<List<Integer>> sccs) {
+        Set<Set<Integer>> result = new HashSet<>();
+        for (List<Integer> scc : sccs) {
+            result.add(new HashSet<>(scc));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.graph.snapshot;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.dagsp.DAGPathFinder;
+import org.example.graph.scc.PearceSCC;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VersionedGraphTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testOldSnapshotIsUnchanged() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(4);
+        builder.addEdge(0, 1, 2);
+        builder.addEdge(1, 2, 3);
+        builder.addEdge(2, 3, 4);
+        VersionedGraph graph = new VersionedGraph(builder.build(), metrics);
+
+        GraphSnapshot before = graph.current();
+        assertEquals(0, before.version);
+        assertEquals(9, before.query(0, 3, true).distance);
+
+        GraphSnapshot after = graph.apply(new VersionedGraph.EdgeBatch()
+                .add(2, 0, 1)
+                .remove(2, 3, 4)
+                .add(2, 3, 10));
+        assertEquals(1, after.version);
+        assertSame(after, graph.current());
+
+        assertEquals(4, before.scc.getSccCount());
+        assertEquals(3, before.graph.E);
+        assertEquals(List.of(0, 1, 2, 3), before.query(0, 3, true).path);
+        assertEquals(9, before.query(0, 3, true).distance);
+
+        assertEquals(2, after.scc.getSccCount());
+        assertEquals(4, after.graph.E);
+        assertEquals(after.sccOf(0), after.sccOf(2));
+        assertEquals(10, after.query(0, 3, true).distance);
+        assertTrue(after.query(3, 0, false).path.isEmpty());
+    }
+
+    @Test
+    void testMissingRemovalIsIgnored() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(3);
+        builder.addEdge(0, 1, 5);
+        VersionedGraph graph = new VersionedGraph(builder.build(), metrics);
+
+        GraphSnapshot next = graph.apply(new VersionedGraph.EdgeBatch().remove(0, 1, 6).remove(1, 2, 5));
+        assertEquals(1, next.graph.E);
+        assertEquals(0, metrics.getCounter("snapshot.edges.removed"));
+
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> graph.apply(new VersionedGraph.EdgeBatch().add(0, 2, 1).add(0, 3, 1)));
+        assertSame(next, graph.current());
+        assertEquals(1, graph.apply(new VersionedGraph.EdgeBatch()).graph.E);
+    }
+
+    @Test
+    void testBatchesMatchRebuildFromScratch() {
+        checkAgainstRebuild(300, 600, 30, 3, false);
+        assertEquals(20, metrics.getCounter("snapshot.publishes"));
+    }
+
+    @Test
+    void testBatchesWithoutMergesKeepSccIds() {
+        // Edges only go from lower to higher ids, so no batch merges components
+        // and every version after the first keeps the ids and reorders online.
+        checkAgainstRebuild(2000, 4000, 50, 4, true);
+        assertEquals(1, metrics.getCounter("snapshot.renumbered"));
+    }
+
+    @Test
+    void testInsertOnlyBatchesPatchCondensation() {
+        checkAgainstRebuild(2000, 4000, 200, 0, true);
+        assertEquals(1, metrics.getCounter("snapshot.renumbered"));
+        assertEquals(4000, metrics.getCounter("snapshot.edges.added"));
+    }
+
+    // V nodes, edgeCount random initial edges, then 20 batches of batchSize
+    // operations of which one in removeEvery is a removal (none if 0). With acyclic
+    // set, every edge goes from the lower to the higher id.
+    private void checkAgainstRebuild(int V, int edgeCount, int batchSize, int removeEvery, boolean acyclic) {
+        Random random = new Random(7);
+        CsrGraph.Builder builder = new CsrGraph.Builder(V);
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < edgeCount; i++) {
+            int[] e = randomEdge(random, V, acyclic);
+            builder.addEdge(e[0], e[1], e[2]);
+            edges.add(e);
+        }
+        VersionedGraph graph = new VersionedGraph(builder.build(), metrics);
+
+        for (int round = 0; round < 20; round++) {
+            VersionedGraph.EdgeBatch batch = new VersionedGraph.EdgeBatch();
+            for (int i = 0; i < batchSize; i++) {
+                if (removeEvery > 0 && random.nextInt(removeEvery) == 0 && !edges.isEmpty()) {
+                    int[] e = edges.remove(random.nextInt(edges.size()));
+                    batch.remove(e[0], e[1], e[2]);
+                } else {
+                    int[] e = randomEdge(random, V, acyclic);
+                    batch.add(e[0], e[1], e[2]);
+                    edges.add(e);
+                }
+            }
+            GraphSnapshot snapshot = graph.apply(batch);
+
+            CsrGraph.Builder expected = new CsrGraph.Builder(V);
+            for (int[] e : edges) {
+                expected.addEdge(e[0], e[1], e[2]);
+            }
+            CsrGraph rebuilt = expected.build();
+            assertEquals(rebuilt.E, snapshot.graph.E);
+            for (int u = 0; u < V; u++) {
+                assertEquals(rebuilt.outDegree(u), snapshot.graph.outDegree(u));
+            }
+            // Patched or rebuilt, condensation rows stay sorted by target.
+            for (int c = 0; c < snapshot.condensation.V; c++) {
+                for (int i = snapshot.condensation.offsets[c] + 1; i < snapshot.condensation.offsets[c + 1]; i++) {
+                    assertTrue(snapshot.condensation.targets[i - 1] < snapshot.condensation.targets[i]);
+                }
+            }
+
+            PearceSCC scc = new PearceSCC(rebuilt, metrics);
+            scc.run();
+            assertEquals(scc.getSccCount(), snapshot.scc.getSccCount());
+            int[] toSnapshotId = new int[scc.getSccCount()];
+            for (int u = 0; u < V; u++) {
+                toSnapshotId[scc.getSccId(u)] = snapshot.sccOf(u);
+            }
+            for (int u = 0; u < V; u++) {
+                assertEquals(toSnapshotId[scc.getSccId(u)], snapshot.sccOf(u));
+            }
+            CsrGraph condensation = scc.getCondensationCsr();
+            int[] order = new int[condensation.V];
+            for (int c = 0; c < order.length; c++) {
+                order[c] = c;
+            }
+            DAGPathFinder finder = new DAGPathFinder(condensation, order, metrics);
+            for (int q = 0; q < 20; q++) {
+                int u = random.nextInt(V);
+                int v = random.nextInt(V);
+                boolean longest = random.nextBoolean();
+                DAGPathFinder.Path path = finder.query(scc.getSccId(u), scc.getSccId(v), longest);
+                assertEquals(path.distance, snapshot.query(u, v, longest).distance);
+            }
+        }
+    }
+
+    private static int[] randomEdge(Random random, int V, boolean acyclic) {
+        int u = random.nextInt(V);
+        int v = random.nextInt(V);
+        if (acyclic && u >= v) {
+            return randomEdge(random, V, acyclic);
+        }
+        return new int[]{u, v, 1 + random.nextInt(20)};
+    }
+
+    @Test
+    void testReadersSeeConsistentVersionsDuringWrites() throws InterruptedException {
+        // A chain 0 -> 1 -> ... -> V-1 of weight-1 edges; version n adds n more
+        // parallel edges of weight 2 along it, so the longest path from 0 to
+        // V - 1 is 2 * (V - 1) and the edge count is (V - 1) + n in every version.
+        int V = 2000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(V);
+        for (int u = 0; u + 1 < V; u++) {
+            builder.addEdge(u, u + 1, 1);
+        }
+        VersionedGraph graph = new VersionedGraph(builder.build(), metrics);
+        graph.apply(new VersionedGraph.EdgeBatch().add(0, 1, 2));
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            Thread reader = new Thread(() -> {
+                long lastVersion = 0;
+                while (!done.get() && failure.get() == null) {
+                    GraphSnapshot snapshot = graph.current();
+                    long version = snapshot.version;
+                    if (version < lastVersion) {
+                        failure.set("version went back from " + lastVersion + " to " + version);
+                    }
+                    lastVersion = version;
+                    if (snapshot.graph.E != V - 1 + version) {
+                        failure.set("version " + version + " has " + snapshot.graph.E + " edges");
+                    }
+                    long longest = snapshot.query(0, (int) Math.min(V - 1, version), true).distance;
+                    if (longest != 2 * Math.min(V - 1, version)) {
+                        failure.set("version " + version + " has longest path " + longest);
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int u = 1; u + 1 < V; u++) {
+            graph.apply(new VersionedGraph.EdgeBatch().add(u, u + 1, 2));
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertEquals(V - 1, graph.current().version);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.graph.topo;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class OnlineTopologicalOrderTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testInsertionReordersAffectedRegion() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1);
+        g.addEdge(2, 3, 1);
+
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(g, metrics);
+        assertTrue(order.addEdge(3, 0));
+        assertTrue(order.position(2) < order.position(3));
+        assertTrue(order.position(3) < order.position(0));
+        assertTrue(order.position(0) < order.position(1));
+        assertNull(order.lastCycle());
+    }
+
+    @Test
+    void testCycleIsRejectedAndReported() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(g, metrics);
+        int[] before = order.order();
+        assertFalse(order.addEdge(3, 1));
+        assertEquals(List.of(3, 1, 2), order.lastCycle());
+        assertArrayEquals(before, order.order());
+
+        assertTrue(order.removeEdge(1, 2));
+        assertTrue(order.addEdge(3, 1));
+        assertFalse(order.addEdge(2, 2));
+    }
+
+    @Test
+    void testOutOfRangeEdgesAreRejected() {
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(new Graph(2), metrics);
+        assertThrows(IndexOutOfBoundsException.class, () -> order.addEdge(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> order.removeEdge(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> order.removeEdge(0, 2));
+        assertFalse(order.removeEdge(0, 1));
+    }
+
+    @Test
+    void testInitialCycleIsRejected() {
+        Graph g = new Graph(2);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new OnlineTopologicalOrder(g, metrics));
+    }
+
+    @Test
+    void testOrderStaysValidUnderRandomInsertions() {
+        Random random = new Random(5);
+        int n = 200;
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(new CsrGraph.Builder(n).build(), metrics);
+        List<int[]> accepted = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (order.addEdge(u, v)) {
+                accepted.add(new int[]{u, v});
+            } else {
+                List<Integer> cycle = order.lastCycle();
+                assertEquals(u, cycle.get(0));
+                if (u != v) {
+                    assertEquals(v, cycle.get(1));
+                }
+            }
+        }
+
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int[] e : accepted) {
+            assertTrue(order.position(e[0]) < order.position(e[1]));
+            builder.addEdge(e[0], e[1], 1);
+        }
+        assertNotNull(new TopologicalSort(builder.build(), metrics).run());
+        int[] nodes = order.order();
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, order.position(nodes[i]));
+        }
+    }
+}
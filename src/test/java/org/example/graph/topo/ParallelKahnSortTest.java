@@ -0,0 +1,92 @@
+package org.example.graph.topo;
+
+import org.example.Metrics;
+import org.example.graph.CsrGraph;
+import org.example.graph.Graph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ParallelKahnSortTest {
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testWavesOfDiamond() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 1);
+        g.addEdge(0, 2, 1);
+        g.addEdge(1, 3, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 4, 1);
+
+        ParallelKahnSort.Schedule schedule = new ParallelKahnSort(g, metrics).run();
+
+        assertNotNull(schedule);
+        assertEquals(4, schedule.levelCount);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, schedule.order);
+        assertArrayEquals(new int[]{0, 1, 1, 2, 3}, schedule.level);
+        assertArrayEquals(new int[]{1, 2}, schedule.wave(1));
+    }
+
+    @Test
+    void testCycleDetection() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 1, 1);
+        g.addEdge(2, 3, 1);
+
+        assertNull(new ParallelKahnSort(g, metrics).run());
+    }
+
+    @Test
+    void testEmptyGraph() {
+        ParallelKahnSort.Schedule schedule = new ParallelKahnSort(new Graph(3), metrics).run();
+        assertEquals(1, schedule.levelCount);
+        assertEquals(3, schedule.order.length);
+    }
+
+    @Test
+    void testWideRandomDagLevelsAreLongestPathDepths() {
+        Random random = new Random(9);
+        int n = 60_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int i = 0; i < 4 * n; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                builder.addEdge(Math.min(a, b), Math.max(a, b), 1);
+            }
+        }
+        CsrGraph g = builder.build();
+
+        ParallelKahnSort.Schedule schedule = new ParallelKahnSort(g, metrics, 4).run();
+        assertNotNull(schedule);
+
+        int[] depth = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                depth[g.targets[i]] = Math.max(depth[g.targets[i]], depth[u] + 1);
+            }
+        }
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[schedule.order[i]] = i;
+        }
+        for (int u = 0; u < n; u++) {
+            assertEquals(depth[u], schedule.level[u]);
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                assertTrue(position[u] < position[g.targets[i]]);
+            }
+        }
+    }
+}
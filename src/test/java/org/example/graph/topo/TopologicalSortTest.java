@@ -1,6 +1,7 @@
 package org.example.graph.topo;
 
 import org.example.Metrics;
+import org.example.graph.CsrGraph;
 import org.example.graph.Graph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -94,5 +95,22 @@ class TopologicalSortTest {
         assertNotNull(order);
         assertEquals(3, order.size());
     }
-}
 
+    @Test
+    void testLongChainDoesNotOverflowStack() {
+        int n = 1_000_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, n);
+        for (int i = 1; i < n; i++) {
+            builder.addEdge(i - 1, i, 1);
+        }
+
+        TopologicalSort topo = new TopologicalSort(builder.build(), metrics);
+        List<Integer> order = topo.run();
+
+        assertNotNull(order);
+        assertEquals(n, order.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+}
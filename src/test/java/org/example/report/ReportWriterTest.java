@@ -0,0 +1,130 @@
+package org.example.report;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.example.Main;
+import org.example.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ReportWriterTest {
+
+    private static byte[] report(String dataset, String format, int limit) throws IOException {
+        return report(dataset, format, limit, new Main.Options());
+    }
+
+    private static byte[] report(String dataset, String format, int limit, Main.Options options) throws IOException {
+        options.topoMode = "kahn";
+        Metrics metrics = new Metrics();
+        Main.Result result = Main.analyze(dataset, options, metrics);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReportWriter writer = ReportWriter.create(format, ReportBuffer.of(out), limit)) {
+            Main.writeReport(result, writer, metrics);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void testNumberFormatting() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReportBuffer buffer = ReportBuffer.of(out)) {
+            buffer.number(0).ascii(' ').number(-42).ascii(' ').number(Long.MAX_VALUE).ascii(' ').number(Long.MIN_VALUE);
+        }
+        assertEquals("0 -42 9223372036854775807 -9223372036854775808", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testTextReportMatchesSections() throws IOException {
+        String text = new String(report("data/medium_3.json", "text", ReportWriter.UNLIMITED), StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("=== Smart City Scheduling Analysis ===\nDataset: data/medium_3.json\n"));
+        assertTrue(text.contains("Found 7 SCCs:\n  SCC 0 (Size "));
+        assertTrue(text.contains("### 1.2 Topological Sort of Condensation DAG ###\nTopological Order of SCCs: ["));
+        assertTrue(text.contains("Parallel schedule ("));
+        assertTrue(text.contains("### Instrumentation Report ###\nCounters:"));
+        assertTrue(text.contains("  Report "));
+        assertFalse(text.contains("more"));
+    }
+
+    @Test
+    void testSummaryLimitTruncatesSections() throws IOException {
+        String text = new String(report("data/medium_3.json", "text", 2), StandardCharsets.UTF_8);
+        assertTrue(text.contains("  SCC 1 (Size "));
+        assertFalse(text.contains("  SCC 2 (Size "));
+        assertTrue(text.contains("  ... (5 more SCCs)"));
+        assertTrue(text.contains("Topological Order of SCCs: [") && text.contains(", ... (5 more)]"));
+    }
+
+    @Test
+    void testJsonLinesParse() throws IOException {
+        String[] lines = new String(report("data/medium_3.json", "jsonl", 3), StandardCharsets.UTF_8).split("\n");
+        List<String> sections = new ArrayList<>();
+        for (String line : lines) {
+            JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+            assertEquals("data/medium_3.json", json.get("dataset").getAsString());
+            sections.add(json.get("section").getAsString());
+            if (json.has("shown")) {
+                assertTrue(json.get("shown").getAsInt() <= 3);
+            }
+        }
+        assertEquals(List.of("header", "sccs", "condensation", "order", "shortest", "longest", "criticalPath",
+                "examplePath", "metrics"), sections);
+
+        JsonObject sccs = JsonParser.parseString(lines[1]).getAsJsonObject();
+        assertEquals(7, sccs.get("count").getAsInt());
+        assertEquals(3, sccs.getAsJsonArray("members").size());
+    }
+
+    @Test
+    void testCpmSection() throws IOException {
+        Main.Options options = new Main.Options();
+        options.cpm = true;
+        String text = new String(report("data/medium_3.json", "text", ReportWriter.UNLIMITED, options),
+                StandardCharsets.UTF_8);
+        assertTrue(text.contains("### 1.4 Critical Path Scheduling (CPM) ###\nProject length: "));
+        assertTrue(text.contains("  SCC 6: ES "));
+
+        String[] lines = new String(report("data/medium_3.json", "jsonl", ReportWriter.UNLIMITED, options),
+                StandardCharsets.UTF_8).split("\n");
+        JsonObject cpm = JsonParser.parseString(lines[lines.length - 2]).getAsJsonObject();
+        assertEquals("cpm", cpm.get("section").getAsString());
+        assertEquals(7, cpm.getAsJsonArray("slack").size());
+        assertEquals(cpm.get("criticalCount").getAsInt(), cpm.getAsJsonArray("critical").size());
+    }
+
+    @Test
+    void testBinaryReportHeader() throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(report("data/small_1.json", "binary", ReportWriter.UNLIMITED))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(BinaryReportWriter.MAGIC, in.getInt());
+        assertEquals(BinaryReportWriter.VERSION, in.getInt());
+        assertEquals(BinaryReportWriter.HEADER, in.get());
+        assertEquals("data/small_1.json", string(in));
+        assertEquals(8, in.getInt());
+        assertEquals(8, in.getInt());
+        in.getInt();
+        assertEquals("edge", string(in));
+        assertEquals("kosaraju", string(in));
+        assertEquals("", string(in));
+
+        assertEquals(BinaryReportWriter.SCCS, in.get());
+        assertEquals(6, in.getInt());
+        assertEquals(6, in.getInt());
+        assertEquals(BinaryReportWriter.END, in.get(in.limit() - 1));
+    }
+
+    private static String string(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}